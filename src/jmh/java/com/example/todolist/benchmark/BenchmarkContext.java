@@ -0,0 +1,60 @@
+package com.example.todolist.benchmark;
+
+import com.example.todolist.TodolistApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Boots the JPA layer against an in-memory H2 database (profile
+ * {@code benchmark}) and seeds it with set-based SQL so large row counts
+ * load in seconds.
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(TodolistApplication.class)
+            .profiles("benchmark")
+            .web(WebApplicationType.NONE)
+            .run();
+    }
+
+    /**
+     * Starts the full web application on a random port; {@code args} are
+     * passed as command-line properties (e.g. {@code --todolist.threads.virtual=true}).
+     * A positive {@code queryLatencyMs} delays every statement by that much.
+     */
+    static ConfigurableApplicationContext startWeb(long queryLatencyMs, String... args) {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(TodolistApplication.class)
+            .profiles("benchmark")
+            .web(WebApplicationType.SERVLET)
+            .properties("server.port=0");
+        if (queryLatencyMs > 0) {
+            builder.initializers(context -> context.getBeanFactory()
+                .addBeanPostProcessor(new QueryLatencyPostProcessor(queryLatencyMs)));
+        }
+        return builder.run(args);
+    }
+
+    static long seedUsers(ConfigurableApplicationContext context, int users) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("INSERT INTO users (username, role, created_at, version) "
+            + "SELECT 'user-' || X, 'USER', CURRENT_TIMESTAMP, 0 FROM SYSTEM_RANGE(1, ?)", users);
+        return jdbc.queryForObject("SELECT MIN(id) FROM users", Long.class);
+    }
+
+    static void seedTodos(ConfigurableApplicationContext context, int rows, long firstUserId, int users) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("INSERT INTO todolist (id, title, description, completed, level, created_at, user_id, version) "
+            + "SELECT X, 'Task ' || X, 'Benchmark row', MOD(X, 2) = 0, "
+            + "CASE MOD(X, 3) WHEN 0 THEN 'LOW' WHEN 1 THEN 'MEDIUM' ELSE 'HIGH' END, "
+            + "DATEADD('SECOND', X, TIMESTAMP WITH TIME ZONE '2024-01-01 00:00:00Z'), "
+            + "? + MOD(X, ?), 0 FROM SYSTEM_RANGE(1, ?)", firstUserId, users, rows);
+        // Move the pooled sequence past the seeded ids
+        jdbc.execute("ALTER SEQUENCE todolist_seq RESTART WITH " + (rows + 100));
+    }
+}
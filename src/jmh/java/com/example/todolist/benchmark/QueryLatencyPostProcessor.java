@@ -0,0 +1,51 @@
+package com.example.todolist.benchmark;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Wraps the pooled {@link DataSource} so every prepared statement blocks for a
+ * fixed time while holding its connection, standing in for the network round
+ * trip to a remote database.
+ */
+final class QueryLatencyPostProcessor implements BeanPostProcessor {
+
+    private final long latencyMs;
+
+    QueryLatencyPostProcessor(long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource)) {
+            return bean;
+        }
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return withLatency(super.getConnection());
+            }
+        };
+    }
+
+    private Connection withLatency(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+                if (method.getName().startsWith("prepare")) {
+                    Thread.sleep(latencyMs);
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.todolist.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedOutputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request latency of {@code GET /api/todos} under the old logging setup
+ * ({@code show-sql} with {@code format_sql}, synchronous console appender)
+ * and the {@code prod} profile (no statement echo, JSON through an async
+ * appender). Both write stdout to {@code target/jmh-request-logging.log}, a
+ * stand-in for a container's log pipe, so the benchmark output stays readable.
+ * <p>
+ * Not yet run; the README records no results for it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(8)
+public class RequestLoggingBenchmark {
+
+    private static final int USERS = 1000;
+    private static final int ROWS = 100_000;
+
+    @Param({"show-sql", "async-json"})
+    public String logging;
+
+    private ConfigurableApplicationContext context;
+    private PrintStream originalOut;
+    private PrintStream logOut;
+    private HttpClient client;
+    private String baseUrl;
+    private long firstUserId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws FileNotFoundException {
+        originalOut = System.out;
+        logOut = new PrintStream(new BufferedOutputStream(
+            new FileOutputStream("target/jmh-request-logging.log", true)), true);
+        System.setOut(logOut);
+
+        String[] args = switch (logging) {
+            case "show-sql" -> new String[]{
+                "--spring.jpa.show-sql=true",
+                "--spring.jpa.properties.hibernate.format_sql=true",
+                "--logging.level.root=INFO"};
+            case "async-json" -> new String[]{
+                "--spring.profiles.active=prod",
+                "--logging.level.root=INFO"};
+            default -> throw new IllegalArgumentException("Unknown logging mode: " + logging);
+        };
+        context = BenchmarkContext.startWeb(0, args);
+        firstUserId = BenchmarkContext.seedUsers(context, USERS);
+        BenchmarkContext.seedTodos(context, ROWS, firstUserId, USERS);
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api/todos?limit=20&userId=";
+        client = HttpClient.newHttpClient();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        System.setOut(originalOut);
+        logOut.close();
+    }
+
+    @Benchmark
+    public int listTodos() throws IOException, InterruptedException {
+        long userId = firstUserId + ThreadLocalRandom.current().nextInt(USERS);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + userId)).build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
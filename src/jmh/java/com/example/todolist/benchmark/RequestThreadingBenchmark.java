@@ -0,0 +1,105 @@
+package com.example.todolist.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of {@code GET /api/todos} with {@link #CONCURRENCY} requests in
+ * flight, comparing Tomcat's platform-thread pool (200 threads by default)
+ * with {@code todolist.threads.virtual=true}. Each invocation fires one wave
+ * of requests and waits for all of them; the score is requests per second.
+ * <p>
+ * {@code dbLatencyMs} delays each statement while it holds its connection to
+ * stand in for a remote database, since the in-memory H2 never blocks long
+ * enough to exhaust the platform pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class RequestThreadingBenchmark {
+
+    private static final int CONCURRENCY = 1000;
+    private static final int USERS = 1000;
+    private static final int ROWS = 100_000;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Param({"0", "10"})
+    public int dbLatencyMs;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private String baseUrl;
+    private long firstUserId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.startWeb(dbLatencyMs,
+            "--todolist.threads.virtual=" + virtualThreads,
+            // Pool sized like production; both modes share the same cap on JDBC concurrency
+            "--spring.datasource.hikari.maximum-pool-size=50",
+            "--spring.datasource.hikari.connection-timeout=60000",
+            // Let all client connections in so the request threads, not the accept queue, are measured
+            "--server.tomcat.accept-count=" + CONCURRENCY,
+            "--server.tomcat.max-keep-alive-requests=-1");
+        firstUserId = BenchmarkContext.seedUsers(context, USERS);
+        BenchmarkContext.seedTodos(context, ROWS, firstUserId, USERS);
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api/todos?limit=20&userId=";
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder().executor(clientExecutor).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clientExecutor.close();
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONCURRENCY)
+    public void listTodos() {
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[CONCURRENCY];
+        for (int i = 0; i < CONCURRENCY; i++) {
+            long userId = firstUserId + ThreadLocalRandom.current().nextInt(USERS);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + userId)).build();
+            responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenAccept(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("Unexpected status " + response.statusCode());
+                    }
+                });
+        }
+        CompletableFuture.allOf(responses).join();
+    }
+}
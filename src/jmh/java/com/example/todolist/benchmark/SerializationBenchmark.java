@@ -0,0 +1,78 @@
+package com.example.todolist.benchmark;
+
+import com.example.todolist.dto.CursorPage;
+import com.example.todolist.dto.TodoView;
+import com.example.todolist.model.Level;
+import com.example.todolist.model.Role;
+import com.example.todolist.model.Todo;
+import com.example.todolist.model.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the payloads the API returns, using the same
+ * {@link ObjectMapper} configuration Spring Boot applies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private User user;
+    private Todo todo;
+    private CursorPage<TodoView> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        user = new User("alice", Role.USER);
+        user.setId(1L);
+
+        todo = new Todo("Buy groceries", "Milk, eggs, bread", user, Level.HIGH);
+        todo.setId(1L);
+
+        Instant now = Instant.now();
+        List<TodoView> items = new ArrayList<>();
+        for (long i = 0; i < 50; i++) {
+            items.add(new TodoView(i, "Task " + i, "Description " + i, i % 2 == 0, Level.MEDIUM,
+                now.minusSeconds(i), 1L, "alice"));
+        }
+        page = new CursorPage<>(items, "MTcwNDA2NzIwMDowOjE");
+    }
+
+    @Benchmark
+    public byte[] serializeUser() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] serializeTodoWithUser() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(todo);
+    }
+
+    @Benchmark
+    public byte[] serializeTodoPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.todolist.benchmark;
+
+import com.example.todolist.dto.CursorPage;
+import com.example.todolist.dto.TodoFilter;
+import com.example.todolist.dto.TodoView;
+import com.example.todolist.model.Todo;
+import com.example.todolist.model.User;
+import com.example.todolist.service.TodoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the todo write paths and of the paginated listing (which replaced
+ * the unbounded getAllTodos) as the table grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TodoServiceBenchmark {
+
+    private static final int USERS = 1000;
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private TodoService todoService;
+    private long firstUserId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        todoService = context.getBean(TodoService.class);
+        firstUserId = BenchmarkContext.seedUsers(context, USERS);
+        BenchmarkContext.seedTodos(context, rows, firstUserId, USERS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Todo createTodo() {
+        return todoService.createTodo(new Todo("Benchmark", "Created by JMH", randomUser()));
+    }
+
+    @Benchmark
+    public Todo updateTodo() {
+        long id = ThreadLocalRandom.current().nextLong(1, rows + 1);
+        Todo update = new Todo("Updated", "Updated by JMH", randomUser());
+        update.setCompleted(true);
+        return todoService.updateTodo(id, update);
+    }
+
+    @Benchmark
+    public CursorPage<TodoView> getTodosFirstPage() {
+        return todoService.getTodos(TodoFilter.none(), null, null);
+    }
+
+    @Benchmark
+    public CursorPage<TodoView> getTodosForUser() {
+        return todoService.getTodos(new TodoFilter(randomUser().getId(), null, null), null, null);
+    }
+
+    private User randomUser() {
+        User user = new User();
+        user.setId(firstUserId + ThreadLocalRandom.current().nextInt(USERS));
+        return user;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.todolist;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * {@code java -jar todolist.jar migrate}: applies the Liquibase changelog and
+ * exits. Starts only the DataSource and Liquibase, so it needs the same
+ * {@code DB_*} settings as the application but none of JPA, the web server
+ * or the scheduled jobs. Run it once per release, before the new instances
+ * start in {@code VERIFY} mode.
+ * <p>
+ * Not covered by the AOT-generated context, so it runs without
+ * {@code -Dspring.aot.enabled=true} and is not available in the native
+ * executable.
+ */
+final class MigrateCommand {
+    static final String NAME = "migrate";
+
+    private static final Logger logger = LoggerFactory.getLogger(MigrateCommand.class);
+
+    private MigrateCommand() {
+    }
+
+    // Not a @Configuration, so the application's component scan skips it
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, LiquibaseAutoConfiguration.class})
+    static class Migration {
+    }
+
+    static void run(String[] args) {
+        try (ConfigurableApplicationContext ignored = new SpringApplicationBuilder(Migration.class)
+                .web(WebApplicationType.NONE)
+                .run(args)) {
+            logger.info("Database migrations applied");
+        }
+    }
+}
@@ -1,16 +1,20 @@
 package com.example.todolist;
 
 import org.springframework.boot.SpringApplication;
-import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
-import tech.ailef.snapadmin.external.SnapAdminAutoConfiguration;
+import java.util.Arrays;
 
 @SpringBootApplication
-@ImportAutoConfiguration(SnapAdminAutoConfiguration.class)
+@ConfigurationPropertiesScan
 public class TodolistApplication {
 
 	public static void main(String[] args) {
+		if (args.length > 0 && MigrateCommand.NAME.equals(args[0])) {
+			MigrateCommand.run(Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
 		SpringApplication.run(TodolistApplication.class, args);
 	}
 
@@ -0,0 +1,82 @@
+package com.example.todolist.config;
+
+import com.example.todolist.job.IdempotencyKeyCleanupJob;
+import com.example.todolist.job.InvoicePartitionJob;
+import com.example.todolist.job.InvoiceRevenueRebuildJob;
+import com.example.todolist.job.InvoiceWorker;
+import com.example.todolist.job.TodoSummaryRebuildJob;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fails startup of an AOT build (the {@code fast-startup} and {@code native}
+ * profiles) whose baked-in switches disagree with the runtime configuration.
+ * AOT evaluates {@code @Profile} and {@code @ConditionalOnProperty} once, at
+ * build time, so changing one of these at runtime would otherwise be
+ * silently ignored. Runs before the web server and the scheduled jobs start.
+ */
+public class AotSwitchCheck implements SmartInitializingSingleton {
+
+    // Each switch, its default, and a bean that exists exactly when it is on
+    static final List<Switch> SWITCHES = List.of(
+        new Switch("todolist.threads.virtual", false, VirtualThreadsConfig.class),
+        new Switch("todolist.read-replica.enabled", false, ReadReplicaConfig.class),
+        new Switch("todolist.rate-limit.enabled", true, RateLimitConfig.class),
+        new Switch("todolist.idempotency.enabled", true, IdempotencyConfig.class),
+        new Switch("todolist.idempotency.enabled", true, IdempotencyKeyCleanupJob.class),
+        new Switch("todolist.invoice-worker.enabled", false, InvoiceWorker.class),
+        new Switch("todolist.invoice-partitions.enabled", true, InvoicePartitionJob.class),
+        new Switch("todolist.todo-summary.rebuild-enabled", true, TodoSummaryRebuildJob.class),
+        new Switch("todolist.invoice-revenue.rebuild-enabled", true, InvoiceRevenueRebuildJob.class));
+
+    private final ListableBeanFactory beanFactory;
+    private final Environment environment;
+
+    public AotSwitchCheck(ListableBeanFactory beanFactory, Environment environment) {
+        this.beanFactory = beanFactory;
+        this.environment = environment;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!AotDetector.useGeneratedArtifacts()) {
+            // Conditions were evaluated against this very environment
+            return;
+        }
+        List<String> mismatches = findMismatches();
+        if (!mismatches.isEmpty()) {
+            throw new IllegalStateException("This build was processed ahead of time with different switches: "
+                + String.join("; ", mismatches) + ". Rebuild with the runtime settings (see README, "
+                + "Startup-optimized build)");
+        }
+    }
+
+    List<String> findMismatches() {
+        List<String> mismatches = new ArrayList<>();
+        for (Switch s : SWITCHES) {
+            boolean wanted = environment.getProperty(s.property(), Boolean.class, s.defaultValue());
+            if (wanted != hasBean(s.bean())) {
+                mismatches.add(s.property() + " is " + wanted + " but was " + !wanted + " at build time");
+            }
+        }
+        boolean admin = environment.acceptsProfiles(Profiles.of("admin"));
+        if (admin != hasBean(SnapAdminConfig.class)) {
+            mismatches.add("the admin profile is " + (admin ? "active" : "inactive")
+                + " but was " + (admin ? "inactive" : "active") + " at build time");
+        }
+        return mismatches;
+    }
+
+    private boolean hasBean(Class<?> type) {
+        return beanFactory.getBeanNamesForType(type, true, false).length > 0;
+    }
+
+    record Switch(String property, boolean defaultValue, Class<?> bean) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.todolist.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * {@code @Async} methods run on Boot's {@code applicationTaskExecutor}, which
+ * {@link VirtualThreadsConfig} swaps for a virtual-thread executor when enabled.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableAsync
+public class AsyncConfig {
+}
@@ -0,0 +1,50 @@
+package com.example.todolist.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records the time from JVM start to the end of the first request as the
+ * {@value #METER} gauge and logs it once. Later requests only read a flag.
+ */
+public class FirstRequestFilter extends OncePerRequestFilter {
+    public static final String METER = "todolist.startup.first-request";
+
+    private static final Logger logger = LoggerFactory.getLogger(FirstRequestFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean recorded = new AtomicBoolean();
+
+    public FirstRequestFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (!recorded.get() && recorded.compareAndSet(false, true)) {
+                long uptimeMs = ManagementFactory.getRuntimeMXBean().getUptime();
+                TimeGauge.builder(METER, () -> uptimeMs, TimeUnit.MILLISECONDS)
+                    .description("Time from JVM start to the end of the first request")
+                    .register(meterRegistry);
+                logger.info("First request {} {} served {} ms after JVM start",
+                    request.getMethod(), request.getRequestURI(), uptimeMs);
+            }
+        }
+    }
+}
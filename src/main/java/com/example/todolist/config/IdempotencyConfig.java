@@ -0,0 +1,24 @@
+package com.example.todolist.config;
+
+import com.example.todolist.service.IdempotencyService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Applies {@link IdempotencyFilter} to the create endpoints. Replays are
+ * answered before the rate limiter and the controllers run.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "todolist.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfig {
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyService idempotencyService) {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+            new FilterRegistrationBean<>(new IdempotencyFilter(idempotencyService));
+        registration.addUrlPatterns("/api/todos", "/api/todos/batch", "/api/users");
+        return registration;
+    }
+}
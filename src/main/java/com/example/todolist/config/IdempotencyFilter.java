@@ -0,0 +1,209 @@
+package com.example.todolist.config;
+
+import com.example.todolist.model.IdempotencyKey;
+import com.example.todolist.service.IdempotencyService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Makes create requests safe to retry. A {@code POST} carrying an
+ * {@value #HEADER} header runs once; repeating it with the same key and body
+ * replays the stored response without calling the controller again.
+ * <ul>
+ *   <li>Same key while the first request is still running: {@code 409} with {@code Retry-After}.</li>
+ *   <li>Same key with a different body or caller: {@code 422}.</li>
+ *   <li>Server errors ({@code 5xx}) and transient refusals ({@code 408},
+ *   {@code 409}, {@code 425}, {@code 429}) are not stored, so the retry runs
+ *   again instead of replaying the refusal until the key expires.</li>
+ * </ul>
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyService idempotencyService;
+
+    public IdempotencyFilter(IdempotencyService idempotencyService) {
+        this.idempotencyService = idempotencyService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        byte[] body = request.getInputStream().readAllBytes();
+        String scope = request.getMethod() + " " + request.getRequestURI();
+        String requestHash = hash(request, body);
+
+        Optional<IdempotencyKey> existing;
+        try {
+            existing = idempotencyService.claim(scope, key, requestHash);
+        } catch (IllegalStateException e) {
+            writeError(response, HttpStatus.CONFLICT, e.getMessage());
+            return;
+        }
+        if (existing.isPresent()) {
+            replay(existing.get(), requestHash, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(new CachedBodyRequest(request, body), cachingResponse);
+        } catch (ServletException | IOException | RuntimeException e) {
+            idempotencyService.release(scope, key);
+            throw e;
+        }
+        int status = cachingResponse.getStatus();
+        if (isTransient(status)) {
+            idempotencyService.release(scope, key);
+        } else {
+            idempotencyService.complete(scope, key, status, cachingResponse.getContentType(),
+                new String(cachingResponse.getContentAsByteArray(), StandardCharsets.UTF_8));
+        }
+        cachingResponse.copyBodyToResponse();
+    }
+
+    // Responses that say "not now" rather than answering the request: the
+    // rate limiter's 429 runs inside this filter's chain, and a retry with the
+    // same key is exactly what it asks for
+    private static boolean isTransient(int status) {
+        return status >= 500
+            || status == HttpStatus.REQUEST_TIMEOUT.value()
+            || status == HttpStatus.CONFLICT.value()
+            || status == HttpStatus.TOO_EARLY.value()
+            || status == HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private static void replay(IdempotencyKey existing, String requestHash, HttpServletResponse response)
+            throws IOException {
+        if (!existing.getRequestHash().equals(requestHash)) {
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY, HEADER + " was already used for a different request");
+        } else if (!existing.isCompleted()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            writeError(response, HttpStatus.CONFLICT, "A request with this " + HEADER + " is still in progress");
+        } else {
+            response.setStatus(existing.getResponseStatus());
+            response.setHeader(REPLAYED_HEADER, "true");
+            if (existing.getContentType() != null) {
+                response.setContentType(existing.getContentType());
+            }
+            if (existing.getResponseBody() != null) {
+                response.getOutputStream().write(existing.getResponseBody().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    // The caller is part of the hash, so another user reusing a key gets a 422
+    // rather than someone else's response
+    private static String hash(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.valueOf(request.getHeader(RateLimitInterceptor.USER_ID_HEADER)).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(String.valueOf(request.getQueryString()).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+
+    /**
+     * The request with its body already read, so it can be hashed and then
+     * read again by the controller.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory, so async readers get it
+                // in one go
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.todolist.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for {@code Idempotency-Key} handling. Completed responses are
+ * replayed for {@code ttl}. A request that never finishes (e.g. its instance
+ * died) holds its key for {@code pendingTimeout}, after which a retry runs it
+ * again.
+ */
+@ConfigurationProperties("todolist.idempotency")
+public record IdempotencyProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("24h") Duration ttl,
+    @DefaultValue("1m") Duration pendingTimeout
+) {
+}
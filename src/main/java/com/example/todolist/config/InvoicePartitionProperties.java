@@ -0,0 +1,58 @@
+package com.example.todolist.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Monthly partitions of {@code invoices} on PostgreSQL (see
+ * {@code InvoicePartitionService}). Partitions are created
+ * {@code premakeMonths} ahead. A month is removed from {@code invoices} once
+ * it has ended more than {@code retentionMonths} ago; 0 keeps every month.
+ * {@code DETACH} keeps removed months as standalone
+ * {@code invoices_archive_pYYYY_MM} tables, {@code DROP} deletes them.
+ * <p>
+ * The DDL needs an exclusive lock on {@code invoices}, so maintenance only
+ * runs between {@code maintenanceWindowStart} and {@code maintenanceWindowEnd}
+ * (UTC), and each statement waits at most {@code lockTimeout} for its lock.
+ */
+@ConfigurationProperties("todolist.invoice-partitions")
+public record InvoicePartitionProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("3") int premakeMonths,
+    @DefaultValue("24") int retentionMonths,
+    @DefaultValue("DETACH") RetentionAction retentionAction,
+    @DefaultValue("03:00") @DateTimeFormat(pattern = "HH:mm") LocalTime maintenanceWindowStart,
+    @DefaultValue("05:00") @DateTimeFormat(pattern = "HH:mm") LocalTime maintenanceWindowEnd,
+    @DefaultValue("5s") Duration lockTimeout
+) {
+    public enum RetentionAction {
+        DETACH, DROP
+    }
+
+    /**
+     * The first day still kept in {@code invoices} on {@code today}, or
+     * {@code null} when nothing is removed.
+     */
+    public LocalDate retainedSince(LocalDate today) {
+        if (!enabled || retentionMonths <= 0) {
+            return null;
+        }
+        return today.withDayOfMonth(1).minusMonths(retentionMonths);
+    }
+
+    /**
+     * Whether {@code time} (UTC) falls in the maintenance window. A window
+     * whose end is before its start runs past midnight.
+     */
+    public boolean inMaintenanceWindow(LocalTime time) {
+        if (maintenanceWindowStart.isAfter(maintenanceWindowEnd)) {
+            return !time.isBefore(maintenanceWindowStart) || time.isBefore(maintenanceWindowEnd);
+        }
+        return !time.isBefore(maintenanceWindowStart) && time.isBefore(maintenanceWindowEnd);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.todolist.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for {@code InvoiceWorker}. {@code concurrency} invoices are
+ * processed at a time per instance, each holding a database connection while
+ * it changes state, so keep it well below the connection pool size. The lease
+ * must outlast the slowest {@code InvoiceProcessor} run, or another instance
+ * will reclaim the invoice while it is still being processed.
+ */
+@ConfigurationProperties("todolist.invoice-worker")
+public record InvoiceWorkerProperties(
+    @DefaultValue("20") int batchSize,
+    @DefaultValue("4") int concurrency,
+    @DefaultValue("5m") Duration lease
+) {
+}
@@ -0,0 +1,21 @@
+package com.example.todolist.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables {@code @Timed} on service classes. HTTP endpoints
+ * ({@code http.server.requests}), repository calls
+ * ({@code spring.data.repository.invocations}), HikariCP and Hibernate meters
+ * are registered by Spring Boot's actuator auto-configuration.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
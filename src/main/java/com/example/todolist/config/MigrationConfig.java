@@ -0,0 +1,97 @@
+package com.example.todolist.config;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.ResourceLoaderAware;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Applies {@link MigrationProperties#onStartup()} to Boot's
+ * {@link SpringLiquibase}. In {@code VERIFY} mode the changelog is not run
+ * (so instances no longer queue on {@code DATABASECHANGELOGLOCK}); the
+ * expected tag is looked up instead, before JPA starts, and startup fails if
+ * it is missing. The mode is read at runtime, not with {@code @Conditional},
+ * so it can still be switched in AOT and native builds.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MigrationConfig {
+
+    @Bean
+    public static BeanPostProcessor liquibaseStartupPostProcessor() {
+        return new LiquibaseStartupPostProcessor();
+    }
+
+    static class LiquibaseStartupPostProcessor implements BeanPostProcessor, EnvironmentAware, ResourceLoaderAware {
+        private static final Logger logger = LoggerFactory.getLogger(LiquibaseStartupPostProcessor.class);
+
+        private Environment environment;
+        private ResourceLoader resourceLoader;
+
+        @Override
+        public void setEnvironment(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public void setResourceLoader(ResourceLoader resourceLoader) {
+            this.resourceLoader = resourceLoader;
+        }
+
+        @Override
+        public Object postProcessBeforeInitialization(Object bean, String beanName) {
+            if (bean instanceof SpringLiquibase liquibase && verifyOnly()) {
+                liquibase.setShouldRun(false);
+            }
+            return bean;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof SpringLiquibase liquibase && verifyOnly()) {
+                String expectedTag = expectedTag();
+                String table = liquibase.getDatabaseChangeLogTable() == null
+                    ? "databasechangelog" : liquibase.getDatabaseChangeLogTable();
+                SchemaTagCheck.verify(liquibase.getDataSource(), table, expectedTag);
+                logger.info("Database schema is at tag {}", expectedTag);
+            }
+            return bean;
+        }
+
+        // spring.liquibase.enabled=false still turns Liquibase off entirely
+        private boolean verifyOnly() {
+            return environment.getProperty("spring.liquibase.enabled", Boolean.class, true)
+                && properties().onStartup() == MigrationProperties.StartupMode.VERIFY;
+        }
+
+        private String expectedTag() {
+            String configured = properties().expectedTag();
+            if (configured != null && !configured.isBlank()) {
+                return configured;
+            }
+            try {
+                return SchemaTagCheck.latestTag(ResourcePatternUtils.getResourcePatternResolver(resourceLoader));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        // Bound here because post-processors are created before
+        // @ConfigurationProperties beans
+        private MigrationProperties properties() {
+            return Binder.get(environment)
+                .bind("todolist.migrations", MigrationProperties.class)
+                .orElseGet(() -> new MigrationProperties(MigrationProperties.StartupMode.VERIFY, null));
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.todolist.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * What the application does with the Liquibase changelog when it starts.
+ * {@code VERIFY} only checks that {@code expectedTag} has been applied;
+ * migrations are run beforehand with {@code java -jar todolist.jar migrate}
+ * (or {@code make migrate}). {@code APPLY} runs the whole changelog on
+ * startup, as every instance used to. A blank {@code expectedTag} means the
+ * newest tag among {@code db/changelog/changes}.
+ */
+@ConfigurationProperties("todolist.migrations")
+public record MigrationProperties(
+    @DefaultValue("VERIFY") StartupMode onStartup,
+    String expectedTag
+) {
+    public enum StartupMode {
+        VERIFY, APPLY
+    }
+}
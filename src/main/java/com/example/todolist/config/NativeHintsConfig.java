@@ -0,0 +1,61 @@
+package com.example.todolist.config;
+
+import com.example.todolist.dto.BatchItemResult;
+import com.example.todolist.dto.CursorPage;
+import com.example.todolist.dto.InvoiceBacklog;
+import com.example.todolist.dto.InvoiceTransition;
+import com.example.todolist.dto.InvoiceView;
+import com.example.todolist.dto.RevenueReportRow;
+import com.example.todolist.dto.TodoChange;
+import com.example.todolist.dto.TodoSearchHit;
+import com.example.todolist.dto.TodoView;
+import com.example.todolist.dto.UserTodoSummary;
+import com.example.todolist.model.Invoice;
+import com.example.todolist.model.Todo;
+import com.example.todolist.model.User;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reflection and resource hints for the {@code native} build; ignored on the
+ * JVM. Spring's AOT pass already covers the entity metamodel, repositories
+ * and controller signatures. These add what it cannot see:
+ * <ul>
+ *   <li>Payloads Jackson writes outside controller return types (exports,
+ *   todo streams) and the entities returned as JSON, whose Lombok accessors
+ *   are only reached by reflection.</li>
+ *   <li>The Liquibase changelogs, which {@code includeAll} finds by listing
+ *   the directory.</li>
+ *   <li>Classes logback instantiates by name from {@code logback-spring.xml}.</li>
+ * </ul>
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHintsConfig.Hints.class)
+@RegisterReflectionForBinding({
+    Todo.class, User.class, Invoice.class,
+    TodoView.class, TodoChange.class, TodoSearchHit.class, UserTodoSummary.class, CursorPage.class,
+    BatchItemResult.class, InvoiceView.class, InvoiceTransition.class, InvoiceBacklog.class,
+    RevenueReportRow.class
+})
+public class NativeHintsConfig {
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.resources()
+                .registerPattern("db/changelog/*.yaml")
+                .registerPattern("db/changelog/changes/*.yaml");
+            hints.reflection()
+                .registerType(SampledLogFilter.class,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS)
+                .registerType(LogstashEncoder.class,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.todolist.config;
+
+import com.example.todolist.service.RateLimitService;
+import com.example.todolist.service.UserService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.handler.MappedInterceptor;
+
+/**
+ * Puts {@link RateLimitInterceptor} in front of the todo and user endpoints.
+ * Registered as a {@link MappedInterceptor} bean rather than through a
+ * {@code WebMvcConfigurer}, so {@code @WebMvcTest} slices only get it when
+ * they import this class.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "todolist.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public MappedInterceptor rateLimitInterceptor(RateLimitService rateLimitService, UserService userService,
+                                                  RateLimitProperties properties) {
+        return new MappedInterceptor(new String[] {"/api/todos/**", "/api/users/**"},
+            new RateLimitInterceptor(rateLimitService, userService, properties));
+    }
+}
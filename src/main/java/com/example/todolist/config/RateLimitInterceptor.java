@@ -0,0 +1,114 @@
+package com.example.todolist.config;
+
+import com.example.todolist.dto.UserSnapshot;
+import com.example.todolist.model.Role;
+import com.example.todolist.service.RateLimitService;
+import com.example.todolist.service.UserService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Rejects writes over the caller's limit with {@code 429 Too Many Requests}
+ * and a {@code Retry-After} in seconds. Every write counts against its remote
+ * address first. A {@value #USER_ID_HEADER} header naming an existing user
+ * then selects that user's role limits; other requests share a {@code USER}
+ * bucket per remote address.
+ * <p>
+ * The header is not authenticated, so it can never lift a caller above the
+ * address limit. User buckets are kept per address, so a caller cannot use
+ * up another client's bucket by sending its id.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+    public static final String USER_ID_HEADER = "X-User-Id";
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final RateLimitService rateLimitService;
+    private final UserService userService;
+    private final Cache<Long, Boolean> unknownUserIds;
+
+    public RateLimitInterceptor(RateLimitService rateLimitService, UserService userService,
+                                RateLimitProperties properties) {
+        this.rateLimitService = rateLimitService;
+        this.userService = userService;
+        this.unknownUserIds = Caffeine.newBuilder()
+            .maximumSize(properties.maximumBuckets())
+            .expireAfterWrite(properties.unknownUserTtl())
+            .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (READ_METHODS.contains(request.getMethod())) {
+            return true;
+        }
+
+        // Behind a trusted proxy, Tomcat has already replaced this with the
+        // X-Forwarded-For client (server.forward-headers-strategy)
+        String address = request.getRemoteAddr();
+        Duration wait = rateLimitService.tryAcquireAddress(address);
+        if (!wait.isZero()) {
+            return reject(response, wait);
+        }
+
+        String client = "ip:" + address;
+        Role role = Role.USER;
+        Long userId = parseUserId(request.getHeader(USER_ID_HEADER));
+        UserSnapshot user = userId == null ? null : findUser(userId);
+        if (user != null) {
+            client = "user:" + userId + "@" + address;
+            role = user.role() == null ? Role.USER : user.role();
+        }
+
+        wait = rateLimitService.tryAcquire(client, role);
+        if (wait.isZero()) {
+            return true;
+        }
+        return reject(response, wait);
+    }
+
+    private static boolean reject(HttpServletResponse response, Duration wait) throws IOException {
+        long seconds = Math.max(1, wait.plusMillis(999).toSeconds());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Rate limit exceeded, retry in " + seconds + "s\"}");
+        return false;
+    }
+
+    private static Long parseUserId(String header) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Served from the user cache. Unknown ids are remembered, so repeating one
+    // costs no query; the write itself fails later with the usual error.
+    private UserSnapshot findUser(Long userId) {
+        if (unknownUserIds.getIfPresent(userId) != null) {
+            return null;
+        }
+        try {
+            return userService.getUserById(userId);
+        } catch (RuntimeException e) {
+            unknownUserIds.put(userId, Boolean.TRUE);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.todolist.config;
+
+import com.example.todolist.model.Role;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Token-bucket limits for todo and user writes, applied by
+ * {@code RateLimitService}. Each client gets a bucket of {@code burst} tokens
+ * refilled at {@code perSecond}, sized by its {@link Role}; {@code address}
+ * caps all writes from one remote address, whatever user ids they claim, and
+ * {@code global} caps the writes of all clients together so one flood cannot
+ * take the whole connection pool. Idle buckets are evicted after
+ * {@code idleTimeout}, and at most {@code maximumBuckets} are kept. User ids
+ * that do not exist are remembered for {@code unknownUserTtl}.
+ */
+@ConfigurationProperties("todolist.rate-limit")
+public record RateLimitProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("100000") long maximumBuckets,
+    @DefaultValue("10m") Duration idleTimeout,
+    @DefaultValue Limit global,
+    @DefaultValue Limit address,
+    Map<Role, Limit> roles,
+    @DefaultValue("1m") Duration unknownUserTtl
+) {
+    public record Limit(
+        @DefaultValue("1000") long burst,
+        @DefaultValue("500") double perSecond
+    ) {
+    }
+
+    public Limit limitFor(Role role) {
+        Limit limit = roles == null ? null : roles.get(role);
+        if (limit == null) {
+            throw new IllegalStateException("No todolist.rate-limit.roles entry for " + role);
+        }
+        return limit;
+    }
+}
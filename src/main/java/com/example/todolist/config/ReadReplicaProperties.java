@@ -0,0 +1,22 @@
+package com.example.todolist.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Routing of read-only transactions to a read replica (see
+ * {@code ReadReplicaConfig}). The replica's connection settings live under
+ * {@code todolist.read-replica.datasource}. For {@code lagTolerance} after a
+ * caller writes, that caller's reads stay on the primary so it sees its own
+ * writes; set it above the replica's usual lag. At most
+ * {@code maximumTrackedCallers} recent writers are remembered.
+ */
+@ConfigurationProperties("todolist.read-replica")
+public record ReadReplicaProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("5s") Duration lagTolerance,
+    @DefaultValue("100000") long maximumTrackedCallers
+) {
+}
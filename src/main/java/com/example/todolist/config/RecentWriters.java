@@ -0,0 +1,60 @@
+package com.example.todolist.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Remembers who wrote recently, so their reads can skip a lagging replica.
+ * The caller of the current request is bound to the thread by
+ * {@link ReplicaCallerInterceptor}; a request that wrote also reads from the
+ * primary for the rest of the request, with or without a known caller.
+ */
+public class RecentWriters {
+
+    private record RequestState(String caller, boolean wrote) {
+    }
+
+    private static final ThreadLocal<RequestState> CURRENT = new ThreadLocal<>();
+
+    private final Cache<String, Boolean> writers;
+
+    public RecentWriters(ReadReplicaProperties properties) {
+        this.writers = Caffeine.newBuilder()
+            .maximumSize(properties.maximumTrackedCallers())
+            .expireAfterWrite(properties.lagTolerance())
+            .build();
+    }
+
+    public void bind(String caller) {
+        CURRENT.set(new RequestState(caller, false));
+    }
+
+    public void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Marks the current caller as a recent writer, restarting its
+     * lag-tolerance window.
+     */
+    public void recordWrite() {
+        RequestState state = CURRENT.get();
+        if (state == null) {
+            return;
+        }
+        if (!state.wrote()) {
+            CURRENT.set(new RequestState(state.caller(), true));
+        }
+        if (state.caller() != null) {
+            writers.put(state.caller(), Boolean.TRUE);
+        }
+    }
+
+    public boolean currentCallerWroteRecently() {
+        RequestState state = CURRENT.get();
+        if (state == null) {
+            return false;
+        }
+        return state.wrote() || (state.caller() != null && writers.getIfPresent(state.caller()) != null);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.todolist.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Binds the request's caller ({@value RateLimitInterceptor#USER_ID_HEADER})
+ * for read-your-writes routing, and unbinds it when the request completes.
+ */
+public class ReplicaCallerInterceptor implements HandlerInterceptor {
+
+    private final RecentWriters recentWriters;
+
+    public ReplicaCallerInterceptor(RecentWriters recentWriters) {
+        this.recentWriters = recentWriters;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String caller = request.getHeader(RateLimitInterceptor.USER_ID_HEADER);
+        recentWriters.bind(caller == null || caller.isBlank() ? null : caller.trim());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        recentWriters.clear();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.todolist.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Hands out replica connections to {@code @Transactional(readOnly = true)}
+ * work and primary connections to everything else: write transactions, work
+ * outside a transaction, and reads by callers that just wrote. Must sit
+ * behind a {@code LazyConnectionDataSourceProxy}, so the connection is
+ * fetched on the first statement, once the transaction's read-only flag is
+ * known.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final RecentWriters recentWriters;
+    private final Map<Route, Counter> connections;
+    private final Counter readYourWrites;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, RecentWriters recentWriters,
+                                    MeterRegistry meterRegistry) {
+        this.recentWriters = recentWriters;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.connections = Map.of(
+            Route.PRIMARY, meterRegistry.counter("todolist.datasource.connections", "route", "primary"),
+            Route.REPLICA, meterRegistry.counter("todolist.datasource.connections", "route", "replica"));
+        this.readYourWrites = meterRegistry.counter("todolist.datasource.read-your-writes");
+    }
+
+    @Override
+    protected Route determineCurrentLookupKey() {
+        Route route = route();
+        connections.get(route).increment();
+        return route;
+    }
+
+    private Route route() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Route.PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // Counted as a write even if the transaction only reads; that
+            // errs towards the primary
+            recentWriters.recordWrite();
+            return Route.PRIMARY;
+        }
+        if (recentWriters.currentCallerWroteRecently()) {
+            readYourWrites.increment();
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+}
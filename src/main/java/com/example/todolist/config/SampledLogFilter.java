@@ -0,0 +1,54 @@
+package com.example.todolist.config;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback filter that lets through at most {@code maxPerSecond} events of one
+ * logger and denies the rest; events of other loggers are left to the next
+ * filter. Keeps a burst of slow queries (see {@code logback-spring.xml}) from
+ * flooding the log when the database itself is slow.
+ */
+public class SampledLogFilter extends Filter<ILoggingEvent> {
+
+    private String loggerName;
+    private int maxPerSecond = 10;
+
+    private final AtomicLong currentSecond = new AtomicLong();
+    private final AtomicInteger passedThisSecond = new AtomicInteger();
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        if (!isStarted() || !event.getLoggerName().equals(loggerName)) {
+            return FilterReply.NEUTRAL;
+        }
+        long second = event.getTimeStamp() / 1000;
+        long previous = currentSecond.get();
+        // Racing threads may let a few extra events through at the turn of a second
+        if (second != previous && currentSecond.compareAndSet(previous, second)) {
+            passedThisSecond.set(0);
+        }
+        return passedThisSecond.incrementAndGet() <= maxPerSecond ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    @Override
+    public void start() {
+        if (loggerName == null) {
+            addError("No loggerName set for SampledLogFilter");
+            return;
+        }
+        super.start();
+    }
+
+    public void setLoggerName(String loggerName) {
+        this.loggerName = loggerName;
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.todolist.config;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Checks the schema version with a single lookup in Liquibase's changelog
+ * table instead of validating every changeset.
+ */
+final class SchemaTagCheck {
+    static final String CHANGES_PATTERN = "classpath*:db/changelog/changes/*.yaml";
+
+    private static final Pattern MIGRATION_NUMBER = Pattern.compile("^(\\d+)[-_].*");
+
+    private SchemaTagCheck() {
+    }
+
+    /**
+     * The tag of the newest tagged migration, e.g. {@code 0017} for
+     * {@code 0017_partition_invoices_by_month.yaml}; the Makefile tags every
+     * migration with its number.
+     */
+    static String latestTag(ResourcePatternResolver resolver) throws IOException {
+        int latest = -1;
+        for (Resource resource : resolver.getResources(CHANGES_PATTERN)) {
+            String filename = resource.getFilename();
+            Matcher matcher = filename == null ? null : MIGRATION_NUMBER.matcher(filename);
+            if (matcher == null || !matcher.matches()) {
+                continue;
+            }
+            int number = Integer.parseInt(matcher.group(1));
+            if (number > latest && resource.getContentAsString(StandardCharsets.UTF_8).contains("tagDatabase")) {
+                latest = number;
+            }
+        }
+        if (latest < 0) {
+            throw new IllegalStateException("No tagged migration found in " + CHANGES_PATTERN
+                + "; set todolist.migrations.expected-tag");
+        }
+        return String.format("%04d", latest);
+    }
+
+    /**
+     * Fails unless {@code expectedTag} has been applied. Newer tags are fine,
+     * so instances of the previous release keep starting during a rollout.
+     */
+    static void verify(DataSource dataSource, String changeLogTable, String expectedTag) {
+        Integer applied;
+        try {
+            applied = new JdbcTemplate(dataSource).queryForObject(
+                "SELECT COUNT(*) FROM " + changeLogTable + " WHERE tag = ?", Integer.class, expectedTag);
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("Cannot read " + changeLogTable
+                + "; has the database been migrated? Run the application with 'migrate' first", e);
+        }
+        if (applied == null || applied == 0) {
+            throw new IllegalStateException("Database schema has not reached tag " + expectedTag
+                + "; run the application with 'migrate' first");
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.todolist.config;
+
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import tech.ailef.snapadmin.external.SnapAdminAutoConfiguration;
+
+/**
+ * SnapAdmin at {@code /admin}, only with the {@code admin} profile. It scans
+ * and wires every entity on startup, which the API does not need.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("admin")
+@ImportAutoConfiguration(SnapAdminAutoConfiguration.class)
+public class SnapAdminConfig {
+}
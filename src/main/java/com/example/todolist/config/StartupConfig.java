@@ -0,0 +1,54 @@
+package com.example.todolist.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+/**
+ * Startup measurement and the class-data-sharing training run of the
+ * {@code fast-startup} build.
+ * <p>
+ * {@code todolist.startup.exit-on-ready=true} stops the JVM as soon as the
+ * application is ready, so {@code -XX:ArchiveClassesAtExit} archives the
+ * classes a full startup loads. It is read at runtime rather than through
+ * {@code @ConditionalOnProperty}, which AOT processing would fix at build time.
+ * The switches that are fixed that way are checked by {@link AotSwitchCheck}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class StartupConfig {
+    private static final Logger logger = LoggerFactory.getLogger(StartupConfig.class);
+
+    @Bean
+    public FilterRegistrationBean<FirstRequestFilter> firstRequestFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<FirstRequestFilter> registration =
+            new FilterRegistrationBean<>(new FirstRequestFilter(meterRegistry));
+        // Outermost, so the first request is timed to its very end
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public AotSwitchCheck aotSwitchCheck(ListableBeanFactory beanFactory, Environment environment) {
+        return new AotSwitchCheck(beanFactory, environment);
+    }
+
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> exitOnReadyListener() {
+        return event -> {
+            if (event.getApplicationContext().getEnvironment()
+                    .getProperty("todolist.startup.exit-on-ready", Boolean.class, false)) {
+                logger.info("todolist.startup.exit-on-ready is set; exiting after startup");
+                System.exit(SpringApplication.exit(event.getApplicationContext()));
+            }
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.todolist.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Bounds for the todo change streams in {@code TodoStreamService}.
+ * {@code bufferSize} is the number of distinct todos a slow subscriber may
+ * have pending before it is told to resync; {@code replaySize} is how many
+ * recent changes are kept for reconnects with {@code Last-Event-ID};
+ * {@code senderThreads} is how many streams can be written at once.
+ */
+@ConfigurationProperties("todolist.todo-stream")
+public record TodoStreamProperties(
+    @DefaultValue("256") int bufferSize,
+    @DefaultValue("4096") int replaySize,
+    @DefaultValue("30m") Duration timeout,
+    @DefaultValue("16") int senderThreads
+) {
+}
@@ -0,0 +1,18 @@
+package com.example.todolist.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Bounds for the in-process user cache in {@code UserService}. Entries are
+ * invalidated locally on update/delete; other instances see changes once the
+ * TTL expires.
+ */
+@ConfigurationProperties("todolist.user-cache")
+public record UserCacheProperties(
+    @DefaultValue("10000") long maximumSize,
+    @DefaultValue("5m") Duration ttl
+) {
+}
@@ -0,0 +1,56 @@
+package com.example.todolist.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs Tomcat request handling, {@code @Async} methods and MVC async requests
+ * (the streaming exports) on virtual threads when
+ * {@code todolist.threads.virtual=true}. Spring Boot 3.1 has no
+ * {@code spring.threads.virtual} switch, so the executors are replaced here.
+ * <p>
+ * Concurrency is then bounded by the Hikari pool rather than Tomcat's
+ * {@code max-threads}: size {@code spring.datasource.hikari.maximum-pool-size}
+ * for the database, not for the number of in-flight requests.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "todolist.threads.virtual", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    // The executors are beans of their own so the context closes them on
+    // shutdown, after Tomcat has stopped; Tomcat leaves an executor it was
+    // given alone, and TaskExecutorAdapter has no lifecycle
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService virtualThreadRequestExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService virtualThreadTaskExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(
+            @Qualifier("virtualThreadRequestExecutor") ExecutorService executor) {
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    // Same names as Boot's default executor, which backs off when this is present
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+        AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor applicationTaskExecutor(@Qualifier("virtualThreadTaskExecutor") ExecutorService executor) {
+        return new TaskExecutorAdapter(executor);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.todolist.controller;
+
+import com.example.todolist.service.ExportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportController.class);
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/todos")
+    public ResponseEntity<StreamingResponseBody> exportTodos() {
+        return ResponseEntity.ok()
+            .contentType(NDJSON)
+            .body(out -> logger.info("Exported {} todos", exportService.exportTodos(out)));
+    }
+
+    @GetMapping("/users")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        return ResponseEntity.ok()
+            .contentType(NDJSON)
+            .body(out -> logger.info("Exported {} users", exportService.exportUsers(out)));
+    }
+}
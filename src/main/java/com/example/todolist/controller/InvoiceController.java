@@ -0,0 +1,90 @@
+package com.example.todolist.controller;
+
+import com.example.todolist.dto.CursorPage;
+import com.example.todolist.dto.InvoiceFilter;
+import com.example.todolist.dto.InvoiceTransition;
+import com.example.todolist.dto.InvoiceView;
+import com.example.todolist.dto.RevenueFilter;
+import com.example.todolist.dto.RevenueReportRow;
+import com.example.todolist.model.Invoice;
+import com.example.todolist.model.InvoiceStatus;
+import com.example.todolist.service.InvoiceRevenueService;
+import com.example.todolist.service.InvoiceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/invoices")
+public class InvoiceController {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvoiceController.class);
+
+    private final InvoiceService invoiceService;
+    private final InvoiceRevenueService invoiceRevenueService;
+
+    public InvoiceController(InvoiceService invoiceService, InvoiceRevenueService invoiceRevenueService) {
+        this.invoiceService = invoiceService;
+        this.invoiceRevenueService = invoiceRevenueService;
+    }
+
+    @GetMapping
+    public CursorPage<InvoiceView> getInvoices(@RequestParam(required = false) Long userId,
+                                               @RequestParam(required = false) InvoiceStatus status,
+                                               @RequestParam(required = false) Instant createdFrom,
+                                               @RequestParam(required = false) Instant createdTo,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer limit) {
+        logger.debug("Listing invoices for userId={}, status={}, created {}..{}", userId, status, createdFrom, createdTo);
+        return invoiceService.getInvoices(new InvoiceFilter(userId, status, createdFrom, createdTo), cursor, limit);
+    }
+
+    @GetMapping("/revenue")
+    public List<RevenueReportRow> getRevenue(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") RevenueFilter.Granularity granularity,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) InvoiceStatus status,
+            @RequestParam(defaultValue = "false") boolean byUser) {
+        logger.debug("Revenue report {}..{} by {} for userId={}, status={}", from, to, granularity, userId, status);
+        return invoiceRevenueService.getReport(new RevenueFilter(from, to, granularity, userId, status, byUser));
+    }
+
+    @PostMapping("/revenue/rebuild")
+    public Map<String, Integer> rebuildRevenue() {
+        return Map.of("rows", invoiceRevenueService.rebuild());
+    }
+
+    @GetMapping("/{invoiceId}")
+    public InvoiceView getInvoice(@PathVariable UUID invoiceId) {
+        return invoiceService.getInvoice(invoiceId);
+    }
+
+    @PostMapping
+    public InvoiceView createInvoice(@RequestBody Invoice invoice) {
+        return invoiceService.createInvoice(invoice);
+    }
+
+    @PutMapping("/{invoiceId}")
+    public InvoiceView updateInvoice(@PathVariable UUID invoiceId, @RequestBody Invoice invoice) {
+        return invoiceService.updateInvoice(invoiceId, invoice);
+    }
+
+    @PutMapping("/{invoiceId}/status")
+    public InvoiceView transitionInvoice(@PathVariable UUID invoiceId, @RequestBody InvoiceTransition transition) {
+        return invoiceService.transition(invoiceId, transition);
+    }
+
+    @DeleteMapping("/{invoiceId}")
+    public void deleteInvoice(@PathVariable UUID invoiceId) {
+        invoiceService.deleteInvoice(invoiceId);
+    }
+}
@@ -1,10 +1,17 @@
 package com.example.todolist.controller;
 
+import com.example.todolist.dto.BatchItemResult;
+import com.example.todolist.dto.CursorPage;
+import com.example.todolist.dto.TodoFilter;
+import com.example.todolist.dto.TodoSearchHit;
+import com.example.todolist.dto.TodoView;
+import com.example.todolist.model.Level;
 import com.example.todolist.model.Todo;
 import com.example.todolist.service.TodoService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -21,9 +28,37 @@ public class TodoController {
     }
 
     @GetMapping
-    public List<Todo> getAllTodos() {
-        logger.info("hi");
-        return todoService.getAllTodos();
+    public CursorPage<TodoView> getTodos(@RequestParam(required = false) Long userId,
+                                         @RequestParam(required = false) Boolean completed,
+                                         @RequestParam(required = false) Level level,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer limit,
+                                         WebRequest request) {
+        if (isNotModified(userId, request)) {
+            return null;
+        }
+        logger.debug("Listing todos for userId={}, completed={}, level={}", userId, completed, level);
+        return todoService.getTodos(new TodoFilter(userId, completed, level), cursor, limit);
+    }
+
+    @GetMapping("/search")
+    public CursorPage<TodoSearchHit> searchTodos(@RequestParam String q,
+                                                 @RequestParam(required = false) Long userId,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer limit,
+                                                 WebRequest request) {
+        if (isNotModified(userId, request)) {
+            return null;
+        }
+        logger.debug("Searching todos for userId={}, q={}", userId, q);
+        return todoService.searchTodos(q, userId, cursor, limit);
+    }
+
+    // Only one user's todos have a counter, so listings across all users are
+    // always served in full; a shared counter would serialize every todo write
+    private boolean isNotModified(Long userId, WebRequest request) {
+        return userId != null
+            && request.checkNotModified(String.valueOf(todoService.getTodosVersion(userId)));
     }
 
     @PostMapping
@@ -40,4 +75,19 @@ public class TodoController {
     public void deleteTodo(@PathVariable Long id) {
         todoService.deleteTodo(id);
     }
+
+    @PostMapping("/batch")
+    public List<BatchItemResult> createTodos(@RequestBody List<Todo> todos) {
+        return todoService.createTodos(todos);
+    }
+
+    @PutMapping("/batch")
+    public List<BatchItemResult> updateTodos(@RequestBody List<Todo> todos) {
+        return todoService.updateTodos(todos);
+    }
+
+    @DeleteMapping("/batch")
+    public List<BatchItemResult> deleteTodos(@RequestBody List<Long> ids) {
+        return todoService.deleteTodos(ids);
+    }
 }
\ No newline at end of file
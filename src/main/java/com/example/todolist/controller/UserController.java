@@ -1,10 +1,19 @@
 package com.example.todolist.controller;
 
+import com.example.todolist.dto.UserSnapshot;
+import com.example.todolist.dto.UserTodoSummary;
 import com.example.todolist.model.User;
+import com.example.todolist.service.TodoStreamService;
+import com.example.todolist.service.TodoSummaryService;
 import com.example.todolist.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -15,38 +24,80 @@ public class UserController {
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
 
     private final UserService userService;
+    private final TodoSummaryService todoSummaryService;
+    private final TodoStreamService todoStreamService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, TodoSummaryService todoSummaryService,
+                          TodoStreamService todoStreamService) {
         this.userService = userService;
+        this.todoSummaryService = todoSummaryService;
+        this.todoStreamService = todoStreamService;
     }
 
     @GetMapping
-    public List<User> getAllUsers() {
-        logger.info("Fetching all users");
+    public List<User> getAllUsers(WebRequest request) {
+        if (request.checkNotModified(String.valueOf(userService.getUsersVersion()))) {
+            return null;
+        }
+        logger.debug("Fetching all users");
         return userService.getAllUsers();
     }
 
     @GetMapping("/{id}")
-    public User getUserById(@PathVariable Long id) {
-        logger.info("Fetching user with id: {}", id);
-        return userService.getUserById(id);
+    public UserSnapshot getUserById(@PathVariable Long id, WebRequest request) {
+        // No version means no row; a cached copy would outlive a delete made
+        // on another instance
+        Long version = userService.getUserVersion(id)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found with id: " + id));
+        if (request.checkNotModified(String.valueOf(version))) {
+            return null;
+        }
+        logger.debug("Fetching user with id: {}", id);
+        // The body must be the version named by the ETag, not an older cached copy
+        return userService.getUserById(id, version);
+    }
+
+    @GetMapping("/todo-summary")
+    public List<UserTodoSummary> getTodoSummaries() {
+        logger.debug("Fetching todo summaries for all users");
+        return todoSummaryService.getAllSummaries();
+    }
+
+    @GetMapping("/{id}/todo-summary")
+    public UserTodoSummary getTodoSummary(@PathVariable Long id) {
+        logger.debug("Fetching todo summary for user with id: {}", id);
+        userService.getUserById(id);
+        return todoSummaryService.getSummary(id);
+    }
+
+    /**
+     * Server-Sent Events for the user's todo creates, updates and deletes.
+     * Browsers' EventSource resends the last event id on reconnect, and missed
+     * changes are replayed from it.
+     */
+    @GetMapping(path = "/{id}/todos/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTodos(@PathVariable Long id,
+                                  @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        logger.debug("Opening todo stream for user with id: {}", id);
+        userService.getUserById(id);
+        return todoStreamService.subscribe(id, lastEventId);
     }
 
     @PostMapping
     public User createUser(@RequestBody User user) {
-        logger.info("Creating user with username: {}", user.getUsername());
+        logger.debug("Creating user with username: {}", user.getUsername());
         return userService.createUser(user);
     }
 
     @PutMapping("/{id}")
     public User updateUser(@PathVariable Long id, @RequestBody User user) {
-        logger.info("Updating user with id: {}", id);
+        logger.debug("Updating user with id: {}", id);
         return userService.updateUser(id, user);
     }
 
     @DeleteMapping("/{id}")
     public void deleteUser(@PathVariable Long id) {
-        logger.info("Deleting user with id: {}", id);
+        logger.debug("Deleting user with id: {}", id);
         userService.deleteUser(id);
     }
 }
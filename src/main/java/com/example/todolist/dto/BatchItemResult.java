@@ -0,0 +1,23 @@
+package com.example.todolist.dto;
+
+/**
+ * Outcome of one element of a batch request, identified by its position in
+ * the request body.
+ */
+public record BatchItemResult(int index, Long id, Status status, String error) {
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        DELETED,
+        FAILED
+    }
+
+    public static BatchItemResult success(int index, Long id, Status status) {
+        return new BatchItemResult(index, id, status, null);
+    }
+
+    public static BatchItemResult failed(int index, Long id, String error) {
+        return new BatchItemResult(index, id, Status.FAILED, error);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.todolist.dto;
+
+import java.time.Instant;
+
+/**
+ * Invoices waiting for a worker: how many, and when the oldest was created
+ * ({@code null} when there are none).
+ */
+public record InvoiceBacklog(long depth, Instant oldestCreatedAt) {
+}
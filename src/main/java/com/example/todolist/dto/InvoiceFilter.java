@@ -0,0 +1,20 @@
+package com.example.todolist.dto;
+
+import com.example.todolist.model.InvoiceStatus;
+
+import java.time.Instant;
+
+/**
+ * Optional filters for listing invoices; {@code null} fields are not applied.
+ * {@code createdFrom} is inclusive and {@code createdTo} exclusive.
+ */
+public record InvoiceFilter(Long userId, InvoiceStatus status, Instant createdFrom, Instant createdTo) {
+
+    public InvoiceFilter(Long userId, InvoiceStatus status) {
+        this(userId, status, null, null);
+    }
+
+    public static InvoiceFilter none() {
+        return new InvoiceFilter(null, null);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.todolist.dto;
+
+import java.time.Instant;
+
+/**
+ * An invoice's primary key: its id and {@code createdAt}, the partition key,
+ * so a lookup by key only probes the invoice's own month.
+ */
+public record InvoiceKey(Long id, Instant createdAt) {
+}
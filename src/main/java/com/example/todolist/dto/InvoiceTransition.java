@@ -0,0 +1,10 @@
+package com.example.todolist.dto;
+
+import com.example.todolist.model.InvoiceStatus;
+
+/**
+ * Request to move an invoice to {@code status}. When {@code version} is set
+ * the transition only applies if the invoice is still at that version.
+ */
+public record InvoiceTransition(InvoiceStatus status, Long version) {
+}
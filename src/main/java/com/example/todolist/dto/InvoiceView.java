@@ -0,0 +1,25 @@
+package com.example.todolist.dto;
+
+import com.example.todolist.model.InvoiceStatus;
+import com.example.todolist.model.Level;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Read model for invoices. {@code version} is the optimistic-lock value a
+ * client sends back with a status transition.
+ */
+public record InvoiceView(
+    Long id,
+    UUID invoiceId,
+    BigDecimal amount,
+    InvoiceStatus status,
+    Level level,
+    Long userId,
+    long version,
+    Instant createdAt,
+    Instant updatedAt
+) {
+}
@@ -0,0 +1,33 @@
+package com.example.todolist.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a listing without a stable keyset, such as relevance-ranked
+ * search results. Serialized as an opaque URL-safe token, like
+ * {@link KeysetCursor}, so clients page both the same way.
+ */
+public record OffsetCursor(int offset) {
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(("o:" + offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OffsetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!raw.startsWith("o:")) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            int offset = Integer.parseInt(raw.substring(2));
+            if (offset < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new OffsetCursor(offset);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
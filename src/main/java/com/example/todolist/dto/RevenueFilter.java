@@ -0,0 +1,24 @@
+package com.example.todolist.dto;
+
+import com.example.todolist.model.InvoiceStatus;
+
+import java.time.LocalDate;
+
+/**
+ * A revenue report over invoices created from {@code from} to {@code to}
+ * (inclusive, UTC dates). {@code userId} and {@code status} are optional
+ * filters; {@code byUser} adds a row per user instead of summing across users.
+ */
+public record RevenueFilter(
+    LocalDate from,
+    LocalDate to,
+    Granularity granularity,
+    Long userId,
+    InvoiceStatus status,
+    boolean byUser
+) {
+    public enum Granularity {
+        DAY,
+        MONTH
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.todolist.dto;
+
+import com.example.todolist.model.InvoiceStatus;
+import com.example.todolist.model.Level;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Invoice totals for one period (a day, or the first day of a month). Without
+ * a per-user breakdown {@code userId} is {@code null}.
+ */
+public record RevenueReportRow(
+    LocalDate period,
+    Long userId,
+    InvoiceStatus status,
+    Level level,
+    long invoiceCount,
+    BigDecimal totalAmount
+) {
+}
@@ -0,0 +1,44 @@
+package com.example.todolist.dto;
+
+import com.example.todolist.model.Level;
+import com.example.todolist.model.Todo;
+
+import java.time.Instant;
+
+/**
+ * A committed todo write, as published by {@code TodoService} and sent on the
+ * owner's todo stream. Deletes only carry the ids.
+ */
+public record TodoChange(
+    Type type,
+    Long id,
+    Long userId,
+    String title,
+    String description,
+    boolean completed,
+    Level level,
+    Instant createdAt
+) {
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static TodoChange created(Todo todo) {
+        return of(Type.CREATED, todo);
+    }
+
+    public static TodoChange updated(Todo todo) {
+        return of(Type.UPDATED, todo);
+    }
+
+    public static TodoChange deleted(Long id, Long userId) {
+        return new TodoChange(Type.DELETED, id, userId, null, null, false, null, null);
+    }
+
+    private static TodoChange of(Type type, Todo todo) {
+        return new TodoChange(type, todo.getId(), todo.getUser().getId(), todo.getTitle(),
+            todo.getDescription(), todo.isCompleted(), todo.getLevel(), todo.getCreatedAt());
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.todolist.dto;
+
+import com.example.todolist.model.Level;
+
+/**
+ * Optional filters for listing todos; {@code null} fields are not applied.
+ */
+public record TodoFilter(Long userId, Boolean completed, Level level) {
+
+    public static TodoFilter none() {
+        return new TodoFilter(null, null, null);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.todolist.dto;
+
+import com.example.todolist.model.Level;
+import com.example.todolist.model.TodoSummaryId;
+
+/**
+ * A todo's id with the columns its summary counter is keyed on.
+ */
+public record TodoKey(Long id, Long userId, boolean completed, Level level) {
+
+    public TodoSummaryId summaryId() {
+        return new TodoSummaryId(userId, completed, level);
+    }
+}
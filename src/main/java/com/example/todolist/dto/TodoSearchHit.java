@@ -0,0 +1,7 @@
+package com.example.todolist.dto;
+
+/**
+ * A todo matching a search, with its relevance; higher ranks first.
+ */
+public record TodoSearchHit(TodoView todo, double rank) {
+}
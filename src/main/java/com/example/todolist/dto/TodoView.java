@@ -0,0 +1,21 @@
+package com.example.todolist.dto;
+
+import com.example.todolist.model.Level;
+
+import java.time.Instant;
+
+/**
+ * Read model for todo listings. Carries the owner's id and username so a page
+ * can be loaded with a single join instead of initializing each {@code User}.
+ */
+public record TodoView(
+    Long id,
+    String title,
+    String description,
+    boolean completed,
+    Level level,
+    Instant createdAt,
+    Long userId,
+    String username
+) {
+}
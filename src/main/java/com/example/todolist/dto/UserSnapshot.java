@@ -0,0 +1,19 @@
+package com.example.todolist.dto;
+
+import com.example.todolist.model.Role;
+import com.example.todolist.model.User;
+
+import java.time.Instant;
+
+/**
+ * Immutable copy of a user, as {@code UserService} caches it. Unlike the
+ * entity it can be shared between requests; writes that need the user as an
+ * association take a reference from {@code UserService.getReference}.
+ */
+public record UserSnapshot(Long id, String username, Role role, Instant createdAt, Long version) {
+
+    public static UserSnapshot of(User user) {
+        return new UserSnapshot(user.getId(), user.getUsername(), user.getRole(), user.getCreatedAt(),
+            user.getVersion());
+    }
+}
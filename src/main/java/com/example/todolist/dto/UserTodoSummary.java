@@ -0,0 +1,12 @@
+package com.example.todolist.dto;
+
+import com.example.todolist.model.Level;
+
+import java.util.Map;
+
+/**
+ * Todo counts for one user, split into open and completed per {@link Level}.
+ * Every level is present, with zero when the user has no such todos.
+ */
+public record UserTodoSummary(Long userId, Map<Level, Long> open, Map<Level, Long> completed) {
+}
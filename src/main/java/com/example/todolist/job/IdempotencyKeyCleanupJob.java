@@ -0,0 +1,25 @@
+package com.example.todolist.job;
+
+import com.example.todolist.service.IdempotencyService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes idempotency keys whose responses are no longer replayed.
+ */
+@Component
+@ConditionalOnProperty(name = "todolist.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyKeyCleanupJob {
+
+    private final IdempotencyService idempotencyService;
+
+    public IdempotencyKeyCleanupJob(IdempotencyService idempotencyService) {
+        this.idempotencyService = idempotencyService;
+    }
+
+    @Scheduled(fixedDelayString = "${todolist.idempotency.cleanup-interval:PT10M}")
+    public void deleteExpired() {
+        idempotencyService.deleteExpired();
+    }
+}
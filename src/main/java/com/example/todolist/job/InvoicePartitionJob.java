@@ -0,0 +1,25 @@
+package com.example.todolist.job;
+
+import com.example.todolist.service.InvoicePartitionService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates upcoming {@code invoices} partitions and retires expired ones.
+ */
+@Component
+@ConditionalOnProperty(name = "todolist.invoice-partitions.enabled", havingValue = "true", matchIfMissing = true)
+public class InvoicePartitionJob {
+
+    private final InvoicePartitionService invoicePartitionService;
+
+    public InvoicePartitionJob(InvoicePartitionService invoicePartitionService) {
+        this.invoicePartitionService = invoicePartitionService;
+    }
+
+    @Scheduled(cron = "${todolist.invoice-partitions.maintenance-cron:0 15 3 * * *}", zone = "UTC")
+    public void maintain() {
+        invoicePartitionService.maintain();
+    }
+}
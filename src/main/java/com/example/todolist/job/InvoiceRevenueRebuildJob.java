@@ -0,0 +1,26 @@
+package com.example.todolist.job;
+
+import com.example.todolist.service.InvoiceRevenueService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recomputes the invoice revenue rollup from {@code invoices} to repair any
+ * drift, e.g. from rows changed outside the invoice services (SnapAdmin, SQL).
+ */
+@Component
+@ConditionalOnProperty(name = "todolist.invoice-revenue.rebuild-enabled", havingValue = "true", matchIfMissing = true)
+public class InvoiceRevenueRebuildJob {
+
+    private final InvoiceRevenueService invoiceRevenueService;
+
+    public InvoiceRevenueRebuildJob(InvoiceRevenueService invoiceRevenueService) {
+        this.invoiceRevenueService = invoiceRevenueService;
+    }
+
+    @Scheduled(cron = "${todolist.invoice-revenue.rebuild-cron:0 45 3 * * *}", zone = "UTC")
+    public void rebuild() {
+        invoiceRevenueService.rebuild();
+    }
+}
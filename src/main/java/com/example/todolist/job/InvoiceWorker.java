@@ -0,0 +1,162 @@
+package com.example.todolist.job;
+
+import com.example.todolist.config.InvoiceWorkerProperties;
+import com.example.todolist.dto.InvoiceBacklog;
+import com.example.todolist.dto.InvoiceKey;
+import com.example.todolist.dto.InvoiceView;
+import com.example.todolist.model.InvoiceStatus;
+import com.example.todolist.service.InvoiceProcessingService;
+import com.example.todolist.service.InvoiceProcessor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives invoices from {@code CREATED} to {@code COMPLETED} or
+ * {@code REJECTED}. Each poll claims only as many invoices as there are idle
+ * workers, so claimed invoices never wait in a local queue while their lease
+ * runs. Any number of instances can run this; claims keep them apart.
+ */
+@Component
+@ConditionalOnProperty(name = "todolist.invoice-worker.enabled", havingValue = "true")
+public class InvoiceWorker implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvoiceWorker.class);
+
+    private final InvoiceProcessingService invoiceProcessingService;
+    private final InvoiceProcessor invoiceProcessor;
+    private final InvoiceWorkerProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    // pid@host plus a per-start suffix, so a restarted instance does not
+    // mistake its predecessor's claims for its own
+    private final String workerId = ManagementFactory.getRuntimeMXBean().getName()
+        + "/" + UUID.randomUUID().toString().substring(0, 8);
+    private final ExecutorService executor;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter claimed;
+
+    /**
+     * Uses the {@link InvoiceProcessor} bean if one is declared, otherwise
+     * approves every invoice.
+     */
+    @Autowired
+    public InvoiceWorker(InvoiceProcessingService invoiceProcessingService,
+                         ObjectProvider<InvoiceProcessor> invoiceProcessor,
+                         InvoiceWorkerProperties properties, MeterRegistry meterRegistry) {
+        this(invoiceProcessingService, invoiceProcessor.getIfAvailable(() -> invoice -> InvoiceStatus.COMPLETED),
+            properties, meterRegistry);
+    }
+
+    public InvoiceWorker(InvoiceProcessingService invoiceProcessingService, InvoiceProcessor invoiceProcessor,
+                         InvoiceWorkerProperties properties, MeterRegistry meterRegistry) {
+        this.invoiceProcessingService = invoiceProcessingService;
+        this.invoiceProcessor = invoiceProcessor;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.executor = Executors.newFixedThreadPool(properties.concurrency(),
+            new CustomizableThreadFactory("invoice-worker-"));
+
+        this.claimed = meterRegistry.counter("todolist.invoice.worker.claimed");
+        meterRegistry.gauge("todolist.invoice.worker.active", active);
+        meterRegistry.gauge("todolist.invoice.worker.queue.depth", queueDepth);
+        TimeGauge.builder("todolist.invoice.worker.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+            .description("Age of the oldest invoice waiting to be claimed")
+            .register(meterRegistry);
+    }
+
+    public String getWorkerId() {
+        return workerId;
+    }
+
+    @Scheduled(fixedDelayString = "${todolist.invoice-worker.poll-interval:PT1S}")
+    public void poll() {
+        int idle;
+        while ((idle = properties.concurrency() - active.get()) > 0) {
+            int limit = Math.min(properties.batchSize(), idle);
+            List<InvoiceKey> keys = invoiceProcessingService.claim(workerId, limit, properties.lease());
+            claimed.increment(keys.size());
+            for (InvoiceKey key : keys) {
+                active.incrementAndGet();
+                executor.execute(() -> {
+                    try {
+                        process(key);
+                    } finally {
+                        active.decrementAndGet();
+                    }
+                });
+            }
+            if (keys.size() < limit) {
+                break;
+            }
+        }
+        refreshBacklog();
+    }
+
+    private void process(InvoiceKey key) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome;
+        try {
+            Optional<InvoiceView> invoice = invoiceProcessingService.start(key, workerId);
+            if (invoice.isEmpty()) {
+                outcome = "lost";
+            } else {
+                InvoiceStatus status = invoiceProcessor.process(invoice.get());
+                outcome = invoiceProcessingService.finish(key, workerId, status) ? status.name().toLowerCase() : "lost";
+            }
+        } catch (OptimisticLockingFailureException e) {
+            outcome = "lost";
+        } catch (RuntimeException e) {
+            // The claim is kept; the invoice is retried once the lease expires
+            logger.warn("Processing invoice {} failed", key.id(), e);
+            outcome = "failed";
+        }
+        if ("lost".equals(outcome)) {
+            logger.info("Invoice {} was reclaimed by another worker", key.id());
+        }
+        sample.stop(meterRegistry.timer("todolist.invoice.worker.processed", "outcome", outcome));
+    }
+
+    private void refreshBacklog() {
+        InvoiceBacklog backlog = invoiceProcessingService.getBacklog();
+        queueDepth.set(backlog.depth());
+        lagMillis.set(backlog.oldestCreatedAt() == null
+            ? 0
+            : Math.max(0, Duration.between(backlog.oldestCreatedAt(), Instant.now()).toMillis()));
+    }
+
+    // Invoices still in flight keep their claim and are picked up again,
+    // here or elsewhere, once the lease expires
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
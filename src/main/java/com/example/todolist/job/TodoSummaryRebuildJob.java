@@ -0,0 +1,26 @@
+package com.example.todolist.job;
+
+import com.example.todolist.service.TodoSummaryService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recomputes the todo summary counters from {@code todolist} to repair any
+ * drift, e.g. from rows changed outside {@code TodoService} (SnapAdmin, SQL).
+ */
+@Component
+@ConditionalOnProperty(name = "todolist.todo-summary.rebuild-enabled", havingValue = "true", matchIfMissing = true)
+public class TodoSummaryRebuildJob {
+
+    private final TodoSummaryService todoSummaryService;
+
+    public TodoSummaryRebuildJob(TodoSummaryService todoSummaryService) {
+        this.todoSummaryService = todoSummaryService;
+    }
+
+    @Scheduled(cron = "${todolist.todo-summary.rebuild-cron:0 30 3 * * *}", zone = "UTC")
+    public void rebuild() {
+        todoSummaryService.rebuild();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.todolist.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * A request made with an {@code Idempotency-Key} header and, once it has
+ * finished, its response. The primary key makes a second request with the
+ * same key fail to insert, so concurrent duplicates need no locks. Rows
+ * without a response are still running.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+    @Index(name = "idx_idempotency_keys_expires_at", columnList = "expiresAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class IdempotencyKey {
+    @EmbeddedId
+    private IdempotencyKeyId id;
+
+    // SHA-256 of the request, so a key reused for a different request is rejected
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    private Integer responseStatus;
+
+    @Column(length = 128)
+    private String contentType;
+
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(nullable = false, columnDefinition = "TIMESTAMP WITH TIME ZONE")
+    private Instant createdAt;
+
+    @Column(nullable = false, columnDefinition = "TIMESTAMP WITH TIME ZONE")
+    private Instant expiresAt;
+
+    public boolean isCompleted() {
+        return responseStatus != null;
+    }
+}
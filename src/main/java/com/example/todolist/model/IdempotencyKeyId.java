@@ -0,0 +1,25 @@
+package com.example.todolist.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Embeddable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class IdempotencyKeyId implements Serializable {
+
+    // Method and path, e.g. "POST /api/todos"
+    @Column(nullable = false, length = 64)
+    private String scope;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String key;
+}
@@ -1,16 +1,29 @@
 package com.example.todolist.model;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.PartitionKey;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 @Entity
-@Table(name = "invoices")
+@Table(name = "invoices", indexes = {
+    // Keyset pagination by (updatedAt DESC, id DESC); logical names, resolved
+    // to columns by the naming strategy. See Todo for why they are DESC.
+    @Index(name = "idx_invoices_updated_at_id", columnList = "updatedAt DESC, id DESC"),
+    @Index(name = "idx_invoices_user_status_updated_at_id", columnList = "user_id, status, updatedAt DESC, id DESC"),
+    @Index(name = "idx_invoices_status_updated_at_id", columnList = "status, updatedAt DESC, id DESC"),
+    // Worker claims: pending invoices, and expired leases to reclaim
+    @Index(name = "idx_invoices_status_created_at", columnList = "status, createdAt"),
+    @Index(name = "idx_invoices_status_level_rank_created_at_id", columnList = "status, levelRank, createdAt, id"),
+    @Index(name = "idx_invoices_status_lease_expires_at", columnList = "status, leaseExpiresAt")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -33,6 +46,14 @@ public class Invoice {
     @Column(nullable = false, length = 8, columnDefinition = "varchar(8) default 'MEDIUM'")
     private Level level = Level.MEDIUM;
 
+    // Claim order, HIGH first; generated by the database from level (0018),
+    // so it is never written and not read back after a save
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Column(insertable = false, updatable = false, columnDefinition = "SMALLINT GENERATED ALWAYS AS "
+            + "(CASE level WHEN 'HIGH' THEN 0 WHEN 'MEDIUM' THEN 1 ELSE 2 END)")
+    private Short levelRank;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -40,10 +61,26 @@ public class Invoice {
     @Column(nullable = false)
     private Instant updatedAt = Instant.now();
 
-    // UTC-safe creation timestamp
+    // Optimistic lock: every UPDATE is conditional on the version that was read
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    // Set while an InvoiceWorker owns the invoice. Once the lease has expired
+    // (the worker died mid-invoice) another worker may reclaim it
+    @Column(length = 64)
+    private String claimedBy;
+
+    private Instant leaseExpiresAt;
+
+    // UTC-safe creation timestamp, and the partition key (0017): the primary
+    // key is (id, created_at), so Hibernate adds it to every UPDATE and DELETE.
+    // Kept at the column's microsecond precision, so the value held here
+    // matches the stored one
+    @PartitionKey
     @Column(nullable = false, updatable = false,
             columnDefinition = "TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP")
-    private Instant createdAt = Instant.now();
+    private Instant createdAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
 
     // Custom constructor
     public Invoice(UUID invoiceId, BigDecimal amount, User user) {
@@ -0,0 +1,40 @@
+package com.example.todolist.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * Invoice count and amount per {@code (day, user, status, level)}, kept in
+ * step with {@code invoices} by {@code InvoiceRevenueService} so revenue
+ * reports never read invoice rows.
+ */
+@Entity
+// See TodoSummary: the generated primary key is ordered alphabetically, so the
+// schema Hibernate creates (tests) gets explicit date and per-user lookup paths
+@Table(name = "invoice_daily_revenue", indexes = {
+    @Index(name = "idx_invoice_daily_revenue_created_on", columnList = "createdOn"),
+    @Index(name = "idx_invoice_daily_revenue_user_id_created_on", columnList = "user_id, createdOn")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceDailyRevenue {
+    @EmbeddedId
+    private InvoiceRevenueId id;
+
+    @Column(nullable = false)
+    private long invoiceCount;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+}
@@ -0,0 +1,51 @@
+package com.example.todolist.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+
+@Embeddable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class InvoiceRevenueId implements Serializable {
+
+    // Order in which rollup rows are updated within one transaction, so that
+    // concurrent writers lock them in the same order
+    public static final Comparator<InvoiceRevenueId> LOCK_ORDER = Comparator
+        .comparing(InvoiceRevenueId::getCreatedOn)
+        .thenComparing(InvoiceRevenueId::getUserId)
+        .thenComparing(InvoiceRevenueId::getStatus)
+        .thenComparing(InvoiceRevenueId::getLevel);
+
+    // UTC date the invoice was created
+    @Column(nullable = false)
+    private LocalDate createdOn;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private InvoiceStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Level level;
+
+    public static InvoiceRevenueId of(Invoice invoice) {
+        return new InvoiceRevenueId(LocalDate.ofInstant(invoice.getCreatedAt(), ZoneOffset.UTC),
+            invoice.getUser().getId(), invoice.getStatus(), invoice.getLevel());
+    }
+}
@@ -1,9 +1,28 @@
 package com.example.todolist.model;
 
+import java.util.Set;
+
+/**
+ * Invoice lifecycle: {@code CREATED -> REVIEWING -> PROCESSING -> COMPLETED | REJECTED}.
+ * {@code COMPLETED} and {@code REJECTED} are terminal.
+ */
 public enum InvoiceStatus {
     CREATED,
     REVIEWING,
     PROCESSING,
     COMPLETED,
-    REJECTED
+    REJECTED;
+
+    public Set<InvoiceStatus> nextStatuses() {
+        return switch (this) {
+            case CREATED -> Set.of(REVIEWING);
+            case REVIEWING -> Set.of(PROCESSING);
+            case PROCESSING -> Set.of(COMPLETED, REJECTED);
+            case COMPLETED, REJECTED -> Set.of();
+        };
+    }
+
+    public boolean canTransitionTo(InvoiceStatus next) {
+        return nextStatuses().contains(next);
+    }
 }
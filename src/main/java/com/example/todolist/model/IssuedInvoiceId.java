@@ -0,0 +1,32 @@
+package com.example.todolist.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Every {@code invoice_id} in use, with the {@code created_at} of its invoice.
+ * Not partitioned, so its primary key keeps invoice ids unique across months,
+ * and lookups by invoice id read the partition key from here. Written through
+ * {@code InvoiceRepository.registerInvoiceId}.
+ */
+@Entity
+@Table(name = "invoice_ids")
+@Getter
+@Setter
+@NoArgsConstructor
+public class IssuedInvoiceId {
+    @Id
+    @Column(columnDefinition = "UUID")
+    private UUID invoiceId;
+
+    @Column(nullable = false, columnDefinition = "TIMESTAMP WITH TIME ZONE")
+    private Instant createdAt;
+}
@@ -0,0 +1,27 @@
+package com.example.todolist.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Change counter for a whole collection (e.g. all users, or one user's
+ * todos), used as the ETag of its listings. Bumped by {@code ResourceVersionService} after each write.
+ */
+@Entity
+@Table(name = "resource_versions")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ResourceVersion {
+    @Id
+    @Column(length = 32)
+    private String name;
+
+    @Column(nullable = false)
+    private long version;
+}
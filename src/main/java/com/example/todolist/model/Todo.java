@@ -1,5 +1,6 @@
 package com.example.todolist.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -8,13 +9,22 @@ import lombok.Setter;
 import java.time.Instant;
 
 @Entity
-@Table(name = "todolist")
+// Keyset columns are DESC to match the listing order, as 0020 creates them;
+// H2 (tests) cannot read an ascending index backwards.
+@Table(name = "todolist", indexes = {
+    @Index(name = "idx_todolist_created_at_id", columnList = "createdAt DESC, id DESC"),
+    @Index(name = "idx_todolist_user_created_at_id", columnList = "user_id, createdAt DESC, id DESC"),
+    @Index(name = "idx_todolist_completed_level_created_at_id", columnList = "completed, level, createdAt DESC, id DESC")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 public class Todo {
+    // Pooled sequence rather than IDENTITY so Hibernate can batch inserts;
+    // allocationSize must match the sequence increment in 0008
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todolist_seq")
+    @SequenceGenerator(name = "todolist_seq", sequenceName = "todolist_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -34,10 +44,18 @@ public class Todo {
             columnDefinition = "TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP")
     private Instant createdAt = Instant.now();
 
+    // Written as a reference (UserService.getReference); the proxy's own
+    // fields are left out when a todo is returned
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private User user;
 
+    // Optimistic lock; also the todo's ETag
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     // Custom constructor for creating new todos
     public Todo(String title, String description, User user) {
         this.title = title;
@@ -0,0 +1,42 @@
+package com.example.todolist.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.Comparator;
+
+@Embeddable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class TodoSummaryId implements Serializable {
+
+    // Order in which counters are updated within one transaction, so that
+    // concurrent batches lock summary rows in the same order
+    public static final Comparator<TodoSummaryId> LOCK_ORDER = Comparator
+        .comparing(TodoSummaryId::getUserId)
+        .thenComparing(TodoSummaryId::isCompleted)
+        .thenComparing(TodoSummaryId::getLevel);
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private boolean completed;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Level level;
+
+    public static TodoSummaryId of(Todo todo) {
+        return new TodoSummaryId(todo.getUser().getId(), todo.isCompleted(), todo.getLevel());
+    }
+}
@@ -31,7 +31,14 @@ public class User {
             columnDefinition = "TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP")
     private Instant createdAt = Instant.now();
 
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = false)
+    // Optimistic lock; also the ETag of GET /api/users/{id}
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    // Not cascaded: removing a user with its todos is done with set-based
+    // deletes (UserRepository.deleteWithDependents), never one entity at a time
+    @OneToMany(mappedBy = "user")
     @JsonIgnore
     private List<Todo> todos = new ArrayList<>();
 
@@ -0,0 +1,47 @@
+package com.example.todolist.repository;
+
+import com.example.todolist.model.IdempotencyKey;
+import com.example.todolist.model.IdempotencyKeyId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, IdempotencyKeyId> {
+
+    // Plain insert, so a key that is already taken fails on the primary key
+    // instead of being merged
+    @Modifying
+    @Query(value = "insert into idempotency_keys (scope, idempotency_key, request_hash, created_at, expires_at) "
+        + "values (:scope, :key, :requestHash, :createdAt, :expiresAt)", nativeQuery = true)
+    void insert(@Param("scope") String scope, @Param("key") String key, @Param("requestHash") String requestHash,
+                @Param("createdAt") Instant createdAt, @Param("expiresAt") Instant expiresAt);
+
+    // Instead of findById, which compares the id as a row value ordered by
+    // attribute name, (idempotency_key, scope), and H2 cannot match that to
+    // the (scope, idempotency_key) primary key
+    @Query("select k from IdempotencyKey k where k.id.scope = :scope and k.id.key = :key")
+    Optional<IdempotencyKey> find(@Param("scope") String scope, @Param("key") String key);
+
+    @Modifying
+    @Query("update IdempotencyKey k set k.responseStatus = :status, k.contentType = :contentType, "
+        + "k.responseBody = :body, k.expiresAt = :expiresAt where k.id = :id")
+    int complete(@Param("id") IdempotencyKeyId id, @Param("status") int status,
+                 @Param("contentType") String contentType, @Param("body") String body,
+                 @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.id = :id")
+    int release(@Param("id") IdempotencyKeyId id);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.id = :id and k.expiresAt < :now")
+    int deleteIfExpired(@Param("id") IdempotencyKeyId id, @Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,63 @@
+package com.example.todolist.repository;
+
+import com.example.todolist.dto.InvoiceBacklog;
+import com.example.todolist.model.Invoice;
+import com.example.todolist.model.InvoiceStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface InvoiceRepository extends JpaRepository<Invoice, Long>, InvoiceRepositoryCustom {
+    // invoice_ids supplies created_at, the partition key, so on PostgreSQL
+    // only the invoice's own month is probed
+    @Query("select i from Invoice i where i.invoiceId = :invoiceId and i.createdAt = "
+        + "(select k.createdAt from IssuedInvoiceId k where k.invoiceId = :invoiceId)")
+    Optional<Invoice> findByInvoiceId(@Param("invoiceId") UUID invoiceId);
+
+    // By primary key; findById would probe every partition for the id
+    @Query("select i from Invoice i where i.id = :id and i.createdAt = :createdAt")
+    Optional<Invoice> findByKey(Long id, Instant createdAt);
+
+    @Modifying
+    @Query("delete from IssuedInvoiceId k where k.invoiceId = :invoiceId")
+    void releaseInvoiceId(@Param("invoiceId") UUID invoiceId);
+
+    // Claim queries: SELECT ... FOR UPDATE SKIP LOCKED (lock timeout -2), so
+    // concurrent claimers take disjoint batches instead of queueing on each
+    // other's rows. H2 has no SKIP LOCKED and waits for the lock instead,
+    // then re-checks the row, so batches stay disjoint there too.
+    // These and the backlog query only look at invoices created since
+    // :since; created_at is the partition key, so on PostgreSQL months
+    // before it are not scanned.
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    // levelRank rather than a CASE on level, so the rows come off
+    // idx_invoices_status_level_rank_created_at_id already in claim order
+    @Query("select i from Invoice i where i.status = :status and i.createdAt >= :since "
+        + "order by i.levelRank, i.createdAt, i.id")
+    List<Invoice> findClaimable(InvoiceStatus status, Instant since, Pageable page);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query("select i from Invoice i where i.status in :statuses and i.createdAt >= :since "
+        + "and i.leaseExpiresAt < :now order by i.leaseExpiresAt, i.id")
+    List<Invoice> findExpiredLeases(Collection<InvoiceStatus> statuses, Instant since, Instant now, Pageable page);
+
+    @Query("select new com.example.todolist.dto.InvoiceBacklog(count(i), min(i.createdAt)) "
+        + "from Invoice i where i.status = :status and i.createdAt >= :since")
+    InvoiceBacklog findBacklog(InvoiceStatus status, Instant since);
+}
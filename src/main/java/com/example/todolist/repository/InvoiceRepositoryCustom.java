@@ -0,0 +1,58 @@
+package com.example.todolist.repository;
+
+import com.example.todolist.dto.InvoiceFilter;
+import com.example.todolist.dto.InvoiceView;
+import com.example.todolist.dto.KeysetCursor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+public interface InvoiceRepositoryCustom {
+
+    /**
+     * Returns up to {@code limit} invoices ordered by {@code (updatedAt DESC, id DESC)},
+     * starting strictly after {@code after} when it is non-null.
+     */
+    List<InvoiceView> findPage(InvoiceFilter filter, KeysetCursor after, int limit);
+
+    /**
+     * Records {@code invoiceId} in {@code invoice_ids} with the
+     * {@code createdAt} of its invoice. Returns false, changing nothing, if
+     * the id is already taken; a concurrent registration of the same id waits
+     * for the other transaction to finish first.
+     */
+    boolean registerInvoiceId(UUID invoiceId, Instant createdAt);
+
+    // Partition maintenance; PostgreSQL only, where invoices is partitioned
+    // by month of created_at (UTC) into invoices_pYYYY_MM tables
+
+    /**
+     * Whether {@code invoices} is a partitioned table.
+     */
+    boolean isPartitioned();
+
+    /**
+     * The months that have a partition attached to {@code invoices}.
+     */
+    List<YearMonth> findPartitionMonths();
+
+    /**
+     * Limits how long each following statement of the current transaction
+     * waits for a lock, so DDL fails instead of queueing behind long
+     * transactions while every new query on {@code invoices} queues behind it.
+     */
+    void limitLockWait(Duration timeout);
+
+    void createPartition(YearMonth month);
+
+    /**
+     * Detaches the month's partition and renames it to
+     * {@code invoices_archive_pYYYY_MM}, or drops it when {@code drop} is set.
+     * Dropping also releases the month's invoice ids; archived months keep
+     * theirs, since their invoices still exist.
+     */
+    void removePartition(YearMonth month, boolean drop);
+}
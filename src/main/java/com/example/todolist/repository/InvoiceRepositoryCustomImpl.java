@@ -0,0 +1,180 @@
+package com.example.todolist.repository;
+
+import com.example.todolist.dto.InvoiceFilter;
+import com.example.todolist.dto.InvoiceView;
+import com.example.todolist.dto.KeysetCursor;
+import com.example.todolist.model.Invoice;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+class InvoiceRepositoryCustomImpl implements InvoiceRepositoryCustom {
+    private static final Pattern PARTITION_NAME = Pattern.compile("invoices_p(\\d{4})_(\\d{2})");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<InvoiceView> findPage(InvoiceFilter filter, KeysetCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<InvoiceView> query = cb.createQuery(InvoiceView.class);
+        Root<Invoice> invoice = query.from(Invoice.class);
+
+        // Same approach as the todo listing: bind only the filters present.
+        // user.id is read from the foreign key, so no join is needed.
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.userId() != null) {
+            predicates.add(cb.equal(invoice.get("user").get("id"), filter.userId()));
+        }
+        if (filter.status() != null) {
+            predicates.add(cb.equal(invoice.get("status"), filter.status()));
+        }
+        // created_at is the partition key: a range here limits the scan to
+        // the months it covers
+        if (filter.createdFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(invoice.<Instant>get("createdAt"), filter.createdFrom()));
+        }
+        if (filter.createdTo() != null) {
+            predicates.add(cb.lessThan(invoice.<Instant>get("createdAt"), filter.createdTo()));
+        }
+        if (after != null) {
+            // (updatedAt, id) < (:ts, :id), written with a leading range on updatedAt
+            // so the index can seek instead of scanning for the OR
+            predicates.add(cb.lessThanOrEqualTo(invoice.<Instant>get("updatedAt"), after.timestamp()));
+            predicates.add(cb.or(
+                cb.lessThan(invoice.<Instant>get("updatedAt"), after.timestamp()),
+                cb.lessThan(invoice.<Long>get("id"), after.id())));
+        }
+
+        query.select(cb.construct(InvoiceView.class,
+                invoice.get("id"),
+                invoice.get("invoiceId"),
+                invoice.get("amount"),
+                invoice.get("status"),
+                invoice.get("level"),
+                invoice.get("user").get("id"),
+                invoice.get("version"),
+                invoice.get("createdAt"),
+                invoice.get("updatedAt")))
+            .where(predicates.toArray(Predicate[]::new))
+            .orderBy(cb.desc(invoice.get("updatedAt")), cb.desc(invoice.get("id")));
+
+        return entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    @Override
+    public boolean registerInvoiceId(UUID invoiceId, Instant createdAt) {
+        // H2 only accepts ON CONFLICT in PostgreSQL mode; its MERGE leaves a
+        // taken id alone the same way
+        String sql = isPostgres()
+            ? "INSERT INTO invoice_ids (invoice_id, created_at) VALUES (:invoiceId, :createdAt) "
+                + "ON CONFLICT (invoice_id) DO NOTHING"
+            : "MERGE INTO invoice_ids t "
+                + "USING (SELECT CAST(:invoiceId AS UUID) AS invoice_id, "
+                + "CAST(:createdAt AS TIMESTAMP WITH TIME ZONE) AS created_at) s "
+                + "ON t.invoice_id = s.invoice_id "
+                + "WHEN NOT MATCHED THEN INSERT (invoice_id, created_at) VALUES (s.invoice_id, s.created_at)";
+        return entityManager.createNativeQuery(sql)
+            .setParameter("invoiceId", invoiceId)
+            .setParameter("createdAt", createdAt)
+            .executeUpdate() == 1;
+    }
+
+    @Override
+    public boolean isPartitioned() {
+        if (!isPostgres()) {
+            return false;
+        }
+        Number count = (Number) entityManager.createNativeQuery(
+                "SELECT COUNT(*) FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid "
+                    + "WHERE c.relname = 'invoices' AND c.relnamespace = to_regnamespace(current_schema())")
+            .getSingleResult();
+        return count.intValue() > 0;
+    }
+
+    @Override
+    public List<YearMonth> findPartitionMonths() {
+        @SuppressWarnings("unchecked")
+        List<String> names = entityManager.createNativeQuery(
+                "SELECT c.relname FROM pg_inherits i "
+                    + "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent "
+                    + "WHERE p.relname = 'invoices' AND p.relnamespace = to_regnamespace(current_schema())")
+            .getResultList();
+        // The default partition and anything not named by month are left alone
+        List<YearMonth> months = new ArrayList<>();
+        for (String name : names) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (matcher.matches()) {
+                months.add(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+            }
+        }
+        months.sort(null);
+        return months;
+    }
+
+    @Override
+    public void limitLockWait(Duration timeout) {
+        // SET takes no bind parameters; a Duration's millis are a safe literal
+        entityManager.createNativeQuery("SET LOCAL lock_timeout = " + timeout.toMillis()).executeUpdate();
+    }
+
+    @Override
+    public void createPartition(YearMonth month) {
+        Instant from = month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant to = month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        entityManager.createNativeQuery("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                + " PARTITION OF invoices FOR VALUES FROM ('" + from + "') TO ('" + to + "')")
+            .executeUpdate();
+    }
+
+    @Override
+    public void removePartition(YearMonth month, boolean drop) {
+        String name = partitionName(month);
+        if (drop) {
+            // Before the DETACH, so this scan of invoice_ids does not run
+            // while invoices is locked
+            entityManager.createNativeQuery(
+                    "DELETE FROM invoice_ids WHERE created_at >= :from AND created_at < :to")
+                .setParameter("from", month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant())
+                .setParameter("to", month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant())
+                .executeUpdate();
+        }
+        entityManager.createNativeQuery("ALTER TABLE invoices DETACH PARTITION " + name).executeUpdate();
+        if (drop) {
+            entityManager.createNativeQuery("DROP TABLE " + name).executeUpdate();
+        } else {
+            entityManager.createNativeQuery("ALTER TABLE " + name + " RENAME TO "
+                    + name.replace("invoices_", "invoices_archive_"))
+                .executeUpdate();
+        }
+    }
+
+    // Built from a YearMonth only, so it is always a safe identifier
+    private static String partitionName(YearMonth month) {
+        return String.format("invoices_p%04d_%02d", month.getYear(), month.getMonthValue());
+    }
+
+    private boolean isPostgres() {
+        return entityManager.getEntityManagerFactory()
+            .unwrap(SessionFactoryImplementor.class)
+            .getJdbcServices()
+            .getDialect() instanceof PostgreSQLDialect;
+    }
+}
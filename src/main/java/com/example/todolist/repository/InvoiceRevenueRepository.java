@@ -0,0 +1,32 @@
+package com.example.todolist.repository;
+
+import com.example.todolist.model.InvoiceDailyRevenue;
+import com.example.todolist.model.InvoiceRevenueId;
+import com.example.todolist.model.InvoiceStatus;
+import com.example.todolist.model.Level;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface InvoiceRevenueRepository
+        extends JpaRepository<InvoiceDailyRevenue, InvoiceRevenueId>, InvoiceRevenueRepositoryCustom {
+
+    /**
+     * Adds to an existing rollup row; returns 0 when the row does not exist yet.
+     */
+    @Modifying
+    @Query("update InvoiceDailyRevenue r set r.invoiceCount = r.invoiceCount + :count, "
+        + "r.totalAmount = r.totalAmount + :amount "
+        + "where r.id.createdOn = :createdOn and r.id.userId = :userId "
+        + "and r.id.status = :status and r.id.level = :level")
+    int increment(@Param("createdOn") LocalDate createdOn,
+                  @Param("userId") Long userId,
+                  @Param("status") InvoiceStatus status,
+                  @Param("level") Level level,
+                  @Param("count") long count,
+                  @Param("amount") BigDecimal amount);
+}
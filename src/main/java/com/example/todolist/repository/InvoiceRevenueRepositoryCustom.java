@@ -0,0 +1,32 @@
+package com.example.todolist.repository;
+
+import com.example.todolist.dto.RevenueFilter;
+import com.example.todolist.dto.RevenueReportRow;
+import com.example.todolist.model.InvoiceRevenueId;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface InvoiceRevenueRepositoryCustom {
+
+    /**
+     * Sums the daily rollup rows matching {@code filter} per period, status
+     * and level (and user when requested), ordered by period.
+     */
+    List<RevenueReportRow> findReport(RevenueFilter filter);
+
+    /**
+     * Adds to the rollup row, creating it if it does not exist yet. A single
+     * statement, so concurrent first writes to the same key both count
+     * instead of one failing on the primary key.
+     */
+    void upsert(InvoiceRevenueId id, long count, BigDecimal amount);
+
+    /**
+     * Recomputes the rollup rows from {@code since} on (every row when
+     * {@code null}) from {@code invoices}. Must run in a transaction; returns
+     * the number of rollup rows written.
+     */
+    int rebuild(LocalDate since);
+}
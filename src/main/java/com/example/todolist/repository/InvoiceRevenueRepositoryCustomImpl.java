@@ -0,0 +1,157 @@
+package com.example.todolist.repository;
+
+import com.example.todolist.dto.RevenueFilter;
+import com.example.todolist.dto.RevenueReportRow;
+import com.example.todolist.model.InvoiceDailyRevenue;
+import com.example.todolist.model.InvoiceRevenueId;
+import com.example.todolist.model.InvoiceStatus;
+import com.example.todolist.model.Level;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+class InvoiceRevenueRepositoryCustomImpl implements InvoiceRevenueRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<RevenueReportRow> findReport(RevenueFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<InvoiceDailyRevenue> revenue = query.from(InvoiceDailyRevenue.class);
+        Path<LocalDate> createdOn = revenue.get("id").get("createdOn");
+        Path<Long> userId = revenue.get("id").get("userId");
+        Path<InvoiceStatus> status = revenue.get("id").get("status");
+        Path<Level> level = revenue.get("id").get("level");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.between(createdOn, filter.from(), filter.to()));
+        if (filter.userId() != null) {
+            predicates.add(cb.equal(userId, filter.userId()));
+        }
+        if (filter.status() != null) {
+            predicates.add(cb.equal(status, filter.status()));
+        }
+
+        // Months are grouped in the database, so a multi-year report returns
+        // one row per month rather than every day
+        List<Expression<?>> period = filter.granularity() == RevenueFilter.Granularity.MONTH
+            ? List.of(cb.function("year", Integer.class, createdOn), cb.function("month", Integer.class, createdOn))
+            : List.of(createdOn);
+        List<Expression<?>> groupBy = new ArrayList<>(period);
+        groupBy.add(status);
+        groupBy.add(level);
+        if (filter.byUser()) {
+            groupBy.add(userId);
+        }
+
+        Expression<Long> invoiceCount = cb.sum(revenue.<Long>get("invoiceCount"));
+        List<Expression<?>> selection = new ArrayList<>(groupBy);
+        selection.add(invoiceCount);
+        selection.add(cb.sum(revenue.<BigDecimal>get("totalAmount")));
+        List<Order> order = groupBy.stream().map(cb::asc).toList();
+
+        // Rows are kept at zero once their last invoice moves on or is deleted
+        query.multiselect(selection.toArray(Expression[]::new))
+            .where(predicates.toArray(Predicate[]::new))
+            .groupBy(groupBy)
+            .having(cb.gt(invoiceCount, 0L))
+            .orderBy(order);
+
+        int p = period.size();
+        return entityManager.createQuery(query).getResultList().stream()
+            .map(row -> new RevenueReportRow(
+                p == 2 ? LocalDate.of(row.get(0, Integer.class), row.get(1, Integer.class), 1) : row.get(0, LocalDate.class),
+                filter.byUser() ? row.get(p + 2, Long.class) : null,
+                row.get(p, InvoiceStatus.class),
+                row.get(p + 1, Level.class),
+                row.get(selection.size() - 2, Long.class),
+                row.get(selection.size() - 1, BigDecimal.class)))
+            .toList();
+    }
+
+    @Override
+    public void upsert(InvoiceRevenueId id, long count, BigDecimal amount) {
+        // Same statements as TodoSummaryRepositoryCustomImpl.upsert
+        String sql = isPostgres()
+            ? "INSERT INTO invoice_daily_revenue (created_on, user_id, status, level, invoice_count, total_amount) "
+                + "VALUES (:createdOn, :userId, :status, :level, :count, :amount) "
+                + "ON CONFLICT (created_on, user_id, status, level) "
+                + "DO UPDATE SET invoice_count = invoice_daily_revenue.invoice_count + EXCLUDED.invoice_count, "
+                + "total_amount = invoice_daily_revenue.total_amount + EXCLUDED.total_amount"
+            : "MERGE INTO invoice_daily_revenue t "
+                + "USING (SELECT CAST(:createdOn AS DATE) AS created_on, CAST(:userId AS BIGINT) AS user_id, "
+                + "CAST(:status AS VARCHAR(16)) AS status, CAST(:level AS VARCHAR(8)) AS level, "
+                + "CAST(:count AS BIGINT) AS invoice_count, CAST(:amount AS NUMERIC(19, 2)) AS total_amount) s "
+                + "ON t.created_on = s.created_on AND t.user_id = s.user_id "
+                + "AND t.status = s.status AND t.level = s.level "
+                + "WHEN MATCHED THEN UPDATE SET invoice_count = t.invoice_count + s.invoice_count, "
+                + "total_amount = t.total_amount + s.total_amount "
+                + "WHEN NOT MATCHED THEN INSERT (created_on, user_id, status, level, invoice_count, total_amount) "
+                + "VALUES (s.created_on, s.user_id, s.status, s.level, s.invoice_count, s.total_amount)";
+        entityManager.createNativeQuery(sql)
+            .setParameter("createdOn", id.getCreatedOn())
+            .setParameter("userId", id.getUserId())
+            .setParameter("status", id.getStatus().name())
+            .setParameter("level", id.getLevel().name())
+            .setParameter("count", count)
+            .setParameter("amount", amount)
+            .executeUpdate();
+    }
+
+    @Override
+    public int rebuild(LocalDate since) {
+        String createdOn;
+        if (isPostgres()) {
+            // Blocks rollup updates (not reads) until commit, so an invoice written
+            // while the totals are recomputed is neither lost nor counted twice
+            entityManager.createNativeQuery("LOCK TABLE invoice_daily_revenue IN EXCLUSIVE MODE").executeUpdate();
+            createdOn = "CAST(created_at AT TIME ZONE 'UTC' AS DATE)";
+        } else {
+            createdOn = "CAST(created_at AS DATE)";
+        }
+        if (since == null) {
+            entityManager.createNativeQuery("DELETE FROM invoice_daily_revenue").executeUpdate();
+            return entityManager.createNativeQuery(
+                    "INSERT INTO invoice_daily_revenue (created_on, user_id, status, level, invoice_count, total_amount) "
+                        + "SELECT " + createdOn + ", user_id, status, level, COUNT(*), SUM(amount) FROM invoices "
+                        + "GROUP BY " + createdOn + ", user_id, status, level")
+                .executeUpdate();
+        }
+        entityManager.createNativeQuery("DELETE FROM invoice_daily_revenue WHERE created_on >= :since")
+            .setParameter("since", since)
+            .executeUpdate();
+        // Bounded on created_at itself, not the derived date, so only the
+        // partitions from since on are read
+        return entityManager.createNativeQuery(
+                "INSERT INTO invoice_daily_revenue (created_on, user_id, status, level, invoice_count, total_amount) "
+                    + "SELECT " + createdOn + ", user_id, status, level, COUNT(*), SUM(amount) FROM invoices "
+                    + "WHERE created_at >= :sinceStart "
+                    + "GROUP BY " + createdOn + ", user_id, status, level")
+            .setParameter("sinceStart", since.atStartOfDay(ZoneOffset.UTC).toInstant())
+            .executeUpdate();
+    }
+
+    private boolean isPostgres() {
+        return entityManager.getEntityManagerFactory()
+            .unwrap(SessionFactoryImplementor.class)
+            .getJdbcServices()
+            .getDialect() instanceof PostgreSQLDialect;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.todolist.repository;
+
+import com.example.todolist.model.ResourceVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface ResourceVersionRepository extends JpaRepository<ResourceVersion, String> {
+
+    @Query("select r.version from ResourceVersion r where r.name = :name")
+    Optional<Long> findVersion(@Param("name") String name);
+
+    @Modifying
+    @Query("update ResourceVersion r set r.version = r.version + 1 where r.name = :name")
+    int increment(@Param("name") String name);
+
+    @Modifying
+    @Query(value = "insert into resource_versions (name, version) values (:name, :version)", nativeQuery = true)
+    void insert(@Param("name") String name, @Param("version") long version);
+
+    @Modifying
+    @Query("delete from ResourceVersion r where r.name = :name")
+    int delete(@Param("name") String name);
+}
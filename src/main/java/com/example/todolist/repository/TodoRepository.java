@@ -1,6 +1,31 @@
 package com.example.todolist.repository;
 
+import com.example.todolist.dto.TodoKey;
 import com.example.todolist.model.Todo;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
-public interface TodoRepository extends JpaRepository<Todo, Long> {}
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface TodoRepository extends JpaRepository<Todo, Long>, TodoRepositoryCustom {
+
+    // Must be consumed inside a transaction; the JDBC driver only honours the
+    // fetch size (and streams instead of buffering) when auto-commit is off
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from Todo t join fetch t.user order by t.id")
+    Stream<Todo> streamAll();
+
+    // Existing ids with their summary key, so batch deletes can adjust the
+    // counters without loading the entities
+    @Query("select new com.example.todolist.dto.TodoKey(t.id, t.user.id, t.completed, t.level) "
+        + "from Todo t where t.id in :ids")
+    List<TodoKey> findKeys(Collection<Long> ids);
+}
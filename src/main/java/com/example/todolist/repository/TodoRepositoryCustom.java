@@ -0,0 +1,26 @@
+package com.example.todolist.repository;
+
+import com.example.todolist.dto.KeysetCursor;
+import com.example.todolist.dto.TodoFilter;
+import com.example.todolist.dto.TodoSearchHit;
+import com.example.todolist.dto.TodoView;
+
+import java.util.List;
+
+public interface TodoRepositoryCustom {
+
+    /**
+     * Returns up to {@code limit} todos ordered by {@code (createdAt DESC, id DESC)},
+     * starting strictly after {@code after} when it is non-null. The owner is
+     * joined in the same statement.
+     */
+    List<TodoView> findPage(TodoFilter filter, KeysetCursor after, int limit);
+
+    /**
+     * Todos whose title or description match {@code text}, most relevant
+     * first, optionally only those of {@code userId}. On PostgreSQL this is a
+     * full-text query over the {@code search_vector} column from 0014;
+     * elsewhere every term must occur as a case-insensitive substring.
+     */
+    List<TodoSearchHit> search(String text, Long userId, int offset, int limit);
+}
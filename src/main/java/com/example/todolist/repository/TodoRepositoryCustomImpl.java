@@ -0,0 +1,199 @@
+package com.example.todolist.repository;
+
+import com.example.todolist.dto.KeysetCursor;
+import com.example.todolist.dto.TodoFilter;
+import com.example.todolist.dto.TodoSearchHit;
+import com.example.todolist.dto.TodoView;
+import com.example.todolist.model.Level;
+import com.example.todolist.model.Todo;
+import com.example.todolist.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+class TodoRepositoryCustomImpl implements TodoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TodoView> findPage(TodoFilter filter, KeysetCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TodoView> query = cb.createQuery(TodoView.class);
+        Root<Todo> todo = query.from(Todo.class);
+        Join<Todo, User> user = todo.join("user");
+
+        // Only bind the filters that are present so the planner can pick the
+        // matching composite index instead of evaluating "? IS NULL OR ..." per row.
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.userId() != null) {
+            predicates.add(cb.equal(user.get("id"), filter.userId()));
+        }
+        if (filter.completed() != null) {
+            predicates.add(cb.equal(todo.get("completed"), filter.completed()));
+        }
+        if (filter.level() != null) {
+            predicates.add(cb.equal(todo.get("level"), filter.level()));
+        }
+        if (after != null) {
+            // (createdAt, id) < (:ts, :id), written with a leading range on createdAt
+            // so the index can seek instead of scanning for the OR
+            predicates.add(cb.lessThanOrEqualTo(todo.<Instant>get("createdAt"), after.timestamp()));
+            predicates.add(cb.or(
+                cb.lessThan(todo.<Instant>get("createdAt"), after.timestamp()),
+                cb.lessThan(todo.<Long>get("id"), after.id())));
+        }
+
+        query.select(cb.construct(TodoView.class,
+                todo.get("id"),
+                todo.get("title"),
+                todo.get("description"),
+                todo.get("completed"),
+                todo.get("level"),
+                todo.get("createdAt"),
+                user.get("id"),
+                user.get("username")))
+            .where(predicates.toArray(Predicate[]::new))
+            .orderBy(cb.desc(todo.get("createdAt")), cb.desc(todo.get("id")));
+
+        return entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    @Override
+    public List<TodoSearchHit> search(String text, Long userId, int offset, int limit) {
+        return isPostgres()
+            ? searchFullText(text, userId, offset, limit)
+            : searchSubstrings(text, userId, offset, limit);
+    }
+
+    // Matches through the GIN index on search_vector; websearch_to_tsquery
+    // accepts free text ("quoted phrases", -excluded, or) without syntax errors
+    @SuppressWarnings("unchecked")
+    private List<TodoSearchHit> searchFullText(String text, Long userId, int offset, int limit) {
+        String sql = "SELECT t.id, t.title, t.description, t.completed, t.level, t.created_at, "
+            + "u.id AS user_id, u.username, ts_rank(t.search_vector, q) AS rank "
+            + "FROM todolist t JOIN users u ON u.id = t.user_id, websearch_to_tsquery('english', :text) q "
+            + "WHERE t.search_vector @@ q"
+            + (userId != null ? " AND t.user_id = :userId" : "")
+            + " ORDER BY rank DESC, t.id DESC OFFSET :offset LIMIT :limit";
+
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        query.addScalar("id", StandardBasicTypes.LONG)
+            .addScalar("title", StandardBasicTypes.STRING)
+            .addScalar("description", StandardBasicTypes.STRING)
+            .addScalar("completed", StandardBasicTypes.BOOLEAN)
+            .addScalar("level", StandardBasicTypes.STRING)
+            .addScalar("created_at", StandardBasicTypes.INSTANT)
+            .addScalar("user_id", StandardBasicTypes.LONG)
+            .addScalar("username", StandardBasicTypes.STRING)
+            .addScalar("rank", StandardBasicTypes.DOUBLE)
+            .setParameter("text", text)
+            .setParameter("offset", offset)
+            .setParameter("limit", limit);
+        if (userId != null) {
+            query.setParameter("userId", userId);
+        }
+
+        return query.getResultList().stream()
+            .map(row -> new TodoSearchHit(new TodoView(
+                    (Long) row[0],
+                    (String) row[1],
+                    (String) row[2],
+                    (Boolean) row[3],
+                    Level.valueOf((String) row[4]),
+                    (Instant) row[5],
+                    (Long) row[6],
+                    (String) row[7]),
+                (Double) row[8]))
+            .toList();
+    }
+
+    // Portable fallback (H2 in tests): every term must occur in the title or
+    // description; the rank is the number of terms found in the title
+    private List<TodoSearchHit> searchSubstrings(String text, Long userId, int offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Todo> todo = query.from(Todo.class);
+        Join<Todo, User> user = todo.join("user");
+        Expression<String> title = cb.lower(todo.get("title"));
+        Expression<String> description = cb.lower(todo.get("description"));
+
+        List<Predicate> predicates = new ArrayList<>();
+        Expression<Integer> rank = cb.literal(0);
+        for (String term : terms(text)) {
+            String pattern = "%" + escapeLike(term) + "%";
+            predicates.add(cb.or(cb.like(title, pattern, '\\'), cb.like(description, pattern, '\\')));
+            rank = cb.sum(rank, cb.<Integer>selectCase()
+                .when(cb.like(title, pattern, '\\'), 1)
+                .otherwise(0));
+        }
+        if (userId != null) {
+            predicates.add(cb.equal(user.get("id"), userId));
+        }
+
+        query.multiselect(
+                todo.get("id"),
+                todo.get("title"),
+                todo.get("description"),
+                todo.get("completed"),
+                todo.get("level"),
+                todo.get("createdAt"),
+                user.get("id"),
+                user.get("username"),
+                rank)
+            .where(predicates.toArray(Predicate[]::new))
+            .orderBy(cb.desc(rank), cb.desc(todo.get("createdAt")), cb.desc(todo.get("id")));
+
+        return entityManager.createQuery(query)
+            .setFirstResult(offset)
+            .setMaxResults(limit)
+            .getResultList().stream()
+            .map(row -> new TodoSearchHit(new TodoView(
+                    row.get(0, Long.class),
+                    row.get(1, String.class),
+                    row.get(2, String.class),
+                    row.get(3, Boolean.class),
+                    row.get(4, Level.class),
+                    row.get(5, Instant.class),
+                    row.get(6, Long.class),
+                    row.get(7, String.class)),
+                row.get(8, Number.class).doubleValue()))
+            .toList();
+    }
+
+    private static List<String> terms(String text) {
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).replace("\"", " ").split("\\s+"))
+            .filter(term -> !term.isEmpty())
+            .distinct()
+            .toList();
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private boolean isPostgres() {
+        return entityManager.getEntityManagerFactory()
+            .unwrap(SessionFactoryImplementor.class)
+            .getJdbcServices()
+            .getDialect() instanceof PostgreSQLDialect;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.todolist.repository;
+
+import com.example.todolist.model.Level;
+import com.example.todolist.model.TodoSummary;
+import com.example.todolist.model.TodoSummaryId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface TodoSummaryRepository extends JpaRepository<TodoSummary, TodoSummaryId>, TodoSummaryRepositoryCustom {
+
+    List<TodoSummary> findByIdUserId(Long userId);
+
+    @Query("select s from TodoSummary s order by s.id.userId")
+    List<TodoSummary> findAllOrderByUserId();
+
+    /**
+     * Adds {@code delta} to an existing counter; returns 0 when the row does
+     * not exist yet.
+     */
+    @Modifying
+    @Query("update TodoSummary s set s.todoCount = s.todoCount + :delta "
+        + "where s.id.userId = :userId and s.id.completed = :completed and s.id.level = :level")
+    int increment(@Param("userId") Long userId,
+                  @Param("completed") boolean completed,
+                  @Param("level") Level level,
+                  @Param("delta") long delta);
+}
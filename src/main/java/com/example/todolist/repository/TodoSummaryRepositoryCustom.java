@@ -0,0 +1,19 @@
+package com.example.todolist.repository;
+
+import com.example.todolist.model.Level;
+
+public interface TodoSummaryRepositoryCustom {
+
+    /**
+     * Adds {@code delta} to the counter, creating the row if it does not exist
+     * yet. A single statement, so concurrent first writes to the same key both
+     * count instead of one failing on the primary key.
+     */
+    void upsert(Long userId, boolean completed, Level level, long delta);
+
+    /**
+     * Recomputes every counter from {@code todolist}. Must run in a
+     * transaction; returns the number of summary rows written.
+     */
+    int rebuild();
+}
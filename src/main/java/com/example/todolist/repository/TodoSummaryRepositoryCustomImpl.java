@@ -0,0 +1,64 @@
+package com.example.todolist.repository;
+
+import com.example.todolist.model.Level;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+class TodoSummaryRepositoryCustomImpl implements TodoSummaryRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void upsert(Long userId, boolean completed, Level level, long delta) {
+        if (!isPostgres()) {
+            // H2 has no ON CONFLICT ... DO UPDATE, and its MERGE fails on the
+            // primary key when another transaction inserted the row first, so
+            // writers of one user's counters take turns on the user's row
+            entityManager.createNativeQuery("SELECT id FROM users WHERE id = :userId FOR UPDATE")
+                .setParameter("userId", userId)
+                .getResultList();
+        }
+        String sql = isPostgres()
+            ? "INSERT INTO todo_summary (user_id, completed, level, todo_count) "
+                + "VALUES (:userId, :completed, :level, :delta) "
+                + "ON CONFLICT (user_id, completed, level) "
+                + "DO UPDATE SET todo_count = todo_summary.todo_count + EXCLUDED.todo_count"
+            : "MERGE INTO todo_summary t "
+                + "USING (SELECT CAST(:userId AS BIGINT) AS user_id, CAST(:completed AS BOOLEAN) AS completed, "
+                + "CAST(:level AS VARCHAR(8)) AS level, CAST(:delta AS BIGINT) AS todo_count) s "
+                + "ON t.user_id = s.user_id AND t.completed = s.completed AND t.level = s.level "
+                + "WHEN MATCHED THEN UPDATE SET todo_count = t.todo_count + s.todo_count "
+                + "WHEN NOT MATCHED THEN INSERT (user_id, completed, level, todo_count) "
+                + "VALUES (s.user_id, s.completed, s.level, s.todo_count)";
+        entityManager.createNativeQuery(sql)
+            .setParameter("userId", userId)
+            .setParameter("completed", completed)
+            .setParameter("level", level.name())
+            .setParameter("delta", delta)
+            .executeUpdate();
+    }
+
+    @Override
+    public int rebuild() {
+        if (isPostgres()) {
+            // Blocks counter updates (not reads) until commit, so a todo written
+            // while the counts are recomputed is neither lost nor counted twice
+            entityManager.createNativeQuery("LOCK TABLE todo_summary IN EXCLUSIVE MODE").executeUpdate();
+        }
+        entityManager.createNativeQuery("DELETE FROM todo_summary").executeUpdate();
+        return entityManager.createNativeQuery(
+                "INSERT INTO todo_summary (user_id, completed, level, todo_count) "
+                    + "SELECT user_id, completed, level, COUNT(*) FROM todolist GROUP BY user_id, completed, level")
+            .executeUpdate();
+    }
+
+    private boolean isPostgres() {
+        return entityManager.getEntityManagerFactory()
+            .unwrap(SessionFactoryImplementor.class)
+            .getJdbcServices()
+            .getDialect() instanceof PostgreSQLDialect;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.todolist.repository;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Deletes the user with its todos, invoices, issued invoice ids and
+     * rollup rows using set-based statements, todos and invoices
+     * {@code chunkSize} rows at a time. Nothing is loaded into the
+     * persistence context, which is cleared afterwards. Must run in a
+     * transaction.
+     */
+    DeletedRows deleteWithDependents(Long userId, int chunkSize);
+
+    /**
+     * Deletes up to {@code limit} of the user's todos, leaving its summary
+     * rows alone. Must run in a transaction.
+     *
+     * @return the number deleted; fewer than {@code limit} once none are left
+     */
+    int deleteTodos(Long userId, int limit);
+
+    /**
+     * Deletes up to {@code limit} of the user's invoices and releases their
+     * invoice ids, leaving its revenue rows alone. Must run in a transaction.
+     *
+     * @return the number deleted; fewer than {@code limit} once none are left
+     */
+    int deleteInvoices(Long userId, int limit);
+
+    record DeletedRows(long todos, long invoices, int users) {
+    }
+}
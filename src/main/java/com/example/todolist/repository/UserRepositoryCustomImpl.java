@@ -0,0 +1,80 @@
+package com.example.todolist.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.List;
+
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public DeletedRows deleteWithDependents(Long userId, int chunkSize) {
+        // Pending changes reach the database before rows vanish under them
+        entityManager.flush();
+
+        entityManager.createNativeQuery("DELETE FROM todo_summary WHERE user_id = :userId")
+            .setParameter("userId", userId)
+            .executeUpdate();
+        long todos = 0;
+        int deleted;
+        do {
+            deleted = deleteTodos(userId, chunkSize);
+            todos += deleted;
+        } while (deleted == chunkSize);
+
+        entityManager.createNativeQuery("DELETE FROM invoice_daily_revenue WHERE user_id = :userId")
+            .setParameter("userId", userId)
+            .executeUpdate();
+        long invoices = 0;
+        do {
+            deleted = deleteInvoices(userId, chunkSize);
+            invoices += deleted;
+        } while (deleted == chunkSize);
+
+        int users = entityManager.createNativeQuery("DELETE FROM users WHERE id = :userId")
+            .setParameter("userId", userId)
+            .executeUpdate();
+
+        // Managed copies of the deleted rows would otherwise be flushed again
+        entityManager.clear();
+        return new DeletedRows(todos, invoices, users);
+    }
+
+    // Seeks on idx_todolist_user_created_at_id (0007), so the statement stays
+    // small however many todos the user has
+    @Override
+    public int deleteTodos(Long userId, int limit) {
+        return entityManager.createNativeQuery("DELETE FROM todolist"
+                + " WHERE user_id = :userId AND id IN ("
+                + "SELECT id FROM todolist WHERE user_id = :userId LIMIT :limit)")
+            .setParameter("userId", userId)
+            .setParameter("limit", limit)
+            .executeUpdate();
+    }
+
+    // Same seek on the user_id-leading invoices index (0010). Each chunk also
+    // releases its invoice ids (invoice_ids, 0019), which no foreign key ties
+    // to invoices
+    @Override
+    @SuppressWarnings("unchecked")
+    public int deleteInvoices(Long userId, int limit) {
+        List<Object[]> rows = entityManager.createNativeQuery(
+                "SELECT id, invoice_id FROM invoices WHERE user_id = :userId LIMIT :limit")
+            .setParameter("userId", userId)
+            .setParameter("limit", limit)
+            .getResultList();
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        entityManager.createNativeQuery("DELETE FROM invoice_ids WHERE invoice_id IN (:invoiceIds)")
+            .setParameter("invoiceIds", rows.stream().map(row -> row[1]).toList())
+            .executeUpdate();
+        return entityManager.createNativeQuery("DELETE FROM invoices WHERE user_id = :userId AND id IN (:ids)")
+            .setParameter("userId", userId)
+            .setParameter("ids", rows.stream().map(row -> row[0]).toList())
+            .executeUpdate();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.todolist.service;
+
+import com.example.todolist.model.Todo;
+import com.example.todolist.model.User;
+import com.example.todolist.repository.TodoRepository;
+import com.example.todolist.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes whole tables as newline-delimited JSON without materializing them.
+ * Rows are read through a server-side cursor and detached as soon as they are
+ * written, so memory use does not grow with the table size.
+ */
+@Service
+@Timed(value = "todolist.service", histogram = true)
+public class ExportService {
+    private final TodoRepository todoRepository;
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public ExportService(TodoRepository todoRepository, UserRepository userRepository,
+                         EntityManager entityManager, ObjectMapper objectMapper) {
+        this.todoRepository = todoRepository;
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public long exportTodos(OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<Todo> todos = todoRepository.streamAll()) {
+            for (Iterator<Todo> it = todos.iterator(); it.hasNext(); count++) {
+                Todo todo = it.next();
+                writeLine(out, todo);
+                entityManager.detach(todo);
+                entityManager.detach(todo.getUser());
+            }
+        }
+        out.flush();
+        return count;
+    }
+
+    @Transactional(readOnly = true)
+    public long exportUsers(OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<User> users = userRepository.streamAll()) {
+            for (Iterator<User> it = users.iterator(); it.hasNext(); count++) {
+                User user = it.next();
+                writeLine(out, user);
+                entityManager.detach(user);
+            }
+        }
+        out.flush();
+        return count;
+    }
+
+    private void writeLine(OutputStream out, Object row) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(row));
+        out.write('\n');
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.todolist.service;
+
+import com.example.todolist.config.IdempotencyProperties;
+import com.example.todolist.model.IdempotencyKey;
+import com.example.todolist.model.IdempotencyKeyId;
+import com.example.todolist.repository.IdempotencyKeyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Stores requests made with an {@code Idempotency-Key} and their responses.
+ * Each step commits in a short transaction of its own, so a claim is visible
+ * to duplicates before the request itself runs, and never waits for it.
+ */
+@Service
+public class IdempotencyService {
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final IdempotencyProperties properties;
+    private final TransactionTemplate requiresNew;
+
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository, IdempotencyProperties properties,
+                              PlatformTransactionManager transactionManager) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.properties = properties;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Claims the key for a request. Returns empty if the caller now holds it
+     * and should run the request, otherwise the live record already holding
+     * it: a completed response to replay, or a request still running.
+     */
+    public Optional<IdempotencyKey> claim(String scope, String key, String requestHash) {
+        IdempotencyKeyId id = new IdempotencyKeyId(scope, key);
+        Instant now = Instant.now();
+        // Second attempt only after removing an expired record
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                requiresNew.executeWithoutResult(status -> idempotencyKeyRepository.insert(
+                    scope, key, requestHash, now, now.plus(properties.pendingTimeout())));
+                return Optional.empty();
+            } catch (DataIntegrityViolationException e) {
+                Optional<IdempotencyKey> existing = requiresNew.execute(
+                    status -> idempotencyKeyRepository.find(scope, key));
+                if (existing.isPresent() && existing.get().getExpiresAt().isAfter(now)) {
+                    return existing;
+                }
+                requiresNew.executeWithoutResult(status -> idempotencyKeyRepository.deleteIfExpired(id, now));
+            }
+        }
+        throw new IllegalStateException("Idempotency-Key is already in use");
+    }
+
+    /**
+     * Records the response of a claimed request; it is replayed for
+     * {@code todolist.idempotency.ttl}.
+     */
+    public void complete(String scope, String key, int status, String contentType, String body) {
+        requiresNew.executeWithoutResult(tx -> idempotencyKeyRepository.complete(new IdempotencyKeyId(scope, key),
+            status, contentType, body, Instant.now().plus(properties.ttl())));
+    }
+
+    /**
+     * Gives up a claim, so the request can be retried with the same key.
+     */
+    public void release(String scope, String key) {
+        requiresNew.executeWithoutResult(status -> idempotencyKeyRepository.release(new IdempotencyKeyId(scope, key)));
+    }
+
+    @Transactional
+    public int deleteExpired() {
+        int deleted = idempotencyKeyRepository.deleteExpired(Instant.now());
+        logger.debug("Deleted {} expired idempotency keys", deleted);
+        return deleted;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.todolist.service;
+
+import com.example.todolist.config.InvoicePartitionProperties;
+import com.example.todolist.repository.InvoiceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Keeps the monthly partitions of {@code invoices} ahead of time and removes
+ * those past the retention window. Does nothing unless the table is
+ * partitioned, i.e. on PostgreSQL after changeset 0017.
+ */
+@Service
+public class InvoicePartitionService {
+    private static final Logger logger = LoggerFactory.getLogger(InvoicePartitionService.class);
+
+    private final InvoiceRepository invoiceRepository;
+    private final InvoicePartitionProperties properties;
+    private final Clock clock;
+
+    @Autowired
+    public InvoicePartitionService(InvoiceRepository invoiceRepository, InvoicePartitionProperties properties) {
+        this(invoiceRepository, properties, Clock.systemUTC());
+    }
+
+    InvoicePartitionService(InvoiceRepository invoiceRepository, InvoicePartitionProperties properties, Clock clock) {
+        this.invoiceRepository = invoiceRepository;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * Creates missing partitions from the current month to
+     * {@code premakeMonths} ahead, then removes the months that ended before
+     * the retention window. Each DDL statement locks {@code invoices}
+     * exclusively, so this only runs inside the maintenance window, and gives
+     * up (rolling back) if a lock is not granted within the lock timeout; the
+     * next run tries again.
+     */
+    @Transactional
+    public void maintain() {
+        if (!properties.inMaintenanceWindow(LocalTime.now(clock))) {
+            logger.warn("Skipping invoices partition maintenance outside its window {}-{} UTC",
+                properties.maintenanceWindowStart(), properties.maintenanceWindowEnd());
+            return;
+        }
+        if (!invoiceRepository.isPartitioned()) {
+            logger.debug("invoices is not partitioned; skipping partition maintenance");
+            return;
+        }
+        invoiceRepository.limitLockWait(properties.lockTimeout());
+        LocalDate today = LocalDate.now(clock);
+        List<YearMonth> existing = invoiceRepository.findPartitionMonths();
+
+        YearMonth current = YearMonth.from(today);
+        for (int i = 0; i <= properties.premakeMonths(); i++) {
+            YearMonth month = current.plusMonths(i);
+            if (!existing.contains(month)) {
+                invoiceRepository.createPartition(month);
+                logger.info("Created invoices partition for {}", month);
+            }
+        }
+
+        LocalDate retainedSince = properties.retainedSince(today);
+        if (retainedSince == null) {
+            return;
+        }
+        YearMonth oldestKept = YearMonth.from(retainedSince);
+        boolean drop = properties.retentionAction() == InvoicePartitionProperties.RetentionAction.DROP;
+        for (YearMonth month : existing) {
+            if (month.isBefore(oldestKept)) {
+                invoiceRepository.removePartition(month, drop);
+                logger.info("{} invoices partition for {}", drop ? "Dropped" : "Detached and archived", month);
+            }
+        }
+    }
+}
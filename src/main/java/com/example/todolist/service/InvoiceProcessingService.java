@@ -0,0 +1,149 @@
+package com.example.todolist.service;
+
+import com.example.todolist.config.InvoicePartitionProperties;
+import com.example.todolist.dto.InvoiceBacklog;
+import com.example.todolist.dto.InvoiceKey;
+import com.example.todolist.dto.InvoiceView;
+import com.example.todolist.model.Invoice;
+import com.example.todolist.model.InvoiceStatus;
+import com.example.todolist.repository.InvoiceRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The state changes behind {@code InvoiceWorker}, each in its own short
+ * transaction: claim a batch, start an invoice, record its outcome. Only the
+ * worker holding an invoice's claim can move it on, and every change is also
+ * version-checked, so an invoice reclaimed by another worker is never
+ * finished twice.
+ */
+@Service
+@Timed(value = "todolist.service", histogram = true)
+public class InvoiceProcessingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvoiceProcessingService.class);
+
+    // Claimed invoices; they go back to the pool once their lease expires
+    static final Set<InvoiceStatus> IN_FLIGHT = EnumSet.of(InvoiceStatus.REVIEWING, InvoiceStatus.PROCESSING);
+
+    private final InvoiceRepository invoiceRepository;
+    private final InvoiceRevenueService invoiceRevenueService;
+    private final InvoicePartitionProperties partitionProperties;
+
+    public InvoiceProcessingService(InvoiceRepository invoiceRepository, InvoiceRevenueService invoiceRevenueService,
+                                    InvoicePartitionProperties partitionProperties) {
+        this.invoiceRepository = invoiceRepository;
+        this.invoiceRevenueService = invoiceRevenueService;
+        this.partitionProperties = partitionProperties;
+    }
+
+    @Transactional(readOnly = true)
+    public InvoiceBacklog getBacklog() {
+        return invoiceRepository.findBacklog(InvoiceStatus.CREATED, retainedSince(Instant.now()));
+    }
+
+    /**
+     * Claims up to {@code limit} invoices for {@code workerId}: expired leases
+     * first, then {@code CREATED} invoices by level (HIGH first) and age. New
+     * claims move to {@code REVIEWING}. Rows other claimers hold are skipped,
+     * and the row locks are released when this transaction commits.
+     *
+     * @return keys of the claimed invoices
+     */
+    @Transactional
+    public List<InvoiceKey> claim(String workerId, int limit, Duration lease) {
+        Instant now = Instant.now();
+        Instant since = retainedSince(now);
+        List<Invoice> claimed = new ArrayList<>(
+            invoiceRepository.findExpiredLeases(IN_FLIGHT, since, now, PageRequest.of(0, limit)));
+        for (Invoice invoice : claimed) {
+            logger.warn("Reclaiming invoice {} from {}: lease expired at {}",
+                invoice.getInvoiceId(), invoice.getClaimedBy(), invoice.getLeaseExpiresAt());
+        }
+        if (claimed.size() < limit) {
+            claimed.addAll(invoiceRepository.findClaimable(InvoiceStatus.CREATED, since,
+                PageRequest.of(0, limit - claimed.size())));
+        }
+
+        InvoiceRevenueService.Delta revenue = new InvoiceRevenueService.Delta();
+        for (Invoice invoice : claimed) {
+            if (invoice.getStatus() == InvoiceStatus.CREATED) {
+                revenue.remove(invoice);
+                invoice.setStatus(InvoiceStatus.REVIEWING);
+                revenue.add(invoice);
+            }
+            invoice.setClaimedBy(workerId);
+            invoice.setLeaseExpiresAt(now.plus(lease));
+        }
+        invoiceRevenueService.apply(revenue);
+        return claimed.stream().map(invoice -> new InvoiceKey(invoice.getId(), invoice.getCreatedAt())).toList();
+    }
+
+    /**
+     * Moves a claimed invoice to {@code PROCESSING}. Empty if
+     * {@code workerId} no longer holds the claim.
+     */
+    @Transactional
+    public Optional<InvoiceView> start(InvoiceKey key, String workerId) {
+        return findClaimed(key, workerId)
+            .map(invoice -> {
+                // A reclaimed invoice may already be PROCESSING
+                if (invoice.getStatus() == InvoiceStatus.REVIEWING) {
+                    InvoiceRevenueService.Delta revenue = new InvoiceRevenueService.Delta().remove(invoice);
+                    invoice.setStatus(InvoiceStatus.PROCESSING);
+                    invoiceRevenueService.apply(revenue.add(invoice));
+                }
+                return InvoiceService.toView(invoiceRepository.saveAndFlush(invoice));
+            });
+    }
+
+    /**
+     * Records the processor's outcome and releases the claim. Returns false,
+     * changing nothing, if {@code workerId} no longer holds the claim.
+     */
+    @Transactional
+    public boolean finish(InvoiceKey key, String workerId, InvoiceStatus outcome) {
+        if (!InvoiceStatus.PROCESSING.canTransitionTo(outcome)) {
+            throw new IllegalArgumentException("Invoice processing cannot end in " + outcome);
+        }
+        return findClaimed(key, workerId)
+            .filter(invoice -> invoice.getStatus() == InvoiceStatus.PROCESSING)
+            .map(invoice -> {
+                InvoiceRevenueService.Delta revenue = new InvoiceRevenueService.Delta().remove(invoice);
+                invoice.setStatus(outcome);
+                invoiceRevenueService.apply(revenue.add(invoice));
+                invoice.setClaimedBy(null);
+                invoice.setLeaseExpiresAt(null);
+                invoiceRepository.saveAndFlush(invoice);
+                return true;
+            })
+            .orElse(false);
+    }
+
+    // Start of the partition retention window. Months before it are being
+    // retired, so the claim and backlog queries leave them out and PostgreSQL
+    // prunes their partitions instead of probing each one
+    private Instant retainedSince(Instant now) {
+        LocalDate since = partitionProperties.retainedSince(LocalDate.ofInstant(now, ZoneOffset.UTC));
+        return since == null ? Instant.EPOCH : since.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    private Optional<Invoice> findClaimed(InvoiceKey key, String workerId) {
+        return invoiceRepository.findByKey(key.id(), key.createdAt())
+            .filter(invoice -> workerId.equals(invoice.getClaimedBy()) && IN_FLIGHT.contains(invoice.getStatus()));
+    }
+}
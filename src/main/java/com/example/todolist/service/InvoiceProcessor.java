@@ -0,0 +1,19 @@
+package com.example.todolist.service;
+
+import com.example.todolist.dto.InvoiceView;
+import com.example.todolist.model.InvoiceStatus;
+
+/**
+ * Decides the outcome of an invoice the worker has moved to
+ * {@code PROCESSING}. Called outside any transaction. It can run more than
+ * once for the same invoice when a worker dies or overruns its lease, so it
+ * must be idempotent.
+ */
+@FunctionalInterface
+public interface InvoiceProcessor {
+
+    /**
+     * @return {@code COMPLETED} or {@code REJECTED}
+     */
+    InvoiceStatus process(InvoiceView invoice);
+}
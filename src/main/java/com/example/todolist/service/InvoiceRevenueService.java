@@ -0,0 +1,122 @@
+package com.example.todolist.service;
+
+import com.example.todolist.config.InvoicePartitionProperties;
+import com.example.todolist.dto.RevenueFilter;
+import com.example.todolist.dto.RevenueReportRow;
+import com.example.todolist.model.Invoice;
+import com.example.todolist.model.InvoiceRevenueId;
+import com.example.todolist.repository.InvoiceRevenueRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains the {@code invoice_daily_revenue} rollup and serves revenue
+ * reports from it. Writers collect the changes of one operation in a
+ * {@link Delta} and apply it in their own transaction, so the rollup commits
+ * or rolls back together with the invoices.
+ */
+@Service
+@Timed(value = "todolist.service", histogram = true)
+public class InvoiceRevenueService {
+    // Daily rows for longer ranges get large; use MONTH granularity instead
+    public static final int MAX_DAILY_REPORT_DAYS = 366;
+
+    private static final Logger logger = LoggerFactory.getLogger(InvoiceRevenueService.class);
+
+    private final InvoiceRevenueRepository invoiceRevenueRepository;
+    private final InvoicePartitionProperties partitionProperties;
+
+    public InvoiceRevenueService(InvoiceRevenueRepository invoiceRevenueRepository,
+                                 InvoicePartitionProperties partitionProperties) {
+        this.invoiceRevenueRepository = invoiceRevenueRepository;
+        this.partitionProperties = partitionProperties;
+    }
+
+    @Transactional(readOnly = true)
+    public List<RevenueReportRow> getReport(RevenueFilter filter) {
+        if (filter.from() == null || filter.to() == null || filter.from().isAfter(filter.to())) {
+            throw new IllegalArgumentException("from and to are required and from must not be after to");
+        }
+        if (filter.granularity() == RevenueFilter.Granularity.DAY
+                && ChronoUnit.DAYS.between(filter.from(), filter.to()) >= MAX_DAILY_REPORT_DAYS) {
+            throw new IllegalArgumentException("Daily reports are limited to " + MAX_DAILY_REPORT_DAYS
+                + " days; use granularity=MONTH");
+        }
+        return invoiceRevenueRepository.findReport(filter);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Delta delta) {
+        delta.totals().forEach((id, change) -> {
+            if (change.isZero()) {
+                return;
+            }
+            if (change.count() > 0) {
+                // A new day or a new status/level creates the row, also when
+                // several transactions get there at once
+                invoiceRevenueRepository.upsert(id, change.count(), change.amount());
+            } else if (invoiceRevenueRepository.increment(id.getCreatedOn(), id.getUserId(), id.getStatus(),
+                    id.getLevel(), change.count(), change.amount()) == 0) {
+                logger.warn("Missing invoice revenue row for {}; left for the next rebuild", id);
+            }
+        });
+    }
+
+    /**
+     * Recomputes the rollup from {@code invoices}. Days before the invoice
+     * retention window are kept as they are, since their invoices may
+     * already have been removed with their partition.
+     */
+    @Transactional
+    public int rebuild() {
+        LocalDate since = partitionProperties.retainedSince(LocalDate.now(ZoneOffset.UTC));
+        int rows = invoiceRevenueRepository.rebuild(since);
+        logger.info("Rebuilt invoice revenue rollup since {}: {} rows", since == null ? "the start" : since, rows);
+        return rows;
+    }
+
+    /**
+     * Net rollup changes of one operation. Call {@link #remove} with an
+     * invoice's state before a change and {@link #add} after it. Rows are
+     * updated in {@link InvoiceRevenueId#LOCK_ORDER} to avoid deadlocks.
+     */
+    public static final class Delta {
+        private final Map<InvoiceRevenueId, Totals> totals = new TreeMap<>(InvoiceRevenueId.LOCK_ORDER);
+
+        public Delta add(Invoice invoice) {
+            totals.merge(InvoiceRevenueId.of(invoice), new Totals(1, invoice.getAmount()), Totals::plus);
+            return this;
+        }
+
+        public Delta remove(Invoice invoice) {
+            totals.merge(InvoiceRevenueId.of(invoice), new Totals(-1, invoice.getAmount().negate()), Totals::plus);
+            return this;
+        }
+
+        Map<InvoiceRevenueId, Totals> totals() {
+            return totals;
+        }
+    }
+
+    record Totals(long count, BigDecimal amount) {
+        Totals plus(Totals other) {
+            return new Totals(count + other.count, amount.add(other.amount));
+        }
+
+        boolean isZero() {
+            return count == 0 && amount.signum() == 0;
+        }
+    }
+}
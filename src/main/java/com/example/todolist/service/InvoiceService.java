@@ -0,0 +1,164 @@
+package com.example.todolist.service;
+
+import com.example.todolist.dto.CursorPage;
+import com.example.todolist.dto.InvoiceFilter;
+import com.example.todolist.dto.InvoiceTransition;
+import com.example.todolist.dto.InvoiceView;
+import com.example.todolist.dto.KeysetCursor;
+import com.example.todolist.model.Invoice;
+import com.example.todolist.model.InvoiceStatus;
+import com.example.todolist.repository.InvoiceRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@Timed(value = "todolist.service", histogram = true)
+public class InvoiceService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final InvoiceRepository invoiceRepository;
+    private final UserService userService;
+    private final InvoiceRevenueService invoiceRevenueService;
+
+    public InvoiceService(InvoiceRepository invoiceRepository, UserService userService,
+                          InvoiceRevenueService invoiceRevenueService) {
+        this.invoiceRepository = invoiceRepository;
+        this.userService = userService;
+        this.invoiceRevenueService = invoiceRevenueService;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<InvoiceView> getInvoices(InvoiceFilter filter, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (filter.createdFrom() != null && filter.createdTo() != null
+                && !filter.createdFrom().isBefore(filter.createdTo())) {
+            throw new IllegalArgumentException("createdFrom must be before createdTo");
+        }
+        KeysetCursor after = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+
+        List<InvoiceView> rows = invoiceRepository.findPage(filter, after, pageSize + 1);
+        return CursorPage.of(rows, pageSize, last -> new KeysetCursor(last.updatedAt(), last.id()));
+    }
+
+    @Transactional(readOnly = true)
+    public InvoiceView getInvoice(UUID invoiceId) {
+        return toView(findInvoice(invoiceId));
+    }
+
+    @Transactional
+    public InvoiceView createInvoice(Invoice request) {
+        if (request.getUser() == null || request.getUser().getId() == null) {
+            throw new IllegalArgumentException("User is required");
+        }
+        Long userId = request.getUser().getId();
+        userService.getUserById(userId);
+
+        // Status, version and timestamps are never taken from the request
+        Invoice invoice = new Invoice(
+            request.getInvoiceId() == null ? UUID.randomUUID() : request.getInvoiceId(),
+            validAmount(request.getAmount()),
+            userService.getReference(userId));
+        if (request.getLevel() != null) {
+            invoice.setLevel(request.getLevel());
+        }
+        // On PostgreSQL invoices are partitioned by month and only enforce
+        // invoice_id uniqueness within a month; invoice_ids enforces it
+        // across months, and a concurrent create of the same id waits here
+        if (!invoiceRepository.registerInvoiceId(invoice.getInvoiceId(), invoice.getCreatedAt())) {
+            throw new IllegalStateException("Invoice already exists with id: " + invoice.getInvoiceId());
+        }
+        Invoice saved = invoiceRepository.save(invoice);
+        invoiceRevenueService.apply(new InvoiceRevenueService.Delta().add(saved));
+        return toView(saved);
+    }
+
+    /**
+     * Changes amount and level. Only allowed while the invoice is still
+     * {@code CREATED}; once review starts the amount is fixed.
+     */
+    @Transactional
+    public InvoiceView updateInvoice(UUID invoiceId, Invoice request) {
+        Invoice invoice = findInvoice(invoiceId);
+        requireVersion(invoice, request.getVersion());
+        if (invoice.getStatus() != InvoiceStatus.CREATED) {
+            throw new IllegalStateException("Invoice " + invoiceId + " can no longer be changed in status " + invoice.getStatus());
+        }
+        InvoiceRevenueService.Delta revenue = new InvoiceRevenueService.Delta().remove(invoice);
+        invoice.setAmount(validAmount(request.getAmount()));
+        if (request.getLevel() != null) {
+            invoice.setLevel(request.getLevel());
+        }
+        invoiceRevenueService.apply(revenue.add(invoice));
+        // Flushed as UPDATE ... WHERE id = ? AND version = ?; a concurrent
+        // change makes it fail with an optimistic locking exception (409)
+        return toView(invoiceRepository.saveAndFlush(invoice));
+    }
+
+    @Transactional
+    public InvoiceView transition(UUID invoiceId, InvoiceTransition transition) {
+        if (transition.status() == null) {
+            throw new IllegalArgumentException("Status is required");
+        }
+        Invoice invoice = findInvoice(invoiceId);
+        requireVersion(invoice, transition.version());
+        if (!invoice.getStatus().canTransitionTo(transition.status())) {
+            throw new IllegalStateException("Invoice " + invoiceId + " cannot move from "
+                + invoice.getStatus() + " to " + transition.status());
+        }
+        InvoiceRevenueService.Delta revenue = new InvoiceRevenueService.Delta().remove(invoice);
+        invoice.setStatus(transition.status());
+        invoiceRevenueService.apply(revenue.add(invoice));
+        return toView(invoiceRepository.saveAndFlush(invoice));
+    }
+
+    @Transactional
+    public void deleteInvoice(UUID invoiceId) {
+        Invoice invoice = findInvoice(invoiceId);
+        invoiceRepository.delete(invoice);
+        invoiceRepository.releaseInvoiceId(invoiceId);
+        invoiceRevenueService.apply(new InvoiceRevenueService.Delta().remove(invoice));
+    }
+
+    private Invoice findInvoice(UUID invoiceId) {
+        return invoiceRepository.findByInvoiceId(invoiceId)
+            .orElseThrow(() -> new RuntimeException("Invoice not found with id: " + invoiceId));
+    }
+
+    // The version the client read is checked up front so a stale request is
+    // rejected even when nothing else is writing at the same moment
+    private void requireVersion(Invoice invoice, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(invoice.getVersion())) {
+            throw new IllegalStateException("Invoice " + invoice.getInvoiceId() + " was modified: expected version "
+                + expectedVersion + " but is " + invoice.getVersion());
+        }
+    }
+
+    private BigDecimal validAmount(BigDecimal amount) {
+        if (amount == null || amount.signum() < 0) {
+            throw new IllegalArgumentException("Amount must be zero or positive");
+        }
+        return amount;
+    }
+
+    static InvoiceView toView(Invoice invoice) {
+        return new InvoiceView(
+            invoice.getId(),
+            invoice.getInvoiceId(),
+            invoice.getAmount(),
+            invoice.getStatus(),
+            invoice.getLevel(),
+            invoice.getUser().getId(),
+            invoice.getVersion(),
+            invoice.getCreatedAt(),
+            invoice.getUpdatedAt());
+    }
+}
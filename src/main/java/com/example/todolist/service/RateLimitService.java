@@ -0,0 +1,85 @@
+package com.example.todolist.service;
+
+import com.example.todolist.config.RateLimitProperties;
+import com.example.todolist.model.Role;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client and global write limits. Buckets live in a bounded Caffeine
+ * cache, which stripes its locks; a client idle for
+ * {@code todolist.rate-limit.idle-timeout} starts again with a full bucket.
+ */
+@Service
+public class RateLimitService {
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoClock;
+    private final Cache<String, TokenBucket> buckets;
+    private final TokenBucket global;
+
+    @Autowired
+    public RateLimitService(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    RateLimitService(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(properties.maximumBuckets())
+            .expireAfterAccess(properties.idleTimeout())
+            .recordStats()
+            .build();
+        this.global = new TokenBucket(properties.global(), nanoClock.getAsLong());
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "rateLimit.buckets");
+    }
+
+    /**
+     * Takes one write from the bucket of a remote address. Checked before the
+     * caller is identified, so requests over it cost no user lookup. Returns
+     * {@link Duration#ZERO} if the write may proceed, otherwise how long the
+     * client should wait before retrying.
+     */
+    public Duration tryAcquireAddress(String address) {
+        long now = nanoClock.getAsLong();
+        TokenBucket bucket = buckets.get("address:" + address,
+            key -> new TokenBucket(properties.address(), now));
+        long wait = bucket.tryAcquire(now);
+        return wait > 0 ? rejected("address", wait) : Duration.ZERO;
+    }
+
+    /**
+     * Takes one write from the client's bucket and then from the global one.
+     * Returns {@link Duration#ZERO} if the write may proceed, otherwise how
+     * long the client should wait before retrying.
+     */
+    public Duration tryAcquire(String client, Role role) {
+        long now = nanoClock.getAsLong();
+        // The role is part of the key so a role change takes effect at once
+        TokenBucket bucket = buckets.get(role + ":" + client,
+            key -> new TokenBucket(properties.limitFor(role), now));
+        long wait = bucket.tryAcquire(now);
+        if (wait > 0) {
+            return rejected(role.name(), wait);
+        }
+        wait = global.tryAcquire(now);
+        if (wait > 0) {
+            return rejected("global", wait);
+        }
+        return Duration.ZERO;
+    }
+
+    private Duration rejected(String scope, long waitNanos) {
+        meterRegistry.counter("todolist.rate-limit.rejected", "scope", scope).increment();
+        return Duration.ofNanos(waitNanos);
+    }
+}
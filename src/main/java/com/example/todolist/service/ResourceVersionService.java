@@ -0,0 +1,86 @@
+package com.example.todolist.service;
+
+import com.example.todolist.repository.ResourceVersionRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.TreeSet;
+
+/**
+ * Collection-level change counters backing the ETags of the user listing and
+ * of each user's todo listing.
+ * <p>
+ * A write bumps the counter in its own transaction, so the new ETag commits
+ * or rolls back together with the change: a failed bump fails the write,
+ * and no crash can leave a committed change behind an old ETag. The counter
+ * row then stays locked until the writing transaction ends, so all writes
+ * of one resource take turns on that single row. That suits users, which
+ * change rarely. Todos are counted per user, so a todo write only waits on
+ * writes to the same user's todos, as it already does on their summary row.
+ */
+@Service
+public class ResourceVersionService {
+    public static final String USERS = "users";
+    private static final String TODOS_OF = "todos:";
+
+    private final ResourceVersionRepository resourceVersionRepository;
+
+    public ResourceVersionService(ResourceVersionRepository resourceVersionRepository) {
+        this.resourceVersionRepository = resourceVersionRepository;
+    }
+
+    /**
+     * The counter of one user's todos, seeded when the user is created.
+     */
+    public static String todosOf(Long userId) {
+        return TODOS_OF + userId;
+    }
+
+    // Read-only so that, with a read replica, the ETag comes from the same
+    // database as the listing it describes
+    @Transactional(readOnly = true)
+    public long currentVersion(String resource) {
+        return resourceVersionRepository.findVersion(resource).orElse(0L);
+    }
+
+    /**
+     * Bumps the counter as part of the caller's transaction, or in one of its
+     * own when there is none.
+     */
+    @Transactional
+    public void markChanged(String resource) {
+        // Rows are seeded by the 0012 and 0022 migrations and on user
+        // creation; the insert only runs on schemas created without them,
+        // such as the tests'
+        if (resourceVersionRepository.increment(resource) == 0) {
+            resourceVersionRepository.insert(resource, 1L);
+        }
+    }
+
+    /**
+     * Bumps several counters, always in the same order so that two writes
+     * touching the same counters cannot deadlock on them.
+     */
+    @Transactional
+    public void markChanged(Collection<String> resources) {
+        new TreeSet<>(resources).forEach(this::markChanged);
+    }
+
+    /**
+     * Adds a counter at version 0, so later writes only ever increment it.
+     */
+    @Transactional
+    public void create(String resource) {
+        resourceVersionRepository.insert(resource, 0L);
+    }
+
+    /**
+     * Drops a counter whose collection no longer exists. Reads then see
+     * version 0 again, which no client holding a later ETag will match.
+     */
+    @Transactional
+    public void delete(String resource) {
+        resourceVersionRepository.delete(resource);
+    }
+}
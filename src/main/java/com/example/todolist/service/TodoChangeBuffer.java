@@ -0,0 +1,149 @@
+package com.example.todolist.service;
+
+import com.example.todolist.dto.TodoChange;
+import io.micrometer.core.instrument.Counter;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Events waiting to be sent to one stream subscriber. Changes to a todo that
+ * is already pending replace the earlier change, so a slow client only gets
+ * each todo's latest state. Once more than {@code capacity} todos are
+ * pending they are all dropped and the client is told to resync instead.
+ * <p>
+ * Publishers never wait on the client: {@code offer} only touches memory and
+ * reports whether the caller must start a drain, which then calls
+ * {@link #take()} until it returns {@code null}. At most one drain runs at a
+ * time, so events go out in order.
+ */
+final class TodoChangeBuffer {
+
+    record Event(long id, TodoChange change) {
+    }
+
+    /**
+     * What to send next: a resync marker first if set, then the pending
+     * changes, or a heartbeat comment when there is nothing else.
+     */
+    record Batch(Long resyncId, List<Event> events, boolean heartbeat) {
+    }
+
+    private final int capacity;
+    private final Counter coalesced;
+    private final Counter resyncs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // By todo id, in order of each todo's latest change
+    private final LinkedHashMap<Long, Event> pending = new LinkedHashMap<>();
+    private Long resyncId;
+    private boolean heartbeat;
+    private boolean draining;
+    private boolean closed;
+
+    TodoChangeBuffer(int capacity, Counter coalesced, Counter resyncs) {
+        this.capacity = capacity;
+        this.coalesced = coalesced;
+        this.resyncs = resyncs;
+    }
+
+    /**
+     * @return whether the caller must start a drain
+     */
+    boolean offer(Event event) {
+        lock.lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            if (pending.remove(event.change().id()) != null) {
+                coalesced.increment();
+            }
+            if (pending.size() >= capacity) {
+                pending.clear();
+                markResync(event.id());
+            } else {
+                pending.put(event.change().id(), event);
+            }
+            return startDrain();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops anything pending and asks the client to reload as of {@code eventId}.
+     */
+    boolean resync(long eventId) {
+        lock.lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            pending.clear();
+            markResync(eventId);
+            return startDrain();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean heartbeat() {
+        lock.lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            heartbeat = true;
+            return startDrain();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes everything pending, or returns {@code null} and ends the drain
+     * when there is nothing left.
+     */
+    Batch take() {
+        lock.lock();
+        try {
+            if (closed || (resyncId == null && pending.isEmpty() && !heartbeat)) {
+                draining = false;
+                return null;
+            }
+            Batch batch = new Batch(resyncId, List.copyOf(pending.values()),
+                heartbeat && resyncId == null && pending.isEmpty());
+            resyncId = null;
+            pending.clear();
+            heartbeat = false;
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            pending.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void markResync(long eventId) {
+        resyncId = eventId;
+        resyncs.increment();
+    }
+
+    private boolean startDrain() {
+        if (draining) {
+            return false;
+        }
+        draining = true;
+        return true;
+    }
+}
@@ -1,57 +1,313 @@
 package com.example.todolist.service;
 
+import com.example.todolist.dto.BatchItemResult;
+import com.example.todolist.dto.CursorPage;
+import com.example.todolist.dto.KeysetCursor;
+import com.example.todolist.dto.OffsetCursor;
+import com.example.todolist.dto.TodoChange;
+import com.example.todolist.dto.TodoFilter;
+import com.example.todolist.dto.TodoKey;
+import com.example.todolist.dto.TodoSearchHit;
+import com.example.todolist.dto.TodoView;
+import com.example.todolist.dto.UserSnapshot;
 import com.example.todolist.model.Todo;
+import com.example.todolist.model.TodoSummaryId;
+import com.example.todolist.model.User;
 import com.example.todolist.repository.TodoRepository;
-import com.example.todolist.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "todolist.service", histogram = true)
 public class TodoService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final int MAX_BATCH_SIZE = 1000;
+    public static final int MAX_QUERY_LENGTH = 200;
+    // Ranked results are paged by offset; deeper pages would re-rank ever more rows
+    public static final int MAX_SEARCH_RESULTS = 1000;
+
     private final TodoRepository todoRepository;
-    private final UserRepository userRepository;
+    private final UserService userService;
+    private final TodoSummaryService todoSummaryService;
+    private final ResourceVersionService resourceVersionService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public TodoService(TodoRepository todoRepository, UserRepository userRepository) {
+    public TodoService(TodoRepository todoRepository, UserService userService,
+                       TodoSummaryService todoSummaryService, ResourceVersionService resourceVersionService,
+                       ApplicationEventPublisher eventPublisher) {
         this.todoRepository = todoRepository;
-        this.userRepository = userRepository;
+        this.userService = userService;
+        this.todoSummaryService = todoSummaryService;
+        this.resourceVersionService = resourceVersionService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Changes whenever one of the user's todos is created, updated, moved or
+     * deleted, or the user is renamed; the ETag of the user's todo listing.
+     */
+    public long getTodosVersion(Long userId) {
+        return resourceVersionService.currentVersion(ResourceVersionService.todosOf(userId));
     }
 
-    public List<Todo> getAllTodos() {
-        return todoRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPage<TodoView> getTodos(TodoFilter filter, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        KeysetCursor after = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+
+        // Fetch one extra row to know whether another page exists
+        List<TodoView> rows = todoRepository.findPage(filter, after, pageSize + 1);
+        return CursorPage.of(rows, pageSize, last -> new KeysetCursor(last.createdAt(), last.id()));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<TodoSearchHit> searchTodos(String query, Long userId, String cursor, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("q is required");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("q must not exceed " + MAX_QUERY_LENGTH + " characters");
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        int offset = cursor == null || cursor.isBlank() ? 0 : OffsetCursor.decode(cursor).offset();
+        if (offset >= MAX_SEARCH_RESULTS) {
+            return new CursorPage<>(List.of(), null);
+        }
+        pageSize = Math.min(pageSize, MAX_SEARCH_RESULTS - offset);
+
+        List<TodoSearchHit> rows = todoRepository.search(query.strip(), userId, offset, pageSize + 1);
+        if (rows.size() <= pageSize || offset + pageSize >= MAX_SEARCH_RESULTS) {
+            return new CursorPage<>(rows.subList(0, Math.min(rows.size(), pageSize)), null);
+        }
+        return new CursorPage<>(rows.subList(0, pageSize), new OffsetCursor(offset + pageSize).encode());
     }
 
+    @Transactional
     public Todo createTodo(Todo todo) {
         // Validate user exists
         if (todo.getUser() == null || todo.getUser().getId() == null) {
             throw new RuntimeException("User is required");
         }
 
-        userRepository.findById(todo.getUser().getId())
-            .orElseThrow(() -> new RuntimeException("User not found with id: " + todo.getUser().getId()));
+        // The request only carries the user's id. Checked against the user
+        // cache, then replaced by a reference, since Hibernate would treat the
+        // id-only stub as a detached entity
+        Long userId = todo.getUser().getId();
+        userService.getUserById(userId);
+        todo.setUser(userService.getReference(userId));
 
-        return todoRepository.save(todo);
+        todo.setVersion(null);
+        Todo saved = todoRepository.save(todo);
+        todoSummaryService.apply(new TodoSummaryService.Delta().add(TodoSummaryId.of(saved)));
+        resourceVersionService.markChanged(ResourceVersionService.todosOf(saved.getUser().getId()));
+        eventPublisher.publishEvent(TodoChange.created(saved));
+        return saved;
     }
 
+    @Transactional
     public Todo updateTodo(Long id, Todo updatedTodo) {
         return todoRepository.findById(id)
             .map(todo -> {
+                TodoSummaryId before = TodoSummaryId.of(todo);
                 todo.setTitle(updatedTodo.getTitle());
                 todo.setDescription(updatedTodo.getDescription());
                 todo.setCompleted(updatedTodo.isCompleted());
 
                 // Validate and update user if provided
                 if (updatedTodo.getUser() != null && updatedTodo.getUser().getId() != null) {
-                    userRepository.findById(updatedTodo.getUser().getId())
-                        .orElseThrow(() -> new RuntimeException("User not found with id: " + updatedTodo.getUser().getId()));
-                    todo.setUser(updatedTodo.getUser());
+                    Long userId = updatedTodo.getUser().getId();
+                    userService.getUserById(userId);
+                    todo.setUser(userService.getReference(userId));
                 }
 
-                return todoRepository.save(todo);
+                Todo saved = todoRepository.save(todo);
+                todoSummaryService.apply(new TodoSummaryService.Delta()
+                    .remove(before)
+                    .add(TodoSummaryId.of(saved)));
+                resourceVersionService.markChanged(List.of(
+                    ResourceVersionService.todosOf(before.getUserId()),
+                    ResourceVersionService.todosOf(saved.getUser().getId())));
+                publishUpdate(saved, before.getUserId());
+                return saved;
             })
             .orElseThrow(() -> new RuntimeException("Todo not found"));
     }
 
+    @Transactional
     public void deleteTodo(Long id) {
-        todoRepository.deleteById(id);
+        // Loaded first (instead of deleteById) to know which counter to decrement
+        todoRepository.findById(id).ifPresent(todo -> {
+            todoRepository.delete(todo);
+            todoSummaryService.apply(new TodoSummaryService.Delta().remove(TodoSummaryId.of(todo)));
+            resourceVersionService.markChanged(ResourceVersionService.todosOf(todo.getUser().getId()));
+            eventPublisher.publishEvent(TodoChange.deleted(todo.getId(), todo.getUser().getId()));
+        });
+    }
+
+    @Transactional
+    public List<BatchItemResult> createTodos(List<Todo> todos) {
+        requireBatchSize(todos.size());
+        Map<Long, UserSnapshot> users = findUsers(todos);
+
+        List<BatchItemResult> results = new ArrayList<>(todos.size());
+        TodoSummaryService.Delta summary = new TodoSummaryService.Delta();
+        Set<String> listings = new HashSet<>();
+        for (int i = 0; i < todos.size(); i++) {
+            Todo todo = todos.get(i);
+            String error = validate(todo, users, true);
+            if (error != null) {
+                results.add(BatchItemResult.failed(i, null, error));
+                continue;
+            }
+            todo.setId(null);
+            todo.setVersion(null);
+            todo.setUser(userService.getReference(todo.getUser().getId()));
+
+            // The id comes from the pooled sequence at persist time; the INSERTs
+            // themselves are sent as JDBC batches when the transaction flushes
+            Todo saved = todoRepository.save(todo);
+            summary.add(TodoSummaryId.of(saved));
+            listings.add(ResourceVersionService.todosOf(saved.getUser().getId()));
+            eventPublisher.publishEvent(TodoChange.created(saved));
+            results.add(BatchItemResult.success(i, saved.getId(), BatchItemResult.Status.CREATED));
+        }
+        // One UPDATE per touched counter rather than per todo
+        todoSummaryService.apply(summary);
+        resourceVersionService.markChanged(listings);
+        return results;
+    }
+
+    @Transactional
+    public List<BatchItemResult> updateTodos(List<Todo> updates) {
+        requireBatchSize(updates.size());
+        Map<Long, UserSnapshot> users = findUsers(updates);
+        Map<Long, Todo> existing = todoRepository.findAllById(updates.stream()
+                .map(Todo::getId)
+                .filter(Objects::nonNull)
+                .toList())
+            .stream()
+            .collect(Collectors.toMap(Todo::getId, Function.identity()));
+
+        List<BatchItemResult> results = new ArrayList<>(updates.size());
+        TodoSummaryService.Delta summary = new TodoSummaryService.Delta();
+        Set<String> listings = new HashSet<>();
+        for (int i = 0; i < updates.size(); i++) {
+            Todo update = updates.get(i);
+            Todo todo = update.getId() == null ? null : existing.get(update.getId());
+            if (todo == null) {
+                results.add(BatchItemResult.failed(i, update.getId(), "Todo not found"));
+                continue;
+            }
+            String error = validate(update, users, false);
+            if (error != null) {
+                results.add(BatchItemResult.failed(i, update.getId(), error));
+                continue;
+            }
+
+            Long previousUserId = todo.getUser().getId();
+            summary.remove(TodoSummaryId.of(todo));
+            todo.setTitle(update.getTitle());
+            todo.setDescription(update.getDescription());
+            todo.setCompleted(update.isCompleted());
+            if (update.getUser() != null && update.getUser().getId() != null) {
+                todo.setUser(userService.getReference(update.getUser().getId()));
+            }
+            summary.add(TodoSummaryId.of(todo));
+            listings.add(ResourceVersionService.todosOf(previousUserId));
+            listings.add(ResourceVersionService.todosOf(todo.getUser().getId()));
+            publishUpdate(todo, previousUserId);
+            results.add(BatchItemResult.success(i, todo.getId(), BatchItemResult.Status.UPDATED));
+        }
+        todoSummaryService.apply(summary);
+        resourceVersionService.markChanged(listings);
+        // Dirty checking issues the UPDATEs as one batch on commit
+        return results;
+    }
+
+    @Transactional
+    public List<BatchItemResult> deleteTodos(List<Long> ids) {
+        requireBatchSize(ids.size());
+        Map<Long, TodoKey> existing = todoRepository.findKeys(ids.stream().filter(Objects::nonNull).toList())
+            .stream()
+            .collect(Collectors.toMap(TodoKey::id, Function.identity()));
+
+        List<BatchItemResult> results = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            results.add(existing.containsKey(id)
+                ? BatchItemResult.success(i, id, BatchItemResult.Status.DELETED)
+                : BatchItemResult.failed(i, id, "Todo not found"));
+        }
+        if (!existing.isEmpty()) {
+            todoRepository.deleteAllByIdInBatch(existing.keySet());
+            TodoSummaryService.Delta summary = new TodoSummaryService.Delta();
+            Set<String> listings = new HashSet<>();
+            existing.values().forEach(key -> {
+                summary.remove(key.summaryId());
+                listings.add(ResourceVersionService.todosOf(key.userId()));
+                eventPublisher.publishEvent(TodoChange.deleted(key.id(), key.userId()));
+            });
+            todoSummaryService.apply(summary);
+            resourceVersionService.markChanged(listings);
+        }
+        return results;
+    }
+
+    // Delivered to todo streams after commit. A todo moved to another user is
+    // a delete for the old owner and a create for the new one
+    private void publishUpdate(Todo todo, Long previousUserId) {
+        if (Objects.equals(previousUserId, todo.getUser().getId())) {
+            eventPublisher.publishEvent(TodoChange.updated(todo));
+        } else {
+            eventPublisher.publishEvent(TodoChange.deleted(todo.getId(), previousUserId));
+            eventPublisher.publishEvent(TodoChange.created(todo));
+        }
+    }
+
+    private void requireBatchSize(int size) {
+        if (size > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch size must not exceed " + MAX_BATCH_SIZE);
+        }
+    }
+
+    private Map<Long, UserSnapshot> findUsers(List<Todo> todos) {
+        Set<Long> userIds = todos.stream()
+            .map(Todo::getUser)
+            .filter(Objects::nonNull)
+            .map(User::getId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        return userIds.isEmpty() ? Map.of() : userService.getUsersByIds(userIds);
+    }
+
+    private String validate(Todo todo, Map<Long, UserSnapshot> users, boolean userRequired) {
+        if (todo.getTitle() == null) {
+            return "Title is required";
+        }
+        if (todo.getUser() == null || todo.getUser().getId() == null) {
+            return userRequired ? "User is required" : null;
+        }
+        if (!users.containsKey(todo.getUser().getId())) {
+            return "User not found with id: " + todo.getUser().getId();
+        }
+        return null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,200 @@
+package com.example.todolist.service;
+
+import com.example.todolist.config.TodoStreamProperties;
+import com.example.todolist.dto.TodoChange;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fans committed todo changes out to Server-Sent Event streams, one per open
+ * {@code /api/users/{id}/todos/stream} request. An idle stream holds no
+ * thread; each subscriber's {@link TodoChangeBuffer} is drained on a sender
+ * thread only while it has something to send.
+ * <p>
+ * Senders are a fixed pool of {@code todolist.todo-stream.sender-threads}
+ * platform threads, not virtual threads: {@code SseEmitter.send} is
+ * {@code synchronized} in Spring 6.0, so a blocking write to a slow client
+ * would pin a carrier thread and, with enough slow clients, stall virtual
+ * thread request handling. The cost is that once every sender is blocked on
+ * a slow client, other streams wait for one to free up. Their changes keep
+ * coalescing in their buffers meanwhile, and overflow into a resync.
+ * <p>
+ * Changes are only seen by the instance that committed them. With several
+ * instances, clients must stick to one or will miss other instances' writes.
+ */
+@Service
+public class TodoStreamService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoStreamService.class);
+
+    private final TodoStreamProperties properties;
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService senders;
+    private final Counter coalesced;
+    private final Counter resyncs;
+
+    // The most recent changes, by event id, for Last-Event-ID replay. Ids
+    // start at the boot time in microseconds, so they keep increasing across
+    // restarts and an id from before a restart is recognized as too old.
+    private final ReentrantLock ringLock = new ReentrantLock();
+    private final TodoChangeBuffer.Event[] ring;
+    private final long firstId = System.currentTimeMillis() * 1000;
+    private long nextId = firstId;
+
+    public TodoStreamService(TodoStreamProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        // Unbounded queue, but each subscriber has at most one drain pending
+        this.senders = Executors.newFixedThreadPool(properties.senderThreads(),
+            Thread.ofPlatform().name("todo-stream-", 0).daemon().factory());
+        this.ring = new TodoChangeBuffer.Event[properties.replaySize()];
+        this.coalesced = meterRegistry.counter("todolist.todo.stream.coalesced");
+        this.resyncs = meterRegistry.counter("todolist.todo.stream.resyncs");
+        meterRegistry.gauge("todolist.todo.stream.subscribers", subscribers,
+            map -> map.values().stream().mapToInt(Set::size).sum());
+    }
+
+    /**
+     * Opens a stream of the user's todo changes. With {@code lastEventId},
+     * changes after it are replayed first; if they are no longer retained the
+     * stream starts with a {@code resync} event instead.
+     */
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(properties.timeout().toMillis());
+        Subscriber subscriber = new Subscriber(userId, emitter,
+            new TodoChangeBuffer(properties.bufferSize(), coalesced, resyncs));
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(subscriber));
+        // Starts with a comment that sends the response headers right away.
+        // This claims the first drain, so replayed events go out with it
+        boolean startDrain = subscriber.buffer().heartbeat();
+
+        // Registered under the ring lock, so no change falls between the
+        // replay and the live events or is sent twice
+        ringLock.lock();
+        try {
+            subscribers.compute(userId, (id, set) -> {
+                Set<Subscriber> users = set == null ? ConcurrentHashMap.newKeySet() : set;
+                users.add(subscriber);
+                return users;
+            });
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+        } finally {
+            ringLock.unlock();
+        }
+        schedule(subscriber, startDrain);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(TodoChange change) {
+        ringLock.lock();
+        try {
+            TodoChangeBuffer.Event event = new TodoChangeBuffer.Event(nextId++, change);
+            ring[slot(event.id())] = event;
+            Set<Subscriber> targets = subscribers.get(change.userId());
+            if (targets != null) {
+                for (Subscriber subscriber : targets) {
+                    schedule(subscriber, subscriber.buffer().offer(event));
+                }
+            }
+        } finally {
+            ringLock.unlock();
+        }
+    }
+
+    // Keeps idle connections open through proxies and detects closed ones
+    @Scheduled(fixedDelayString = "${todolist.todo-stream.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        subscribers.values().forEach(set -> set.forEach(s -> schedule(s, s.buffer().heartbeat())));
+    }
+
+    private void replay(Subscriber subscriber, long lastEventId) {
+        long oldest = Math.max(firstId, nextId - ring.length);
+        if (lastEventId < oldest - 1 || lastEventId >= nextId) {
+            // Older than what is retained, or not from this instance
+            subscriber.buffer().resync(nextId - 1);
+            return;
+        }
+        for (long id = lastEventId + 1; id < nextId; id++) {
+            TodoChangeBuffer.Event event = ring[slot(id)];
+            if (event.change().userId().equals(subscriber.userId())) {
+                subscriber.buffer().offer(event);
+            }
+        }
+    }
+
+    private int slot(long id) {
+        return (int) Math.floorMod(id, (long) ring.length);
+    }
+
+    private void schedule(Subscriber subscriber, boolean startDrain) {
+        if (startDrain) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        SseEmitter emitter = subscriber.emitter();
+        TodoChangeBuffer.Batch batch;
+        while ((batch = subscriber.buffer().take()) != null) {
+            try {
+                if (batch.resyncId() != null) {
+                    emitter.send(SseEmitter.event()
+                        .id(String.valueOf(batch.resyncId()))
+                        .name("resync")
+                        .data("resync"));
+                }
+                for (TodoChangeBuffer.Event event : batch.events()) {
+                    emitter.send(SseEmitter.event()
+                        .id(String.valueOf(event.id()))
+                        .name(event.change().type().name().toLowerCase())
+                        .data(event.change(), MediaType.APPLICATION_JSON));
+                }
+                if (batch.heartbeat()) {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the emitter already completed
+                logger.debug("Dropping todo stream for user {}: {}", subscriber.userId(), e.toString());
+                remove(subscriber);
+                return;
+            }
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.buffer().close();
+        subscribers.computeIfPresent(subscriber.userId(), (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        subscribers.values().forEach(set -> set.forEach(s -> s.emitter().complete()));
+        senders.shutdown();
+    }
+
+    private record Subscriber(Long userId, SseEmitter emitter, TodoChangeBuffer buffer) {
+    }
+}
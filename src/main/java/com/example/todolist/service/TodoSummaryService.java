@@ -0,0 +1,120 @@
+package com.example.todolist.service;
+
+import com.example.todolist.dto.UserTodoSummary;
+import com.example.todolist.model.Level;
+import com.example.todolist.model.TodoSummary;
+import com.example.todolist.model.TodoSummaryId;
+import com.example.todolist.repository.TodoSummaryRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains the {@code todo_summary} counters. Writers collect the changes of
+ * one operation in a {@link Delta} and apply it in their own transaction, so
+ * the counters commit or roll back together with the todos.
+ */
+@Service
+@Timed(value = "todolist.service", histogram = true)
+public class TodoSummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoSummaryService.class);
+
+    private final TodoSummaryRepository todoSummaryRepository;
+
+    public TodoSummaryService(TodoSummaryRepository todoSummaryRepository) {
+        this.todoSummaryRepository = todoSummaryRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public UserTodoSummary getSummary(Long userId) {
+        return toSummary(userId, todoSummaryRepository.findByIdUserId(userId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserTodoSummary> getAllSummaries() {
+        Map<Long, List<TodoSummary>> byUser = new LinkedHashMap<>();
+        for (TodoSummary row : todoSummaryRepository.findAllOrderByUserId()) {
+            byUser.computeIfAbsent(row.getId().getUserId(), id -> new ArrayList<>()).add(row);
+        }
+        List<UserTodoSummary> summaries = new ArrayList<>(byUser.size());
+        byUser.forEach((userId, rows) -> summaries.add(toSummary(userId, rows)));
+        return summaries;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Delta delta) {
+        delta.counts().forEach((id, change) -> {
+            if (change == 0) {
+                return;
+            }
+            if (change > 0) {
+                // Creates the row for the first todo of this key, also when
+                // several transactions get there at once
+                todoSummaryRepository.upsert(id.getUserId(), id.isCompleted(), id.getLevel(), change);
+            } else if (todoSummaryRepository.increment(id.getUserId(), id.isCompleted(), id.getLevel(), change) == 0) {
+                logger.warn("Missing todo summary row for {}; left for the next rebuild", id);
+            }
+        });
+    }
+
+    @Transactional
+    public int rebuild() {
+        int rows = todoSummaryRepository.rebuild();
+        logger.info("Rebuilt todo summary: {} rows", rows);
+        return rows;
+    }
+
+    private UserTodoSummary toSummary(Long userId, List<TodoSummary> rows) {
+        Map<Level, Long> open = zeroCounts();
+        Map<Level, Long> completed = zeroCounts();
+        for (TodoSummary row : rows) {
+            (row.getId().isCompleted() ? completed : open).put(row.getId().getLevel(), row.getTodoCount());
+        }
+        return new UserTodoSummary(userId, open, completed);
+    }
+
+    private static Map<Level, Long> zeroCounts() {
+        Map<Level, Long> counts = new EnumMap<>(Level.class);
+        for (Level level : Level.values()) {
+            counts.put(level, 0L);
+        }
+        return counts;
+    }
+
+    /**
+     * Net counter changes of one operation, one entry per summary row. Rows
+     * are updated in {@link TodoSummaryId#LOCK_ORDER} to avoid deadlocks.
+     */
+    public static final class Delta {
+        private final Map<TodoSummaryId, Long> counts = new TreeMap<>(TodoSummaryId.LOCK_ORDER);
+
+        public Delta add(TodoSummaryId id) {
+            counts.merge(id, 1L, Long::sum);
+            return this;
+        }
+
+        public Delta remove(TodoSummaryId id) {
+            counts.merge(id, -1L, Long::sum);
+            return this;
+        }
+
+        public boolean isEmpty() {
+            return counts.values().stream().allMatch(change -> change == 0);
+        }
+
+        Map<TodoSummaryId, Long> counts() {
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.todolist.service;
+
+import com.example.todolist.config.RateLimitProperties;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket. Tokens are refilled lazily from the elapsed time on
+ * each call, and taken with a compare-and-set on an immutable state, so
+ * concurrent requests of the same client never block each other.
+ */
+final class TokenBucket {
+
+    private record State(double tokens, long refilledAt) {
+    }
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    TokenBucket(RateLimitProperties.Limit limit, long now) {
+        this.capacity = limit.burst();
+        this.tokensPerNano = limit.perSecond() / 1_000_000_000d;
+        this.state = new AtomicReference<>(new State(capacity, now));
+    }
+
+    /**
+     * Takes one token. Returns 0 if it was taken, otherwise the nanoseconds
+     * until one will be available.
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            State current = state.get();
+            long elapsed = Math.max(0, now - current.refilledAt());
+            double tokens = Math.min(capacity, current.tokens() + elapsed * tokensPerNano);
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / tokensPerNano);
+            }
+            if (state.compareAndSet(current, new State(tokens - 1, current.refilledAt() + elapsed))) {
+                return 0;
+            }
+        }
+    }
+}
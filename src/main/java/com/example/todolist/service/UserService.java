@@ -1,60 +1,261 @@
 package com.example.todolist.service;
 
+import com.example.todolist.config.UserCacheProperties;
+import com.example.todolist.dto.UserSnapshot;
 import com.example.todolist.model.User;
 import com.example.todolist.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.IntSupplier;
 
 @Service
+@Timed(value = "todolist.service", histogram = true)
 public class UserService {
+    private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+
+    // Rows per DELETE, and per transaction, when removing a user's todos and
+    // invoices
+    static final int DELETE_CHUNK_SIZE = 5000;
+
     private final UserRepository userRepository;
+    private final ResourceVersionService resourceVersionService;
+    private final TransactionTemplate requiresNew;
+
+    // Read-through caches for the existence/uniqueness checks on every write.
+    // Only users that exist are cached, so a miss always falls back to the DB.
+    // Snapshots rather than entities: a cached entity would be shared by
+    // every request's persistence context at once.
+    private final Cache<Long, UserSnapshot> usersById;
+    private final Cache<String, Long> userIdsByUsername;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, ResourceVersionService resourceVersionService,
+                       UserCacheProperties cacheProperties, MeterRegistry meterRegistry,
+                       PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
+        this.resourceVersionService = resourceVersionService;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.usersById = Caffeine.newBuilder()
+            .maximumSize(cacheProperties.maximumSize())
+            .expireAfterWrite(cacheProperties.ttl())
+            .recordStats()
+            .build();
+        this.userIdsByUsername = Caffeine.newBuilder()
+            .maximumSize(cacheProperties.maximumSize())
+            .expireAfterWrite(cacheProperties.ttl())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, userIdsByUsername, "users.byUsername");
     }
 
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
-    public User getUserById(Long id) {
-        return userRepository.findById(id)
+    /**
+     * Changes whenever any user is created, updated or deleted; the ETag of
+     * the user listing.
+     */
+    public long getUsersVersion() {
+        return resourceVersionService.currentVersion(ResourceVersionService.USERS);
+    }
+
+    /**
+     * The user's current {@code @Version}, read with a single-column lookup so
+     * conditional GETs can be answered without loading the user.
+     */
+    public Optional<Long> getUserVersion(Long id) {
+        return userRepository.findVersionById(id);
+    }
+
+    public UserSnapshot getUserById(Long id) {
+        UserSnapshot cached = usersById.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        // Loaded outside Cache.get(key, loader): that runs the loader inside a
+        // ConcurrentHashMap bin lock, which pins a virtual thread's carrier for
+        // the whole query. Concurrent misses may load the same row twice.
+        User user = userRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        return cache(user);
     }
 
+    /**
+     * The user at {@code version} or later, for responses whose ETag is that
+     * version. The cached copy is only used when it is that version, since
+     * another instance may have changed the user after it was cached.
+     */
+    public UserSnapshot getUserById(Long id, long version) {
+        UserSnapshot cached = usersById.getIfPresent(id);
+        if (cached != null && cached.version() != null && cached.version() == version) {
+            return cached;
+        }
+        User user = userRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        return cache(user);
+    }
+
+    /**
+     * A reference to set as a todo's or invoice's user, without loading it.
+     * Callers check that the user exists first.
+     */
+    public User getReference(Long id) {
+        return userRepository.getReferenceById(id);
+    }
+
+    /**
+     * Looks up several users at once; ids that do not exist are absent from the
+     * result. Only cache misses are loaded, with a single IN query.
+     */
+    public Map<Long, UserSnapshot> getUsersByIds(Collection<Long> ids) {
+        return usersById.getAll(ids, missing -> {
+            Map<Long, UserSnapshot> loaded = new HashMap<>();
+            for (User user : userRepository.findAllById(Set.copyOf(missing))) {
+                loaded.put(user.getId(), UserSnapshot.of(user));
+                userIdsByUsername.put(user.getUsername(), user.getId());
+            }
+            return loaded;
+        });
+    }
+
+    @Transactional
     public User createUser(User user) {
         // Validate username uniqueness
-        userRepository.findByUsername(user.getUsername())
-            .ifPresent(existing -> {
-                throw new RuntimeException("Username already exists: " + user.getUsername());
-            });
+        if (isUsernameTaken(user.getUsername())) {
+            throw new RuntimeException("Username already exists: " + user.getUsername());
+        }
 
-        return userRepository.save(user);
+        user.setVersion(null);
+        User saved = userRepository.save(user);
+        cache(saved);
+        resourceVersionService.markChanged(ResourceVersionService.USERS);
+        resourceVersionService.create(ResourceVersionService.todosOf(saved.getId()));
+        return saved;
     }
 
+    @Transactional
     public User updateUser(Long id, User updatedUser) {
         return userRepository.findById(id)
             .map(user -> {
                 // Check username uniqueness if username is being changed
-                if (!user.getUsername().equals(updatedUser.getUsername())) {
-                    userRepository.findByUsername(updatedUser.getUsername())
-                        .ifPresent(existing -> {
-                            throw new RuntimeException("Username already exists: " + updatedUser.getUsername());
-                        });
+                if (!user.getUsername().equals(updatedUser.getUsername())
+                        && isUsernameTaken(updatedUser.getUsername())) {
+                    throw new RuntimeException("Username already exists: " + updatedUser.getUsername());
                 }
 
+                String previousUsername = user.getUsername();
                 user.setUsername(updatedUser.getUsername());
                 user.setRole(updatedUser.getRole());
-                return userRepository.save(user);
+                User saved = userRepository.save(user);
+
+                evict(id, previousUsername);
+                resourceVersionService.markChanged(ResourceVersionService.USERS);
+                if (!previousUsername.equals(saved.getUsername())) {
+                    // Todo listings show the owner's username
+                    resourceVersionService.markChanged(ResourceVersionService.todosOf(id));
+                }
+                return saved;
             })
             .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
     }
 
+    /**
+     * Deletes the user together with its todos, invoices and their summary
+     * and revenue rows. Todos and invoices go first, {@code DELETE_CHUNK_SIZE}
+     * rows per committed transaction, so no transaction holds locks on all of
+     * a large user's rows at once. The user row, its summary and revenue rows
+     * and anything added meanwhile then go in one last transaction. Until it
+     * commits those rollups still count the deleted rows; if it never does,
+     * the user remains with part of its todos and invoices, and deleting it
+     * again finishes the job.
+     */
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new RuntimeException("User not found with id: " + id);
+        // Read before the delete so the username entry can be invalidated by key
+        String username = userRepository.findUsernameById(id)
+            .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        long todos = deleteInChunks(() -> {
+            int deleted = userRepository.deleteTodos(id, DELETE_CHUNK_SIZE);
+            resourceVersionService.markChanged(ResourceVersionService.todosOf(id));
+            return deleted;
+        });
+        long invoices = deleteInChunks(() -> userRepository.deleteInvoices(id, DELETE_CHUNK_SIZE));
+
+        UserRepository.DeletedRows rest = requiresNew.execute(status -> {
+            UserRepository.DeletedRows deleted = userRepository.deleteWithDependents(id, DELETE_CHUNK_SIZE);
+            resourceVersionService.markChanged(ResourceVersionService.USERS);
+            resourceVersionService.delete(ResourceVersionService.todosOf(id));
+            return deleted;
+        });
+        evict(id, username);
+        logger.info("Deleted user {} with {} todos and {} invoices",
+            id, todos + rest.todos(), invoices + rest.invoices());
+    }
+
+    // Runs the chunk, each in its own transaction, until one comes back short
+    private long deleteInChunks(IntSupplier chunk) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = requiresNew.execute(status -> chunk.getAsInt());
+            total += deleted;
+        } while (deleted == DELETE_CHUNK_SIZE);
+        return total;
+    }
+
+    private boolean isUsernameTaken(String username) {
+        if (userIdsByUsername.getIfPresent(username) != null) {
+            return true;
         }
-        userRepository.deleteById(id);
+        return userRepository.findByUsername(username)
+            .map(existing -> {
+                cache(existing);
+                return true;
+            })
+            .orElse(false);
+    }
+
+    private void evict(Long id, String username) {
+        usersById.invalidate(id);
+        userIdsByUsername.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Again once committed, in case a concurrent read cached the old
+            // row while the transaction was still open
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    usersById.invalidate(id);
+                    userIdsByUsername.invalidate(username);
+                }
+            });
+        }
+    }
+
+    private UserSnapshot cache(User user) {
+        UserSnapshot snapshot = UserSnapshot.of(user);
+        usersById.put(snapshot.id(), snapshot);
+        userIdsByUsername.put(snapshot.username(), snapshot.id());
+        return snapshot;
     }
 }
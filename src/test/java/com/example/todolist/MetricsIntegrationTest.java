@@ -0,0 +1,39 @@
+package com.example.todolist;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class MetricsIntegrationTest {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Test
+	void prometheusEndpoint_shouldExposeRequestServiceRepositoryAndPoolMetrics() {
+		// Arrange
+		restTemplate.getForEntity("/api/todos", String.class);
+
+		// Act
+		String scrape = restTemplate.getForObject("/actuator/prometheus", String.class);
+
+		// Assert
+		assertThat(scrape)
+				.contains("http_server_requests_seconds_bucket")
+				.contains("uri=\"/api/todos\"")
+				.contains("todolist_service_seconds_bucket")
+				.contains("method=\"getTodos\"")
+				.contains("spring_data_repository_invocations_seconds_bucket")
+				.contains("hikaricp_connections_active")
+				.contains("hibernate_statements_total");
+	}
+
+}
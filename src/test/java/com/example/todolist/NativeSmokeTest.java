@@ -0,0 +1,182 @@
+package com.example.todolist;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the native executable ({@code make build-native}) and the JVM build
+ * against a file-based H2 database each, exercises {@code /api/users} and
+ * {@code /api/todos} on each, and reports time to the first served request
+ * and resident memory afterwards. Only runs when {@code todolist.native.binary}
+ * names the executable, e.g. {@code make native-smoke}.
+ * <p>
+ * Each build starts twice, as in a release: first with
+ * {@code MIGRATIONS_ON_STARTUP=APPLY} to run the changelog (the
+ * {@code migrate} command is not in the native executable), then in the
+ * default {@code VERIFY} mode, which finds the expected tag among the
+ * packaged changelogs and checks it. Only the second start is measured.
+ */
+@EnabledIfSystemProperty(named = "todolist.native.binary", matches = ".+")
+@EnabledOnOs(OS.LINUX)
+class NativeSmokeTest {
+
+	private static final long STARTUP_TIMEOUT_MS = 120_000;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void nativeBinary_shouldServeTodosAndUsers() throws Exception {
+		// Arrange
+		List<String> nativeCommand = List.of(System.getProperty("todolist.native.binary"));
+		List<String> jvmCommand = List.of(
+				Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+				"-cp", System.getProperty("java.class.path"),
+				TodolistApplication.class.getName());
+
+		// Act
+		Result nativeResult = run("native", nativeCommand);
+		Result jvmResult = run("jvm", jvmCommand);
+
+		// Assert
+		System.out.printf("Native: first request after %d ms, RSS %d MB%n",
+				nativeResult.firstRequestMs(), nativeResult.rssKb() / 1024);
+		System.out.printf("JVM:    first request after %d ms, RSS %d MB%n",
+				jvmResult.firstRequestMs(), jvmResult.rssKb() / 1024);
+		assertThat(nativeResult.firstRequestMs()).isPositive();
+		assertThat(nativeResult.rssKb()).isPositive();
+	}
+
+	private Result run(String name, List<String> command) throws Exception {
+		// PostgreSQL-only changesets are skipped on H2, as in QueryPlanTest
+		Path database = Files.createTempDirectory("todolist-" + name + "-db").resolve("todolist");
+		List<String> common = List.of(
+				"--spring.datasource.url=jdbc:h2:file:" + database + ";MODE=PostgreSQL",
+				"--spring.datasource.driver-class-name=org.h2.Driver",
+				"--spring.datasource.username=sa",
+				"--spring.datasource.password=",
+				"--logging.level.root=WARN");
+
+		Instance migration = start(name + "-apply", command, common, freePort(), "--todolist.migrations.on-startup=APPLY");
+		try {
+			awaitFirstRequest("http://localhost:" + migration.port() + "/api/todos", migration);
+		} finally {
+			migration.stop();
+		}
+
+		int port = freePort();
+		long start = System.nanoTime();
+		Instance instance = start(name, command, common, port, "--todolist.migrations.on-startup=VERIFY");
+		try {
+			String baseUrl = "http://localhost:" + port;
+			awaitFirstRequest(baseUrl + "/api/todos", instance);
+			long firstRequestMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+			JsonNode user = send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/users"))
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"smoke\",\"role\":\"USER\"}"))
+					.build());
+			send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/todos"))
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(
+							"{\"title\":\"Smoke\",\"user\":{\"id\":" + user.get("id").asLong() + "}}"))
+					.build());
+			JsonNode users = send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/users")).build());
+			JsonNode todos = send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/todos")).build());
+
+			// Next to the users the migrations seed
+			assertThat(users.findValuesAsText("username")).contains("smoke");
+			assertThat(todos.get("items")).hasSize(1);
+			assertThat(todos.get("items").get(0).get("title").asText()).isEqualTo("Smoke");
+			return new Result(firstRequestMs, rssKb(instance.process().pid()));
+		} finally {
+			instance.stop();
+		}
+	}
+
+	private static Instance start(String name, List<String> command, List<String> common, int port, String mode)
+			throws IOException {
+		List<String> args = new ArrayList<>(command);
+		args.addAll(common);
+		args.add("--server.port=" + port);
+		args.add(mode);
+		File log = File.createTempFile("todolist-" + name + "-", ".log");
+		return new Instance(new ProcessBuilder(args).redirectErrorStream(true).redirectOutput(log).start(), port, log);
+	}
+
+	private void awaitFirstRequest(String url, Instance instance) throws Exception {
+		long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT_MS;
+		HttpRequest request = HttpRequest.newBuilder(URI.create(url)).build();
+		while (true) {
+			if (!instance.process().isAlive()) {
+				throw new IllegalStateException("Exited before serving a request:\n"
+						+ Files.readString(instance.log().toPath()));
+			}
+			try {
+				if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+					return;
+				}
+			} catch (ConnectException e) {
+				// Not listening yet
+			}
+			if (System.currentTimeMillis() > deadline) {
+				throw new IllegalStateException("Not started after " + STARTUP_TIMEOUT_MS + " ms");
+			}
+			Thread.sleep(10);
+		}
+	}
+
+	private JsonNode send(HttpRequest request) throws IOException, InterruptedException {
+		HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+		assertThat(response.statusCode()).as(request.method() + " " + request.uri()).isEqualTo(200);
+		return objectMapper.readTree(response.body());
+	}
+
+	private static long rssKb(long pid) throws IOException {
+		for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status"))) {
+			if (line.startsWith("VmRSS:")) {
+				return Long.parseLong(line.replaceAll("\\D", ""));
+			}
+		}
+		throw new IllegalStateException("No VmRSS for pid " + pid);
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+
+	private record Result(long firstRequestMs, long rssKb) {
+	}
+
+	// A started build; the H2 file stays locked until it has exited
+	private record Instance(Process process, int port, File log) {
+
+		void stop() throws InterruptedException {
+			process.destroy();
+			process.waitFor(30, TimeUnit.SECONDS);
+		}
+	}
+
+}
@@ -0,0 +1,160 @@
+package com.example.todolist;
+
+import com.example.todolist.config.RecentWriters;
+import com.example.todolist.model.User;
+import com.example.todolist.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes against two separate H2 databases. Each holds a {@code route_marker}
+ * row naming it, so a query shows which one served it.
+ */
+@SpringBootTest(properties = {
+        "todolist.read-replica.enabled=true",
+        "todolist.read-replica.lag-tolerance=300ms",
+        "todolist.read-replica.datasource.url=jdbc:h2:mem:todolist-replica;MODE=PostgreSQL",
+        "todolist.read-replica.datasource.username=sa"
+})
+@ActiveProfiles("test")
+class ReadReplicaIntegrationTest {
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RecentWriters recentWriters;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        for (String name : new String[] {"primary", "replica"}) {
+            JdbcTemplate direct = new JdbcTemplate("primary".equals(name) ? primaryDataSource : replicaDataSource);
+            direct.execute("create table if not exists route_marker (name varchar(16))");
+            direct.update("delete from route_marker");
+            direct.update("insert into route_marker (name) values (?)", name);
+        }
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        recentWriters.clear();
+    }
+
+    @Test
+    void readOnlyTransactions_shouldUseReplica_andEverythingElsePrimary() {
+        // Act
+        String readOnlyJdbc = readOnly.execute(status -> marker());
+        String readOnlyJpa = readOnly.execute(status -> (String) entityManager
+                .createNativeQuery("select name from route_marker").getSingleResult());
+        String readWriteJdbc = readWrite.execute(status -> marker());
+        String noTransaction = marker();
+
+        // Assert
+        assertThat(readOnlyJdbc).isEqualTo("replica");
+        assertThat(readOnlyJpa).isEqualTo("replica");
+        assertThat(readWriteJdbc).isEqualTo("primary");
+        assertThat(noTransaction).isEqualTo("primary");
+    }
+
+    @Test
+    void reads_shouldStayOnPrimary_forCallerThatJustWrote() throws Exception {
+        // Arrange
+        recentWriters.bind("7");
+        readWrite.executeWithoutResult(status -> marker());
+        recentWriters.clear();
+
+        // Act
+        recentWriters.bind("7");
+        String writerRead = readOnly.execute(status -> marker());
+        recentWriters.bind("8");
+        String otherRead = readOnly.execute(status -> marker());
+        Thread.sleep(500);
+        recentWriters.bind("7");
+        String writerReadAfterLag = readOnly.execute(status -> marker());
+
+        // Assert
+        assertThat(writerRead).isEqualTo("primary");
+        assertThat(otherRead).isEqualTo("replica");
+        assertThat(writerReadAfterLag).isEqualTo("replica");
+    }
+
+    @Test
+    void reads_shouldStayOnPrimary_forRestOfWritingRequest() {
+        // Arrange: no caller header
+        recentWriters.bind(null);
+        readWrite.executeWithoutResult(status -> marker());
+
+        // Act
+        String sameRequest = readOnly.execute(status -> marker());
+        recentWriters.bind(null);
+        String nextRequest = readOnly.execute(status -> marker());
+
+        // Assert
+        assertThat(sameRequest).isEqualTo("primary");
+        assertThat(nextRequest).isEqualTo("replica");
+    }
+
+    @Test
+    void readOnlyServiceMethods_shouldReadFromReplica() {
+        // Arrange
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("create table if not exists users (id bigint primary key, username varchar(255), "
+                + "role varchar(16), created_at timestamp with time zone, version bigint)");
+        replica.update("delete from users");
+        replica.update("insert into users values (1, 'replica-user', 'USER', current_timestamp, 0)");
+        double before = meterRegistry.counter("todolist.datasource.connections", "route", "replica").count();
+
+        // Act
+        List<User> users = userService.getAllUsers();
+
+        // Assert
+        assertThat(users).extracting(User::getUsername).containsExactly("replica-user");
+        assertThat(meterRegistry.counter("todolist.datasource.connections", "route", "replica").count())
+                .isGreaterThan(before);
+    }
+
+    private String marker() {
+        return jdbcTemplate.queryForObject("select name from route_marker", String.class);
+    }
+}
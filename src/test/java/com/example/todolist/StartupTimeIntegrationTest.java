@@ -0,0 +1,58 @@
+package com.example.todolist;
+
+import com.example.todolist.config.FirstRequestFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots a fresh application and reports the time from {@code run} to the end
+ * of the first {@code GET /api/todos}. Other tests in the same JVM have
+ * already loaded most classes, so this is a lower bound on a cold start; run
+ * the fast-startup jar (make run-fast) and read the
+ * {@value FirstRequestFilter#METER} gauge for production numbers.
+ */
+class StartupTimeIntegrationTest {
+
+	// Generous: catches a startup that hangs or regresses by an order of magnitude
+	private static final long MAX_TIME_TO_FIRST_REQUEST_MS = 60_000;
+
+	@Test
+	void firstRequest_shouldBeServedAndTimed() throws Exception {
+		// Arrange
+		long start = System.nanoTime();
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TodolistApplication.class)
+				.profiles("test")
+				.properties("server.port=0",
+						"spring.datasource.url=jdbc:h2:mem:todolist-startup;MODE=PostgreSQL")
+				.run()) {
+			long readyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+			// Act
+			HttpResponse<Void> response = HttpClient.newHttpClient().send(
+					HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/todos")).build(),
+					HttpResponse.BodyHandlers.discarding());
+			long firstRequestMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+			// Assert
+			System.out.printf("Startup: ready after %d ms, first request served after %d ms%n",
+					readyMs, firstRequestMs);
+			assertThat(response.statusCode()).isEqualTo(200);
+			assertThat(firstRequestMs).isLessThan(MAX_TIME_TO_FIRST_REQUEST_MS);
+			assertThat(context.getBean(MeterRegistry.class).get(FirstRequestFilter.METER).timeGauge()
+					.value(TimeUnit.MILLISECONDS)).isPositive();
+		}
+	}
+
+}
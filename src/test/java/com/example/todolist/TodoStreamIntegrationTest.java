@@ -0,0 +1,134 @@
+package com.example.todolist;
+
+import com.example.todolist.model.Role;
+import com.example.todolist.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class TodoStreamIntegrationTest {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	private final HttpClient httpClient = HttpClient.newHttpClient();
+	private final List<Stream<String>> streams = new ArrayList<>();
+
+	@AfterEach
+	void closeStreams() {
+		streams.forEach(Stream::close);
+	}
+
+	@Test
+	void stream_shouldEmitCommittedChangesOfThatUserOnly() throws Exception {
+		// Arrange
+		User alice = createUser("stream-alice");
+		User bob = createUser("stream-bob");
+		BlockingQueue<Map<String, String>> events = open(alice.getId(), null);
+
+		// Act
+		createTodo("Bob's", bob.getId());
+		createTodo("Alice's", alice.getId());
+
+		// Assert
+		Map<String, String> event = events.poll(5, TimeUnit.SECONDS);
+		assertThat(event).containsEntry("event", "created");
+		assertThat(event.get("data")).contains("\"title\":\"Alice's\"");
+	}
+
+	@Test
+	void stream_shouldReplayMissedChanges_fromLastEventId() throws Exception {
+		// Arrange
+		User carol = createUser("stream-carol");
+		BlockingQueue<Map<String, String>> first = open(carol.getId(), null);
+		createTodo("Seen", carol.getId());
+		String lastEventId = first.poll(5, TimeUnit.SECONDS).get("id");
+		closeStreams();
+		createTodo("Missed", carol.getId());
+
+		// Act
+		BlockingQueue<Map<String, String>> resumed = open(carol.getId(), lastEventId);
+
+		// Assert
+		Map<String, String> event = resumed.poll(5, TimeUnit.SECONDS);
+		assertThat(event).containsEntry("event", "created");
+		assertThat(event.get("data")).contains("\"title\":\"Missed\"");
+	}
+
+	@Test
+	void stream_shouldAskForResync_whenLastEventIdIsUnknown() throws Exception {
+		// Arrange
+		User dave = createUser("stream-dave");
+
+		// Act
+		BlockingQueue<Map<String, String>> events = open(dave.getId(), "1");
+
+		// Assert
+		assertThat(events.poll(5, TimeUnit.SECONDS)).containsEntry("event", "resync");
+	}
+
+	private User createUser(String username) {
+		return restTemplate.postForObject("/api/users", new User(username, Role.USER), User.class);
+	}
+
+	private void createTodo(String title, Long userId) {
+		restTemplate.postForObject("/api/todos", Map.of("title", title, "user", Map.of("id", userId)), String.class);
+	}
+
+	// Opens the stream and collects its events (comments skipped) as field maps
+	private BlockingQueue<Map<String, String>> open(Long userId, String lastEventId) throws Exception {
+		HttpRequest.Builder request = HttpRequest.newBuilder(
+				URI.create("http://localhost:" + port + "/api/users/" + userId + "/todos/stream"));
+		if (lastEventId != null) {
+			request.header("Last-Event-ID", lastEventId);
+		}
+		HttpResponse<Stream<String>> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofLines());
+		assertThat(response.statusCode()).isEqualTo(200);
+		streams.add(response.body());
+
+		BlockingQueue<Map<String, String>> events = new LinkedBlockingQueue<>();
+		Thread.ofVirtual().start(() -> {
+			Map<String, String> fields = new HashMap<>();
+			try {
+				for (String line : (Iterable<String>) response.body()::iterator) {
+					if (line.isEmpty()) {
+						if (fields.containsKey("event")) {
+							events.add(fields);
+						}
+						fields = new HashMap<>();
+					} else if (!line.startsWith(":")) {
+						int colon = line.indexOf(':');
+						fields.put(line.substring(0, colon), line.substring(colon + 1));
+					}
+				}
+			} catch (RuntimeException e) {
+				// Stream closed by the test
+			}
+		});
+		return events;
+	}
+}
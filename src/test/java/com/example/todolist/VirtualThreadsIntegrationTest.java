@@ -0,0 +1,70 @@
+package com.example.todolist;
+
+import com.example.todolist.config.VirtualThreadsConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "todolist.threads.virtual=true")
+@ActiveProfiles("test")
+class VirtualThreadsIntegrationTest {
+
+	@Autowired
+	private ServletWebServerApplicationContext context;
+
+	@Autowired
+	private AsyncTaskExecutor applicationTaskExecutor;
+
+	@Test
+	void tomcatExecutor_shouldRunRequestsOnVirtualThreads() throws Exception {
+		// Arrange
+		TomcatWebServer webServer = (TomcatWebServer) context.getWebServer();
+		Executor executor = webServer.getTomcat().getConnector().getProtocolHandler().getExecutor();
+
+		// Act
+		CompletableFuture<Boolean> virtual = CompletableFuture.supplyAsync(
+				() -> Thread.currentThread().isVirtual(), executor);
+
+		// Assert
+		assertThat(virtual.get()).isTrue();
+	}
+
+	@Test
+	void applicationTaskExecutor_shouldRunTasksOnVirtualThreads() throws Exception {
+		// Act
+		Boolean virtual = applicationTaskExecutor.submit(() -> Thread.currentThread().isVirtual()).get();
+
+		// Assert
+		assertThat(virtual).isTrue();
+	}
+
+	@Test
+	void executors_shouldBeClosedWithContext() {
+		// Arrange
+		List<ExecutorService> executors = new ArrayList<>();
+
+		// Act
+		new ApplicationContextRunner()
+				.withUserConfiguration(VirtualThreadsConfig.class)
+				.withPropertyValues("todolist.threads.virtual=true")
+				.run(started -> executors.addAll(started.getBeansOfType(ExecutorService.class).values()));
+
+		// Assert
+		assertThat(executors).hasSize(2).allMatch(ExecutorService::isTerminated);
+	}
+
+}
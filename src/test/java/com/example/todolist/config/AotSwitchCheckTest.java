@@ -0,0 +1,48 @@
+package com.example.todolist.config;
+
+import com.example.todolist.job.IdempotencyKeyCleanupJob;
+import com.example.todolist.job.InvoicePartitionJob;
+import com.example.todolist.job.InvoiceRevenueRebuildJob;
+import com.example.todolist.job.TodoSummaryRebuildJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AotSwitchCheckTest {
+
+    private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+    private final MockEnvironment environment = new MockEnvironment();
+
+    @BeforeEach
+    void setUp() {
+        // What a build with the default settings contains
+        for (Class<?> type : new Class<?>[] {RateLimitConfig.class, IdempotencyConfig.class,
+                IdempotencyKeyCleanupJob.class, InvoicePartitionJob.class, TodoSummaryRebuildJob.class,
+                InvoiceRevenueRebuildJob.class}) {
+            beanFactory.registerBeanDefinition(type.getSimpleName(), new RootBeanDefinition(type));
+        }
+    }
+
+    @Test
+    void findMismatches_shouldBeEmpty_whenRuntimeMatchesBuild() {
+        assertThat(new AotSwitchCheck(beanFactory, environment).findMismatches()).isEmpty();
+    }
+
+    @Test
+    void findMismatches_shouldReportSwitchesChangedAfterBuild() {
+        // Arrange
+        environment.setProperty("todolist.invoice-worker.enabled", "true");
+        environment.setProperty("todolist.rate-limit.enabled", "false");
+        environment.setActiveProfiles("admin");
+
+        // Act & Assert
+        assertThat(new AotSwitchCheck(beanFactory, environment).findMismatches()).containsExactly(
+            "todolist.rate-limit.enabled is false but was true at build time",
+            "todolist.invoice-worker.enabled is true but was false at build time",
+            "the admin profile is active but was inactive at build time");
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.todolist.config;
+
+import com.example.todolist.controller.UserController;
+import com.example.todolist.model.IdempotencyKey;
+import com.example.todolist.model.Role;
+import com.example.todolist.model.User;
+import com.example.todolist.service.IdempotencyService;
+import com.example.todolist.service.RateLimitService;
+import com.example.todolist.service.TodoStreamService;
+import com.example.todolist.service.TodoSummaryService;
+import com.example.todolist.service.UserService;
+
+import tech.ailef.snapadmin.external.SnapAdminAutoConfiguration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(
+    controllers = UserController.class,
+    excludeAutoConfiguration = { SnapAdminAutoConfiguration.class }
+)
+@Import({IdempotencyConfig.class, RateLimitConfig.class})
+@EnableConfigurationProperties(RateLimitProperties.class)
+class IdempotencyConfigTest {
+
+    private static final String SCOPE = "POST /api/users";
+    private static final String BODY = "{\"username\": \"alice\", \"role\": \"USER\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private TodoSummaryService todoSummaryService;
+
+    @MockBean
+    private TodoStreamService todoStreamService;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @MockBean
+    private RateLimitService rateLimitService;
+
+    @BeforeEach
+    void allowRequests() {
+        when(rateLimitService.tryAcquireAddress(anyString())).thenReturn(Duration.ZERO);
+        when(rateLimitService.tryAcquire(anyString(), any(Role.class))).thenReturn(Duration.ZERO);
+    }
+
+    @Test
+    void create_shouldRunAndStoreResponse_whenKeyIsNew() throws Exception {
+        // Arrange
+        User created = new User("alice", Role.USER);
+        created.setId(1L);
+        when(idempotencyService.claim(eq(SCOPE), eq("k1"), anyString())).thenReturn(Optional.empty());
+        when(userService.createUser(any(User.class))).thenReturn(created);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users")
+                        .header(IdempotencyFilter.HEADER, "k1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BODY))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("alice"));
+
+        verify(idempotencyService).complete(eq(SCOPE), eq("k1"), eq(200), contains("json"), contains("\"alice\""));
+    }
+
+    @Test
+    void create_shouldReplayStoredResponse_withoutCallingService() throws Exception {
+        // Arrange
+        when(idempotencyService.claim(eq(SCOPE), eq("k1"), anyString()))
+                .thenAnswer(invocation -> Optional.of(completed(invocation.getArgument(2))));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users")
+                        .header(IdempotencyFilter.HEADER, "k1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BODY))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.id").value(1));
+
+        verify(userService, never()).createUser(any(User.class));
+    }
+
+    @Test
+    void create_shouldReturnUnprocessable_whenKeyReusedForOtherRequest() throws Exception {
+        // Arrange
+        when(idempotencyService.claim(eq(SCOPE), eq("k1"), anyString()))
+                .thenReturn(Optional.of(completed("another-hash")));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users")
+                        .header(IdempotencyFilter.HEADER, "k1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BODY))
+                .andExpect(status().isUnprocessableEntity());
+
+        verify(userService, never()).createUser(any(User.class));
+    }
+
+    @Test
+    void create_shouldReturnConflict_whileFirstRequestRuns() throws Exception {
+        // Arrange
+        when(idempotencyService.claim(eq(SCOPE), eq("k1"), anyString()))
+                .thenAnswer(invocation -> Optional.of(pending(invocation.getArgument(2))));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users")
+                        .header(IdempotencyFilter.HEADER, "k1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BODY))
+                .andExpect(status().isConflict())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void create_shouldReleaseKey_whenRequestFails() {
+        // Arrange
+        when(idempotencyService.claim(eq(SCOPE), eq("k1"), anyString())).thenReturn(Optional.empty());
+        when(userService.createUser(any(User.class))).thenThrow(new RuntimeException("Database unavailable"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> mockMvc.perform(post("/api/users")
+                        .header(IdempotencyFilter.HEADER, "k1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BODY)))
+                .hasRootCauseMessage("Database unavailable");
+
+        verify(idempotencyService).release(SCOPE, "k1");
+        verify(idempotencyService, never()).complete(anyString(), anyString(), anyInt(), any(), any());
+    }
+
+    @Test
+    void create_shouldRunAgain_whenFirstAttemptWasRateLimited() throws Exception {
+        // Arrange: over the limit once, then allowed
+        User created = new User("alice", Role.USER);
+        created.setId(1L);
+        when(idempotencyService.claim(eq(SCOPE), eq("k1"), anyString())).thenReturn(Optional.empty());
+        when(rateLimitService.tryAcquireAddress("127.0.0.1")).thenReturn(Duration.ofMillis(300), Duration.ZERO);
+        when(userService.createUser(any(User.class))).thenReturn(created);
+
+        // Act & Assert: the 429 is not stored for the retry to replay
+        mockMvc.perform(post("/api/users")
+                        .header(IdempotencyFilter.HEADER, "k1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BODY))
+                .andExpect(status().isTooManyRequests());
+        verify(idempotencyService).release(SCOPE, "k1");
+        verify(idempotencyService, never()).complete(anyString(), anyString(), anyInt(), any(), any());
+
+        mockMvc.perform(post("/api/users")
+                        .header(IdempotencyFilter.HEADER, "k1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BODY))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andExpect(jsonPath("$.username").value("alice"));
+        verify(userService, times(1)).createUser(any(User.class));
+        verify(idempotencyService).complete(eq(SCOPE), eq("k1"), eq(200), contains("json"), contains("\"alice\""));
+    }
+
+    @Test
+    void create_shouldBypassFilter_withoutKey() throws Exception {
+        // Arrange
+        when(userService.createUser(any(User.class))).thenReturn(new User("alice", Role.USER));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BODY))
+                .andExpect(status().isOk());
+
+        verifyNoInteractions(idempotencyService);
+    }
+
+    private static IdempotencyKey pending(String requestHash) {
+        IdempotencyKey record = new IdempotencyKey();
+        record.setRequestHash(requestHash);
+        record.setExpiresAt(Instant.now().plusSeconds(60));
+        return record;
+    }
+
+    private static IdempotencyKey completed(String requestHash) {
+        IdempotencyKey record = pending(requestHash);
+        record.setResponseStatus(200);
+        record.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        record.setResponseBody("{\"id\":1,\"username\":\"alice\"}");
+        return record;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.todolist.config;
+
+import com.example.todolist.controller.TodoController;
+import com.example.todolist.dto.UserSnapshot;
+import com.example.todolist.model.Role;
+import com.example.todolist.model.User;
+import com.example.todolist.service.RateLimitService;
+import com.example.todolist.service.TodoService;
+import com.example.todolist.service.UserService;
+
+import tech.ailef.snapadmin.external.SnapAdminAutoConfiguration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(
+    controllers = TodoController.class,
+    excludeAutoConfiguration = { SnapAdminAutoConfiguration.class }
+)
+@Import(RateLimitConfig.class)
+@EnableConfigurationProperties(RateLimitProperties.class)
+class RateLimitConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TodoService todoService;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private RateLimitService rateLimitService;
+
+    @Test
+    void write_shouldReturnTooManyRequests_whenOverLimit() throws Exception {
+        // Arrange
+        User manager = new User("boss", Role.MANAGER);
+        when(userService.getUserById(7L)).thenReturn(UserSnapshot.of(manager));
+        when(rateLimitService.tryAcquireAddress("127.0.0.1")).thenReturn(Duration.ZERO);
+        when(rateLimitService.tryAcquire("user:7@127.0.0.1", Role.MANAGER)).thenReturn(Duration.ofMillis(1200));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/todos")
+                        .header(RateLimitInterceptor.USER_ID_HEADER, "7")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Flood\"}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.error").exists());
+
+        verify(todoService, never()).createTodo(any());
+    }
+
+    @Test
+    void write_shouldUseRemoteAddress_whenNoUserHeader() throws Exception {
+        // Arrange
+        when(rateLimitService.tryAcquireAddress(anyString())).thenReturn(Duration.ZERO);
+        when(rateLimitService.tryAcquire(anyString(), any(Role.class))).thenReturn(Duration.ZERO);
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/todos/{id}", 1L))
+                .andExpect(status().isOk());
+
+        verify(rateLimitService).tryAcquire("ip:127.0.0.1", Role.USER);
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void read_shouldNotBeLimited() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/todos/search").param("q", "milk"));
+
+        verifyNoInteractions(rateLimitService);
+    }
+
+    @Test
+    void write_shouldUseRemoteAddress_whenUserIdsAreMadeUp() throws Exception {
+        // Arrange
+        when(rateLimitService.tryAcquireAddress(anyString())).thenReturn(Duration.ZERO);
+        when(rateLimitService.tryAcquire(anyString(), any(Role.class))).thenReturn(Duration.ZERO);
+        when(userService.getUserById(any())).thenThrow(new RuntimeException("User not found"));
+
+        // Act: a fresh id on every request, and one of them repeated
+        for (String userId : new String[] {"1001", "1002", "1003", "1003"}) {
+            mockMvc.perform(delete("/api/todos/{id}", 1L).header(RateLimitInterceptor.USER_ID_HEADER, userId));
+        }
+
+        // Assert: all charged to the address, and the repeated unknown id was not looked up again
+        verify(rateLimitService, times(4)).tryAcquireAddress("127.0.0.1");
+        verify(rateLimitService, times(4)).tryAcquire("ip:127.0.0.1", Role.USER);
+        verify(userService, times(1)).getUserById(1003L);
+    }
+
+    @Test
+    void write_shouldNotLookUpUser_whenAddressIsOverLimit() throws Exception {
+        // Arrange
+        when(rateLimitService.tryAcquireAddress("127.0.0.1")).thenReturn(Duration.ofMillis(300));
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/todos/{id}", 1L).header(RateLimitInterceptor.USER_ID_HEADER, "7"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+
+        verifyNoInteractions(userService);
+        verify(rateLimitService, never()).tryAcquire(anyString(), any(Role.class));
+    }
+}
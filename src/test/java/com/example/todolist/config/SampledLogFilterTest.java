@@ -0,0 +1,58 @@
+package com.example.todolist.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SampledLogFilterTest {
+
+    private final LoggerContext loggerContext = new LoggerContext();
+    private SampledLogFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new SampledLogFilter();
+        filter.setContext(loggerContext);
+        filter.setLoggerName("org.hibernate.SQL_SLOW");
+        filter.setMaxPerSecond(2);
+        filter.start();
+    }
+
+    @Test
+    void decide_shouldDenyEventsBeyondLimitWithinOneSecond() {
+        assertThat(filter.decide(event("org.hibernate.SQL_SLOW", 1_000))).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(filter.decide(event("org.hibernate.SQL_SLOW", 1_400))).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(filter.decide(event("org.hibernate.SQL_SLOW", 1_999))).isEqualTo(FilterReply.DENY);
+    }
+
+    @Test
+    void decide_shouldStartAgainInNextSecond() {
+        filter.decide(event("org.hibernate.SQL_SLOW", 1_000));
+        filter.decide(event("org.hibernate.SQL_SLOW", 1_000));
+        filter.decide(event("org.hibernate.SQL_SLOW", 1_000));
+
+        assertThat(filter.decide(event("org.hibernate.SQL_SLOW", 2_000))).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    @Test
+    void decide_shouldLeaveOtherLoggersAlone() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(filter.decide(event("com.example.todolist.service.TodoService", 1_000)))
+                    .isEqualTo(FilterReply.NEUTRAL);
+        }
+    }
+
+    private LoggingEvent event(String loggerName, long timeStamp) {
+        LoggingEvent event = new LoggingEvent();
+        event.setLoggerName(loggerName);
+        event.setLevel(Level.INFO);
+        event.setMessage("SlowQuery");
+        event.setTimeStamp(timeStamp);
+        return event;
+    }
+}
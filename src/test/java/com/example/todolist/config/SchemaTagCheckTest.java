@@ -0,0 +1,72 @@
+package com.example.todolist.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SchemaTagCheckTest {
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:schema-tag-check;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void latestTag_shouldBeNumberOfNewestTaggedMigration() throws Exception {
+        assertThat(SchemaTagCheck.latestTag(new PathMatchingResourcePatternResolver())).isEqualTo("0022");
+    }
+
+    @Test
+    void verify_shouldPass_whenExpectedOrNewerTagApplied() {
+        // Arrange
+        createChangeLog("0016", "0017", "0018");
+
+        // Act & Assert
+        assertThatCode(() -> SchemaTagCheck.verify(dataSource, "databasechangelog", "0017"))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void verify_shouldFail_whenExpectedTagMissing() {
+        // Arrange
+        createChangeLog("0015", "0016");
+
+        // Act & Assert
+        assertThatThrownBy(() -> SchemaTagCheck.verify(dataSource, "databasechangelog", "0017"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("0017");
+    }
+
+    @Test
+    void verify_shouldFail_whenDatabaseNeverMigrated() {
+        assertThatThrownBy(() -> SchemaTagCheck.verify(dataSource, "databasechangelog", "0017"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("migrate");
+    }
+
+    private void createChangeLog(String... tags) {
+        jdbcTemplate.execute("CREATE TABLE databasechangelog (id VARCHAR(255), tag VARCHAR(255))");
+        jdbcTemplate.update("INSERT INTO databasechangelog (id, tag) VALUES ('0001-init', NULL)");
+        for (String tag : tags) {
+            jdbcTemplate.update("INSERT INTO databasechangelog (id, tag) VALUES (?, ?)", "tag-" + tag, tag);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.todolist.controller;
+
+import com.example.todolist.dto.CursorPage;
+import com.example.todolist.dto.InvoiceFilter;
+import com.example.todolist.dto.InvoiceTransition;
+import com.example.todolist.dto.InvoiceView;
+import com.example.todolist.dto.RevenueFilter;
+import com.example.todolist.dto.RevenueReportRow;
+import com.example.todolist.model.Invoice;
+import com.example.todolist.model.InvoiceStatus;
+import com.example.todolist.model.Level;
+import com.example.todolist.service.InvoiceRevenueService;
+import com.example.todolist.service.InvoiceService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import tech.ailef.snapadmin.external.SnapAdminAutoConfiguration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(
+    controllers = InvoiceController.class,
+    excludeAutoConfiguration = { SnapAdminAutoConfiguration.class }
+)
+class InvoiceControllerTest {
+
+    private static final UUID INVOICE_ID = UUID.fromString("0f8fad5b-d9cb-469f-a165-70867728950e");
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private InvoiceService invoiceService;
+
+    @MockBean
+    private InvoiceRevenueService invoiceRevenueService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void getInvoices_shouldPassFiltersAndCursor() throws Exception {
+        // Arrange
+        when(invoiceService.getInvoices(new InvoiceFilter(1L, InvoiceStatus.REVIEWING), "abc", 10))
+                .thenReturn(new CursorPage<>(List.of(view(InvoiceStatus.REVIEWING, 3L)), "next"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/invoices")
+                        .param("userId", "1")
+                        .param("status", "REVIEWING")
+                        .param("cursor", "abc")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].invoiceId").value(INVOICE_ID.toString()))
+                .andExpect(jsonPath("$.items[0].version").value(3))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void getInvoice_shouldLookUpByInvoiceId() throws Exception {
+        // Arrange
+        when(invoiceService.getInvoice(INVOICE_ID)).thenReturn(view(InvoiceStatus.CREATED, 0L));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/invoices/{invoiceId}", INVOICE_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CREATED"))
+                .andExpect(jsonPath("$.amount").value(10.0));
+    }
+
+    @Test
+    void createInvoice_shouldReturnCreatedInvoice() throws Exception {
+        // Arrange
+        when(invoiceService.createInvoice(any(Invoice.class))).thenReturn(view(InvoiceStatus.CREATED, 0L));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/invoices")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 10.00, \"level\": \"HIGH\", \"user\": {\"id\": 1}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.invoiceId").value(INVOICE_ID.toString()))
+                .andExpect(jsonPath("$.userId").value(1));
+    }
+
+    @Test
+    void transitionInvoice_shouldReturnUpdatedInvoice() throws Exception {
+        // Arrange
+        InvoiceTransition transition = new InvoiceTransition(InvoiceStatus.REVIEWING, 0L);
+        when(invoiceService.transition(INVOICE_ID, transition)).thenReturn(view(InvoiceStatus.REVIEWING, 1L));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/invoices/{invoiceId}/status", INVOICE_ID)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transition)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("REVIEWING"))
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    void transitionInvoice_shouldReturnConflict_whenTransitionInvalid() throws Exception {
+        // Arrange
+        when(invoiceService.transition(eq(INVOICE_ID), any(InvoiceTransition.class)))
+                .thenThrow(new IllegalStateException("Invoice cannot move from CREATED to COMPLETED"));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/invoices/{invoiceId}/status", INVOICE_ID)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\": \"COMPLETED\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Invoice cannot move from CREATED to COMPLETED"));
+    }
+
+    @Test
+    void transitionInvoice_shouldReturnConflict_whenConcurrentlyModified() throws Exception {
+        // Arrange
+        when(invoiceService.transition(eq(INVOICE_ID), any(InvoiceTransition.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Invoice.class, 1L));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/invoices/{invoiceId}/status", INVOICE_ID)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\": \"REVIEWING\"}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void deleteInvoice_shouldReturnOk() throws Exception {
+        // Act & Assert
+        mockMvc.perform(delete("/api/invoices/{invoiceId}", INVOICE_ID))
+                .andExpect(status().isOk());
+
+        verify(invoiceService).deleteInvoice(INVOICE_ID);
+    }
+
+    @Test
+    void getRevenue_shouldPassFilter() throws Exception {
+        // Arrange
+        LocalDate from = LocalDate.parse("2025-01-01");
+        LocalDate to = LocalDate.parse("2025-03-31");
+        RevenueFilter filter = new RevenueFilter(from, to, RevenueFilter.Granularity.MONTH, 1L, null, true);
+        when(invoiceRevenueService.getReport(filter)).thenReturn(List.of(
+                new RevenueReportRow(from, 1L, InvoiceStatus.COMPLETED, Level.HIGH, 2L, new BigDecimal("25.00"))));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/invoices/revenue")
+                        .param("from", "2025-01-01")
+                        .param("to", "2025-03-31")
+                        .param("granularity", "MONTH")
+                        .param("userId", "1")
+                        .param("byUser", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].period").value("2025-01-01"))
+                .andExpect(jsonPath("$[0].invoiceCount").value(2))
+                .andExpect(jsonPath("$[0].totalAmount").value(25.00));
+    }
+
+    @Test
+    void getRevenue_shouldReturnBadRequest_whenRangeInvalid() throws Exception {
+        // Arrange
+        when(invoiceRevenueService.getReport(any(RevenueFilter.class)))
+                .thenThrow(new IllegalArgumentException("from must not be after to"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/invoices/revenue")
+                        .param("from", "2025-02-01")
+                        .param("to", "2025-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static InvoiceView view(InvoiceStatus status, long version) {
+        return new InvoiceView(1L, INVOICE_ID, new BigDecimal("10.00"), status, Level.HIGH, 1L, version, NOW, NOW);
+    }
+}
@@ -1,5 +1,11 @@
 package com.example.todolist.controller;
 
+import com.example.todolist.dto.BatchItemResult;
+import com.example.todolist.dto.CursorPage;
+import com.example.todolist.dto.TodoFilter;
+import com.example.todolist.dto.TodoSearchHit;
+import com.example.todolist.dto.TodoView;
+import com.example.todolist.model.Level;
 import com.example.todolist.model.Role;
 import com.example.todolist.model.Todo;
 import com.example.todolist.model.User;
@@ -12,15 +18,20 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -41,22 +52,133 @@ class TodoControllerTest {
     private ObjectMapper objectMapper;
 
     @Test
-    void getAllTodos_shouldReturnTodoList() throws Exception {
+    void getTodos_shouldReturnTodoPage() throws Exception {
         // Arrange
-        User user = new User("testuser", Role.USER);
-        user.setId(1L);
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        TodoView todo1 = new TodoView(2L, "Task 1", "Desc 1", false, Level.MEDIUM, now, 1L, "testuser");
+        TodoView todo2 = new TodoView(1L, "Task 2", "Desc 2", false, Level.MEDIUM, now, 1L, "testuser");
+
+        when(todoService.getTodos(TodoFilter.none(), null, null))
+                .thenReturn(new CursorPage<>(List.of(todo1, todo2), "next"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/todos"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].title").value("Task 1"))
+                .andExpect(jsonPath("$.items[1].title").value("Task 2"))
+                .andExpect(jsonPath("$.items[0].userId").value(1))
+                .andExpect(jsonPath("$.items[0].username").value("testuser"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void searchTodos_shouldReturnRankedHits() throws Exception {
+        // Arrange
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        TodoView todo = new TodoView(2L, "Buy milk", null, false, Level.MEDIUM, now, 1L, "testuser");
+        when(todoService.searchTodos("milk", 1L, null, 20))
+                .thenReturn(new CursorPage<>(List.of(new TodoSearchHit(todo, 0.6)), "next"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/todos/search")
+                        .param("q", "milk")
+                        .param("userId", "1")
+                        .param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].todo.title").value("Buy milk"))
+                .andExpect(jsonPath("$.items[0].rank").value(0.6))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void searchTodos_shouldRequireQuery() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/todos/search"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getTodos_shouldPassFiltersAndCursor() throws Exception {
+        // Arrange
+        TodoFilter filter = new TodoFilter(1L, false, Level.HIGH);
+        when(todoService.getTodos(filter, "abc", 10))
+                .thenReturn(new CursorPage<>(List.of(), null));
 
-        Todo todo1 = new Todo("Task 1", "Desc 1", user);
-        Todo todo2 = new Todo("Task 2", "Desc 2", user);
+        // Act & Assert
+        mockMvc.perform(get("/api/todos")
+                        .param("userId", "1")
+                        .param("completed", "false")
+                        .param("level", "HIGH")
+                        .param("cursor", "abc")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(0)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
 
-        when(todoService.getAllTodos()).thenReturn(List.of(todo1, todo2));
+    @Test
+    void getTodos_shouldReturnNotModified_withoutQuery_whenUserTodosUnchanged() throws Exception {
+        // Arrange
+        when(todoService.getTodosVersion(1L)).thenReturn(7L);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/todos").param("userId", "1").header("If-None-Match", "\"7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"7\""))
+                .andExpect(content().string(""));
+        verify(todoService, never()).getTodos(any(), any(), any());
+    }
+
+    @Test
+    void getTodos_shouldReturnPageWithETag_whenUserTodosChanged() throws Exception {
+        // Arrange
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        when(todoService.getTodosVersion(1L)).thenReturn(8L);
+        when(todoService.getTodos(new TodoFilter(1L, null, null), null, null)).thenReturn(new CursorPage<>(
+                List.of(new TodoView(1L, "Task", null, true, Level.MEDIUM, now, 1L, "testuser")), null));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/todos").param("userId", "1").header("If-None-Match", "\"7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"8\""))
+                .andExpect(jsonPath("$.items[0].completed").value(true));
+    }
+
+    @Test
+    void getTodos_shouldNotSetETag_acrossUsers() throws Exception {
+        // Arrange
+        when(todoService.getTodos(TodoFilter.none(), null, null)).thenReturn(new CursorPage<>(List.of(), null));
 
         // Act & Assert
         mockMvc.perform(get("/api/todos"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(2)))
-                .andExpect(jsonPath("$[0].title").value("Task 1"))
-                .andExpect(jsonPath("$[1].title").value("Task 2"));
+                .andExpect(header().doesNotExist("ETag"));
+        verify(todoService, never()).getTodosVersion(any());
+    }
+
+    @Test
+    void searchTodos_shouldReturnNotModified_withoutQuery_whenUserTodosUnchanged() throws Exception {
+        // Arrange
+        when(todoService.getTodosVersion(1L)).thenReturn(7L);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/todos/search").param("q", "milk").param("userId", "1")
+                        .header("If-None-Match", "\"7\""))
+                .andExpect(status().isNotModified());
+        verify(todoService, never()).searchTodos(any(), any(), any(), any());
+    }
+
+    @Test
+    void getTodos_shouldReturnBadRequest_whenLimitInvalid() throws Exception {
+        // Arrange
+        when(todoService.getTodos(TodoFilter.none(), null, 1000))
+                .thenThrow(new IllegalArgumentException("limit must be between 1 and 200"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/todos").param("limit", "1000"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("limit must be between 1 and 200"));
     }
 
     @Test
@@ -118,4 +240,61 @@ class TodoControllerTest {
         mockMvc.perform(delete("/api/todos/{id}", todoId))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    void createTodos_shouldReturnPerItemResults() throws Exception {
+        // Arrange
+        User user = new User("testuser", Role.USER);
+        user.setId(1L);
+
+        List<Todo> request = List.of(new Todo("Task 1", null, user), new Todo("Task 2", null, null));
+
+        when(todoService.createTodos(anyList())).thenReturn(List.of(
+                BatchItemResult.success(0, 10L, BatchItemResult.Status.CREATED),
+                BatchItemResult.failed(1, null, "User is required")));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/todos/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(10))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[1].status").value("FAILED"))
+                .andExpect(jsonPath("$[1].error").value("User is required"));
+    }
+
+    @Test
+    void updateTodos_shouldReturnPerItemResults() throws Exception {
+        // Arrange
+        Todo update = new Todo("Task 1", null, null);
+        update.setId(5L);
+
+        when(todoService.updateTodos(anyList())).thenReturn(List.of(
+                BatchItemResult.success(0, 5L, BatchItemResult.Status.UPDATED)));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/todos/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(update))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("UPDATED"));
+    }
+
+    @Test
+    void deleteTodos_shouldReturnPerItemResults() throws Exception {
+        // Arrange
+        when(todoService.deleteTodos(List.of(1L, 2L))).thenReturn(List.of(
+                BatchItemResult.success(0, 1L, BatchItemResult.Status.DELETED),
+                BatchItemResult.failed(1, 2L, "Todo not found")));
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/todos/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("DELETED"))
+                .andExpect(jsonPath("$[1].error").value("Todo not found"));
+    }
 }
\ No newline at end of file
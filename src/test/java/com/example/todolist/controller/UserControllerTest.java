@@ -1,7 +1,12 @@
 package com.example.todolist.controller;
 
+import com.example.todolist.dto.UserSnapshot;
+import com.example.todolist.dto.UserTodoSummary;
+import com.example.todolist.model.Level;
 import com.example.todolist.model.Role;
 import com.example.todolist.model.User;
+import com.example.todolist.service.TodoStreamService;
+import com.example.todolist.service.TodoSummaryService;
 import com.example.todolist.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -13,13 +18,19 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -36,6 +47,12 @@ class UserControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private TodoSummaryService todoSummaryService;
+
+    @MockBean
+    private TodoStreamService todoStreamService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -62,7 +79,8 @@ class UserControllerTest {
         User user = new User("alice", Role.ADMIN);
         user.setId(userId);
 
-        when(userService.getUserById(userId)).thenReturn(user);
+        when(userService.getUserVersion(userId)).thenReturn(Optional.of(0L));
+        when(userService.getUserById(userId, 0L)).thenReturn(UserSnapshot.of(user));
 
         // Act & Assert
         mockMvc.perform(get("/api/users/{id}", userId))
@@ -72,6 +90,59 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.role").value("ADMIN"));
     }
 
+    @Test
+    void getUserById_shouldReturnNotFound_withoutReadingCache_whenNoVersion() throws Exception {
+        // Arrange
+        when(userService.getUserVersion(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/{id}", 1L))
+                .andExpect(status().isNotFound());
+
+        verify(userService, never()).getUserById(any());
+        verify(userService, never()).getUserById(any(), anyLong());
+    }
+
+    @Test
+    void getUserById_shouldReturnNotModified_whenETagMatchesVersion() throws Exception {
+        // Arrange
+        when(userService.getUserVersion(1L)).thenReturn(Optional.of(3L));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/{id}", 1L).header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified());
+
+        verify(userService, never()).getUserById(any());
+    }
+
+    @Test
+    void getUserById_shouldReturnUserWithETag_whenVersionChanged() throws Exception {
+        // Arrange
+        User user = new User("alice", Role.ADMIN);
+        user.setId(1L);
+        user.setVersion(4L);
+        when(userService.getUserVersion(1L)).thenReturn(Optional.of(4L));
+        when(userService.getUserById(1L, 4L)).thenReturn(UserSnapshot.of(user));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/{id}", 1L).header("If-None-Match", "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.version").value(4));
+    }
+
+    @Test
+    void getAllUsers_shouldReturnNotModified_whenETagMatches() throws Exception {
+        // Arrange
+        when(userService.getUsersVersion()).thenReturn(12L);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users").header("If-None-Match", "\"12\""))
+                .andExpect(status().isNotModified());
+
+        verify(userService, never()).getAllUsers();
+    }
+
     @Test
     void createUser_shouldReturnCreatedUser() throws Exception {
         // Arrange
@@ -122,4 +193,51 @@ class UserControllerTest {
         mockMvc.perform(delete("/api/users/{id}", userId))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    void getTodoSummary_shouldReturnCountsPerLevel() throws Exception {
+        // Arrange
+        Long userId = 1L;
+        when(todoSummaryService.getSummary(userId)).thenReturn(new UserTodoSummary(userId,
+                Map.of(Level.LOW, 0L, Level.MEDIUM, 3L, Level.HIGH, 1L),
+                Map.of(Level.LOW, 2L, Level.MEDIUM, 0L, Level.HIGH, 0L)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/{id}/todo-summary", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(1))
+                .andExpect(jsonPath("$.open.MEDIUM").value(3))
+                .andExpect(jsonPath("$.open.HIGH").value(1))
+                .andExpect(jsonPath("$.completed.LOW").value(2));
+    }
+
+    @Test
+    void getTodoSummaries_shouldReturnAllUsers() throws Exception {
+        // Arrange
+        Map<Level, Long> none = Map.of(Level.LOW, 0L, Level.MEDIUM, 0L, Level.HIGH, 0L);
+        when(todoSummaryService.getAllSummaries()).thenReturn(List.of(
+                new UserTodoSummary(1L, none, none),
+                new UserTodoSummary(2L, none, none)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/todo-summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].userId").value(2));
+    }
+
+    @Test
+    void streamTodos_shouldSubscribeFromLastEventId() throws Exception {
+        // Arrange
+        when(todoStreamService.subscribe(1L, 42L)).thenReturn(new SseEmitter());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/{id}/todos/stream", 1L)
+                        .header("Last-Event-ID", "42")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(userService).getUserById(1L);
+        verify(todoStreamService).subscribe(1L, 42L);
+    }
 }
@@ -0,0 +1,27 @@
+package com.example.todolist.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the SQL Hibernate sends so {@link QueryPlanTest} can run
+ * {@code EXPLAIN} on exactly what the repositories execute.
+ */
+public class CapturingStatementInspector implements StatementInspector {
+
+    private static final List<String> statements = new ArrayList<>();
+
+    @Override
+    public synchronized String inspect(String sql) {
+        statements.add(sql);
+        return sql;
+    }
+
+    static synchronized List<String> drain() {
+        List<String> captured = List.copyOf(statements);
+        statements.clear();
+        return captured;
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.todolist.repository;
+
+import com.example.todolist.dto.InvoiceFilter;
+import com.example.todolist.dto.InvoiceView;
+import com.example.todolist.dto.KeysetCursor;
+import com.example.todolist.model.Invoice;
+import com.example.todolist.model.InvoiceStatus;
+import com.example.todolist.model.Level;
+import com.example.todolist.model.Role;
+import com.example.todolist.model.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class InvoiceRepositoryTest {
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void findByInvoiceId_shouldReturnInvoice() {
+        // Arrange
+        User user = userRepository.save(new User("alice", Role.USER));
+        UUID invoiceId = UUID.randomUUID();
+        Invoice invoice = invoiceRepository.save(new Invoice(invoiceId, new BigDecimal("12.50"), user));
+        invoiceRepository.registerInvoiceId(invoiceId, invoice.getCreatedAt());
+
+        // Act
+        Optional<Invoice> found = invoiceRepository.findByInvoiceId(invoiceId);
+
+        // Assert
+        assertThat(found).isPresent();
+        assertThat(found.get().getAmount()).isEqualByComparingTo("12.50");
+        assertThat(found.get().getStatus()).isEqualTo(InvoiceStatus.CREATED);
+        assertThat(found.get().getVersion()).isZero();
+    }
+
+    @Test
+    void registerInvoiceId_shouldRejectTakenId() {
+        // Arrange
+        UUID invoiceId = UUID.randomUUID();
+        Instant createdAt = Instant.parse("2025-01-15T00:00:00Z");
+
+        // Act
+        boolean first = invoiceRepository.registerInvoiceId(invoiceId, createdAt);
+        // A later month, which the partitioned table alone would accept
+        boolean second = invoiceRepository.registerInvoiceId(invoiceId, createdAt.plusSeconds(40L * 24 * 3600));
+
+        // Assert
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+    }
+
+    @Test
+    void save_shouldIncrementVersion_onUpdate() {
+        // Arrange
+        User user = userRepository.save(new User("alice", Role.USER));
+        Invoice invoice = invoiceRepository.saveAndFlush(new Invoice(UUID.randomUUID(), BigDecimal.TEN, user));
+
+        // Act
+        invoice.setStatus(InvoiceStatus.REVIEWING);
+        Invoice updated = invoiceRepository.saveAndFlush(invoice);
+
+        // Assert
+        assertThat(updated.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void save_shouldRejectStaleVersion() {
+        // Arrange
+        User user = userRepository.save(new User("alice", Role.USER));
+        Invoice invoice = invoiceRepository.saveAndFlush(new Invoice(UUID.randomUUID(), BigDecimal.TEN, user));
+        entityManager.clear();
+
+        // Another writer moves the row to version 1 first
+        Invoice concurrent = invoiceRepository.findById(invoice.getId()).orElseThrow();
+        concurrent.setStatus(InvoiceStatus.REVIEWING);
+        invoiceRepository.saveAndFlush(concurrent);
+        entityManager.clear();
+
+        // Act & Assert: merging the copy read at version 0 must fail
+        invoice.setStatus(InvoiceStatus.REVIEWING);
+        assertThatThrownBy(() -> invoiceRepository.saveAndFlush(invoice))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+    }
+
+    @Test
+    void findPage_shouldOrderByUpdatedAtDescAndSeekPastCursor() {
+        // Arrange
+        User user = userRepository.save(new User("alice", Role.USER));
+        Instant t = Instant.parse("2025-01-01T00:00:00Z");
+        Invoice oldest = saveInvoice(user, InvoiceStatus.CREATED, t);
+        Invoice tieLow = saveInvoice(user, InvoiceStatus.CREATED, t.plusSeconds(60));
+        Invoice tieHigh = saveInvoice(user, InvoiceStatus.CREATED, t.plusSeconds(60));
+        Invoice newest = saveInvoice(user, InvoiceStatus.CREATED, t.plusSeconds(120));
+
+        // Act
+        List<InvoiceView> firstPage = invoiceRepository.findPage(InvoiceFilter.none(), null, 2);
+        InvoiceView last = firstPage.get(1);
+        List<InvoiceView> secondPage = invoiceRepository.findPage(InvoiceFilter.none(),
+                new KeysetCursor(last.updatedAt(), last.id()), 2);
+
+        // Assert
+        assertThat(firstPage).extracting(InvoiceView::id).containsExactly(newest.getId(), tieHigh.getId());
+        assertThat(secondPage).extracting(InvoiceView::id).containsExactly(tieLow.getId(), oldest.getId());
+        assertThat(firstPage.get(0).userId()).isEqualTo(user.getId());
+    }
+
+    @Test
+    void findPage_shouldApplyUserAndStatusFilters() {
+        // Arrange
+        User alice = userRepository.save(new User("alice", Role.USER));
+        User bob = userRepository.save(new User("bob", Role.USER));
+        Instant t = Instant.parse("2025-01-01T00:00:00Z");
+        Invoice match = saveInvoice(alice, InvoiceStatus.REVIEWING, t);
+        saveInvoice(alice, InvoiceStatus.CREATED, t);
+        saveInvoice(bob, InvoiceStatus.REVIEWING, t);
+
+        // Act
+        List<InvoiceView> result = invoiceRepository.findPage(
+                new InvoiceFilter(alice.getId(), InvoiceStatus.REVIEWING), null, 10);
+
+        // Assert
+        assertThat(result).extracting(InvoiceView::id).containsExactly(match.getId());
+    }
+
+    @Test
+    void findPage_shouldApplyCreatedAtRange() {
+        // Arrange
+        User user = userRepository.save(new User("alice", Role.USER));
+        Instant t = Instant.parse("2025-01-01T00:00:00Z");
+        saveInvoice(user, InvoiceStatus.CREATED, t, Instant.parse("2024-12-31T23:59:59Z"));
+        Invoice january = saveInvoice(user, InvoiceStatus.CREATED, t, Instant.parse("2025-01-15T00:00:00Z"));
+        saveInvoice(user, InvoiceStatus.CREATED, t, Instant.parse("2025-02-01T00:00:00Z"));
+
+        // Act
+        List<InvoiceView> result = invoiceRepository.findPage(new InvoiceFilter(null, null,
+                Instant.parse("2025-01-01T00:00:00Z"), Instant.parse("2025-02-01T00:00:00Z")), null, 10);
+
+        // Assert
+        assertThat(result).extracting(InvoiceView::id).containsExactly(january.getId());
+    }
+
+    @Test
+    void isPartitioned_shouldBeFalse_onH2() {
+        assertThat(invoiceRepository.isPartitioned()).isFalse();
+    }
+
+    private Invoice saveInvoice(User user, InvoiceStatus status, Instant updatedAt) {
+        Invoice invoice = new Invoice(UUID.randomUUID(), BigDecimal.ONE, user, status, Level.MEDIUM);
+        invoice.setUpdatedAt(updatedAt);
+        return invoiceRepository.saveAndFlush(invoice);
+    }
+
+    private Invoice saveInvoice(User user, InvoiceStatus status, Instant updatedAt, Instant createdAt) {
+        Invoice invoice = new Invoice(UUID.randomUUID(), BigDecimal.ONE, user, status, Level.MEDIUM);
+        invoice.setUpdatedAt(updatedAt);
+        invoice.setCreatedAt(createdAt);
+        return invoiceRepository.saveAndFlush(invoice);
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.todolist.repository;
+
+import com.example.todolist.dto.InvoiceFilter;
+import com.example.todolist.dto.KeysetCursor;
+import com.example.todolist.dto.RevenueFilter;
+import com.example.todolist.dto.TodoFilter;
+import com.example.todolist.model.IdempotencyKeyId;
+import com.example.todolist.model.Invoice;
+import com.example.todolist.model.InvoiceRevenueId;
+import com.example.todolist.model.InvoiceStatus;
+import com.example.todolist.model.Level;
+import com.example.todolist.model.Role;
+import com.example.todolist.model.Todo;
+import com.example.todolist.model.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@code EXPLAIN} on the SQL each repository query issues and fails when
+ * H2 plans a full scan of the queried table, so a dropped index or a query
+ * change that defeats one shows up in CI. The schema comes from the Liquibase
+ * changelog, not the entity mappings, so these are the indexes production
+ * has; the PostgreSQL-only changesets (full-text search, partitions) are
+ * skipped on H2. H2's planner is not PostgreSQL's, but a query that cannot
+ * use an index here cannot use it there either.
+ * <p>
+ * Left out on purpose: {@code streamAll} and the rollup rebuilds read every
+ * row, and {@code search} without a user is a substring scan on H2 (the GIN
+ * index PostgreSQL uses for it does not exist here).
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.todolist.repository.CapturingStatementInspector",
+        "spring.liquibase.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none"})
+@ActiveProfiles("test")
+class QueryPlanTest {
+
+    private static final KeysetCursor CURSOR = new KeysetCursor(Instant.parse("2025-01-01T00:00:00Z"), 100L);
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 1);
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private TodoSummaryRepository todoSummaryRepository;
+
+    @Autowired
+    private InvoiceRevenueRepository invoiceRevenueRepository;
+
+    @Autowired
+    private ResourceVersionRepository resourceVersionRepository;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User("alice", Role.USER));
+        for (int i = 0; i < 20; i++) {
+            todoRepository.save(new Todo("Task " + i, null, user, Level.values()[i % 3]));
+            invoiceRepository.save(new Invoice(UUID.randomUUID(), BigDecimal.TEN, user,
+                    InvoiceStatus.values()[i % 5], Level.MEDIUM));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        CapturingStatementInspector.drain();
+    }
+
+    @Test
+    void todoQueries_shouldUseIndexes() {
+        assertNoFullScan("TODOLIST", () -> todoRepository.findPage(TodoFilter.none(), null, 51));
+        assertNoFullScan("TODOLIST", () -> todoRepository.findPage(TodoFilter.none(), CURSOR, 51));
+        assertNoFullScan("TODOLIST", () -> todoRepository.findPage(new TodoFilter(user.getId(), null, null), CURSOR, 51));
+        assertNoFullScan("TODOLIST", () -> todoRepository.findPage(new TodoFilter(null, true, Level.HIGH), CURSOR, 51));
+        assertNoFullScan("TODOLIST", () -> todoRepository.findPage(new TodoFilter(null, false, null), null, 51));
+        assertNoFullScan("TODOLIST", () -> todoRepository.findById(1L));
+        assertNoFullScan("TODOLIST", () -> todoRepository.findAllById(List.of(1L, 2L)));
+        assertNoFullScan("TODOLIST", () -> todoRepository.findKeys(List.of(1L, 2L)));
+        assertNoFullScan("TODOLIST", () -> todoRepository.deleteAllByIdInBatch(List.of(-1L)));
+        assertNoFullScan("TODOLIST", () -> todoRepository.search("task 1", user.getId(), 0, 20));
+    }
+
+    @Test
+    void userQueries_shouldUseIndexes() {
+        assertNoFullScan("USERS", () -> userRepository.findByUsername("alice"));
+        assertNoFullScan("USERS", () -> userRepository.findById(user.getId()));
+        assertNoFullScan("USERS", () -> userRepository.findAllById(List.of(user.getId())));
+        assertNoFullScan("USERS", () -> userRepository.findVersionById(user.getId()));
+        assertNoFullScan("USERS", () -> userRepository.findUsernameById(user.getId()));
+    }
+
+    @Test
+    void todoSummaryQueries_shouldUseIndexes() {
+        assertNoFullScan("TODO_SUMMARY", () -> todoSummaryRepository.findByIdUserId(user.getId()));
+        assertNoFullScan("TODO_SUMMARY", () -> todoSummaryRepository.increment(user.getId(), false, Level.LOW, 1));
+        assertNoFullScan("TODO_SUMMARY", () -> todoSummaryRepository.upsert(user.getId(), true, Level.HIGH, 1));
+    }
+
+    @Test
+    void invoiceQueries_shouldUseIndexes() {
+        assertNoFullScan("INVOICES", () -> invoiceRepository.findByInvoiceId(UUID.randomUUID()));
+        assertNoFullScan("INVOICES", () -> invoiceRepository.findByKey(1L, Instant.now()));
+        assertNoFullScan("INVOICE_IDS", () -> invoiceRepository.findByInvoiceId(UUID.randomUUID()));
+        assertNoFullScan("INVOICE_IDS", () -> invoiceRepository.registerInvoiceId(UUID.randomUUID(), Instant.now()));
+        assertNoFullScan("INVOICE_IDS", () -> invoiceRepository.releaseInvoiceId(UUID.randomUUID()));
+        assertNoFullScan("INVOICES", () -> invoiceRepository.findPage(InvoiceFilter.none(), CURSOR, 51));
+        assertNoFullScan("INVOICES", () -> invoiceRepository.findPage(
+                new InvoiceFilter(user.getId(), null), CURSOR, 51));
+        assertNoFullScan("INVOICES", () -> invoiceRepository.findPage(
+                new InvoiceFilter(null, InvoiceStatus.PROCESSING), CURSOR, 51));
+        assertNoFullScan("INVOICES", () -> invoiceRepository.findPage(
+                new InvoiceFilter(user.getId(), InvoiceStatus.CREATED), null, 51));
+        assertNoFullScan("INVOICES", () -> invoiceRepository.findClaimable(
+                InvoiceStatus.CREATED, CURSOR.timestamp(), PageRequest.of(0, 10)));
+        assertNoFullScan("INVOICES", () -> invoiceRepository.findExpiredLeases(
+                List.of(InvoiceStatus.REVIEWING, InvoiceStatus.PROCESSING), CURSOR.timestamp(), Instant.now(),
+                PageRequest.of(0, 10)));
+        assertNoFullScan("INVOICES", () -> invoiceRepository.findBacklog(InvoiceStatus.CREATED, CURSOR.timestamp()));
+    }
+
+    @Test
+    void invoiceRevenueQueries_shouldUseIndexes() {
+        InvoiceRevenueId id = new InvoiceRevenueId(DAY, user.getId(), InvoiceStatus.CREATED, Level.MEDIUM);
+        assertNoFullScan("INVOICE_DAILY_REVENUE", () -> invoiceRevenueRepository.increment(
+                DAY, user.getId(), InvoiceStatus.CREATED, Level.MEDIUM, 1, BigDecimal.TEN));
+        assertNoFullScan("INVOICE_DAILY_REVENUE", () -> invoiceRevenueRepository.upsert(id, 1, BigDecimal.TEN));
+        assertNoFullScan("INVOICE_DAILY_REVENUE", () -> invoiceRevenueRepository.findReport(new RevenueFilter(
+                DAY, DAY.plusDays(30), RevenueFilter.Granularity.DAY, null, InvoiceStatus.CREATED, false)));
+        assertNoFullScan("INVOICE_DAILY_REVENUE", () -> invoiceRevenueRepository.findReport(new RevenueFilter(
+                DAY, DAY.plusYears(1), RevenueFilter.Granularity.MONTH, user.getId(), null, true)));
+    }
+
+    @Test
+    void resourceVersionQueries_shouldUseIndexes() {
+        assertNoFullScan("RESOURCE_VERSIONS", () -> resourceVersionRepository.findVersion("users"));
+        assertNoFullScan("RESOURCE_VERSIONS", () -> resourceVersionRepository.increment("users"));
+    }
+
+    @Test
+    void idempotencyKeyQueries_shouldUseIndexes() {
+        IdempotencyKeyId id = new IdempotencyKeyId("todos", "key-1");
+        Instant now = Instant.now();
+        assertNoFullScan("IDEMPOTENCY_KEYS", () -> idempotencyKeyRepository.find("todos", "key-1"));
+        assertNoFullScan("IDEMPOTENCY_KEYS", () -> idempotencyKeyRepository.complete(
+                id, 200, "application/json", "{}", now));
+        assertNoFullScan("IDEMPOTENCY_KEYS", () -> idempotencyKeyRepository.release(id));
+        assertNoFullScan("IDEMPOTENCY_KEYS", () -> idempotencyKeyRepository.deleteIfExpired(id, now));
+        assertNoFullScan("IDEMPOTENCY_KEYS", () -> idempotencyKeyRepository.deleteExpired(now));
+    }
+
+    private void assertNoFullScan(String table, Runnable query) {
+        // Make sure lookups hit the database rather than the persistence context
+        entityManager.clear();
+        query.run();
+        List<String> statements = CapturingStatementInspector.drain();
+        assertThat(statements).as("SQL issued by the query").isNotEmpty();
+
+        for (String sql : statements) {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+            assertThat(plan)
+                    .as("plan for %s", sql)
+                    .doesNotContain("PUBLIC." + table + ".tableScan");
+        }
+    }
+}
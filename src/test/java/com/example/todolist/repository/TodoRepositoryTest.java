@@ -1,18 +1,31 @@
 package com.example.todolist.repository;
 
+import com.example.todolist.dto.KeysetCursor;
+import com.example.todolist.dto.TodoFilter;
+import com.example.todolist.dto.TodoKey;
+import com.example.todolist.dto.TodoSearchHit;
+import com.example.todolist.dto.TodoView;
+import com.example.todolist.model.Level;
 import com.example.todolist.model.Role;
 import com.example.todolist.model.Todo;
 import com.example.todolist.model.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @ActiveProfiles("test")
 class TodoRepositoryTest {
 
@@ -22,6 +35,9 @@ class TodoRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     void shouldSaveAndFindTodo() {
         // Arrange
@@ -106,4 +122,168 @@ class TodoRepositoryTest {
             }
         )).isNotNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    void findPage_shouldSeekByCreatedAtThenId() {
+        // Arrange
+        User user = userRepository.save(new User("pager", Role.USER));
+        Instant sameInstant = Instant.parse("2025-01-01T00:00:00Z");
+        Todo oldest = saveTodo("oldest", user, Level.MEDIUM, false, sameInstant.minusSeconds(60));
+        Todo tieLow = saveTodo("tie-low", user, Level.MEDIUM, false, sameInstant);
+        Todo tieHigh = saveTodo("tie-high", user, Level.MEDIUM, false, sameInstant);
+        Todo newest = saveTodo("newest", user, Level.MEDIUM, false, sameInstant.plusSeconds(60));
+
+        // Act
+        List<TodoView> first = todoRepository.findPage(TodoFilter.none(), null, 2);
+        TodoView lastOfFirst = first.get(first.size() - 1);
+        List<TodoView> second = todoRepository.findPage(TodoFilter.none(),
+                new KeysetCursor(lastOfFirst.createdAt(), lastOfFirst.id()), 2);
+
+        // Assert
+        assertThat(first).extracting(TodoView::id).containsExactly(newest.getId(), tieHigh.getId());
+        assertThat(second).extracting(TodoView::id).containsExactly(tieLow.getId(), oldest.getId());
+    }
+
+    @Test
+    void findPage_shouldApplyFilters() {
+        // Arrange
+        User alice = userRepository.save(new User("alice", Role.USER));
+        User bob = userRepository.save(new User("bob", Role.USER));
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        Todo match = saveTodo("match", alice, Level.HIGH, true, now);
+        saveTodo("other level", alice, Level.LOW, true, now);
+        saveTodo("open", alice, Level.HIGH, false, now);
+        saveTodo("other user", bob, Level.HIGH, true, now);
+
+        // Act
+        List<TodoView> result = todoRepository.findPage(new TodoFilter(alice.getId(), true, Level.HIGH), null, 10);
+
+        // Assert
+        assertThat(result).extracting(TodoView::id).containsExactly(match.getId());
+    }
+
+    @Test
+    void findPage_shouldLoadOwnersInSingleStatement() {
+        // Arrange
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        for (int i = 0; i < 5; i++) {
+            User user = userRepository.save(new User("user" + i, Role.USER));
+            saveTodo("Task " + i, user, Level.MEDIUM, false, now.plusSeconds(i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        List<TodoView> result = todoRepository.findPage(TodoFilter.none(), null, 10);
+
+        // Assert
+        assertThat(result).extracting(TodoView::username)
+                .containsExactly("user4", "user3", "user2", "user1", "user0");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void saveAll_shouldSendInsertsAsJdbcBatch() {
+        // Arrange
+        User user = userRepository.save(new User("importer", Role.USER));
+        entityManager.flush();
+
+        List<Todo> todos = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            todos.add(new Todo("Task " + i, null, user));
+        }
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        todoRepository.saveAll(todos);
+        entityManager.flush();
+
+        // Assert: 3 sequence calls (blocks of 50) and 3 insert batches
+        // instead of 120 single-row INSERTs
+        assertThat(todos).allSatisfy(todo -> assertThat(todo.getId()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+    }
+
+    @Test
+    void findKeys_shouldReturnOnlyPersistedTodosWithSummaryKey() {
+        // Arrange
+        User user = userRepository.save(new User("testuser", Role.USER));
+        Todo todo = todoRepository.save(new Todo("Exists", null, user, Level.HIGH));
+
+        // Act
+        List<TodoKey> result = todoRepository.findKeys(List.of(todo.getId(), -1L));
+
+        // Assert
+        assertThat(result).containsExactly(new TodoKey(todo.getId(), user.getId(), false, Level.HIGH));
+    }
+
+    private Todo saveTodo(String title, User user, Level level, boolean completed, Instant createdAt) {
+        Todo todo = new Todo(title, null, user, level);
+        todo.setCompleted(completed);
+        todo.setCreatedAt(createdAt);
+        return todoRepository.save(todo);
+    }
+
+    @Test
+    void search_shouldMatchAllTermsAndRankTitleHitsFirst() {
+        // Arrange
+        User alice = userRepository.save(new User("alice", Role.USER));
+        User bob = userRepository.save(new User("bob", Role.USER));
+        todoRepository.save(new Todo("Weekly report", "Send the budget to finance", alice));
+        todoRepository.save(new Todo("Budget review", "Prepare the weekly numbers", alice));
+        todoRepository.save(new Todo("Budget only", null, alice));
+        todoRepository.save(new Todo("Budget weekly", null, bob));
+
+        // Act
+        List<TodoSearchHit> all = todoRepository.search("BUDGET weekly", null, 0, 10);
+        List<TodoSearchHit> alices = todoRepository.search("budget weekly", alice.getId(), 0, 10);
+
+        // Assert
+        assertThat(all).extracting(hit -> hit.todo().title())
+            .containsExactly("Budget weekly", "Budget review", "Weekly report");
+        assertThat(all.get(0).rank()).isGreaterThan(all.get(1).rank());
+        assertThat(alices).extracting(hit -> hit.todo().username()).containsOnly("alice");
+        assertThat(alices).hasSize(2);
+    }
+
+    @Test
+    void search_shouldTreatLikeWildcardsLiterally() {
+        // Arrange
+        User user = userRepository.save(new User("alice", Role.USER));
+        todoRepository.save(new Todo("Reach 100% coverage", null, user));
+        todoRepository.save(new Todo("Reach 1000 users", null, user));
+
+        // Act
+        List<TodoSearchHit> hits = todoRepository.search("100%", null, 0, 10);
+
+        // Assert
+        assertThat(hits).extracting(hit -> hit.todo().title()).containsExactly("Reach 100% coverage");
+    }
+
+    @Test
+    void search_shouldPageByOffset() {
+        // Arrange
+        User user = userRepository.save(new User("alice", Role.USER));
+        for (int i = 0; i < 5; i++) {
+            todoRepository.save(new Todo("Groceries " + i, null, user));
+        }
+
+        // Act
+        List<TodoSearchHit> first = todoRepository.search("groceries", null, 0, 3);
+        List<TodoSearchHit> second = todoRepository.search("groceries", null, 3, 3);
+
+        // Assert
+        assertThat(first).hasSize(3);
+        assertThat(second).hasSize(2);
+        assertThat(first).extracting(hit -> hit.todo().id())
+            .doesNotContainAnyElementsOf(second.stream().map(hit -> hit.todo().id()).toList());
+    }
+}
@@ -1,13 +1,19 @@
 package com.example.todolist.repository;
 
+import com.example.todolist.model.Invoice;
+import com.example.todolist.model.Level;
 import com.example.todolist.model.Role;
+import com.example.todolist.model.Todo;
 import com.example.todolist.model.User;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -18,6 +24,15 @@ class UserRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private TodoSummaryRepository todoSummaryRepository;
+
     @Test
     void shouldSaveAndFindUser() {
         // Arrange
@@ -87,6 +102,37 @@ class UserRepositoryTest {
         assertThat(userRepository.findById(user.getId())).isEmpty();
     }
 
+    @Test
+    void deleteWithDependents_shouldRemoveTodosInvoicesAndSummariesInChunks() {
+        // Arrange
+        User user = userRepository.save(new User("power", Role.USER));
+        User other = userRepository.save(new User("other", Role.USER));
+        for (int i = 0; i < 5; i++) {
+            todoRepository.save(new Todo("Todo " + i, null, user));
+        }
+        Todo kept = todoRepository.save(new Todo("Kept", null, other));
+        Invoice invoice = invoiceRepository.save(new Invoice(UUID.randomUUID(), BigDecimal.ONE, user));
+        invoiceRepository.registerInvoiceId(invoice.getInvoiceId(), invoice.getCreatedAt());
+        Invoice keptInvoice = invoiceRepository.save(new Invoice(UUID.randomUUID(), BigDecimal.ONE, other));
+        invoiceRepository.registerInvoiceId(keptInvoice.getInvoiceId(), keptInvoice.getCreatedAt());
+        todoSummaryRepository.upsert(user.getId(), false, Level.MEDIUM, 5);
+        todoSummaryRepository.upsert(other.getId(), false, Level.MEDIUM, 1);
+
+        // Act
+        UserRepository.DeletedRows deleted = userRepository.deleteWithDependents(user.getId(), 2);
+
+        // Assert
+        assertThat(deleted).isEqualTo(new UserRepository.DeletedRows(5, 1, 1));
+        assertThat(userRepository.findById(user.getId())).isEmpty();
+        assertThat(todoRepository.findAll()).extracting(Todo::getId).containsExactly(kept.getId());
+        assertThat(invoiceRepository.findAll()).extracting(Invoice::getId).containsExactly(keptInvoice.getId());
+        assertThat(todoSummaryRepository.findByIdUserId(user.getId())).isEmpty();
+        assertThat(todoSummaryRepository.findByIdUserId(other.getId())).hasSize(1);
+        // The deleted invoice's id can be issued again, the kept one's cannot
+        assertThat(invoiceRepository.registerInvoiceId(invoice.getInvoiceId(), Instant.now())).isTrue();
+        assertThat(invoiceRepository.registerInvoiceId(keptInvoice.getInvoiceId(), Instant.now())).isFalse();
+    }
+
     @Test
     void shouldEnforceUsernameNotNull() {
         // Arrange
@@ -0,0 +1,115 @@
+package com.example.todolist.service;
+
+import com.example.todolist.model.Role;
+import com.example.todolist.model.Todo;
+import com.example.todolist.model.User;
+import com.example.todolist.repository.TodoRepository;
+import com.example.todolist.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(ExportService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class ExportServiceTest {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportTodos_shouldWriteOneJsonObjectPerLine() throws Exception {
+        // Arrange
+        User alice = userRepository.save(new User("alice", Role.USER));
+        User bob = userRepository.save(new User("bob", Role.ADMIN));
+        todoRepository.save(new Todo("Task 1", "Desc 1", alice));
+        todoRepository.save(new Todo("Task 2", "Desc 2", bob));
+        todoRepository.save(new Todo("Task 3", "Desc 3", alice));
+        entityManager.flush();
+        entityManager.clear();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long count = exportService.exportTodos(out);
+
+        // Assert
+        List<JsonNode> lines = readLines(out);
+        assertThat(count).isEqualTo(3);
+        assertThat(lines).extracting(node -> node.get("title").asText())
+                .containsExactly("Task 1", "Task 2", "Task 3");
+        assertThat(lines).extracting(node -> node.get("user").get("username").asText())
+                .containsExactly("alice", "bob", "alice");
+    }
+
+    @Test
+    void exportTodos_shouldNotRetainEntitiesInPersistenceContext() throws Exception {
+        // Arrange
+        User alice = userRepository.save(new User("alice", Role.USER));
+        todoRepository.save(new Todo("Task 1", "Desc 1", alice));
+        todoRepository.save(new Todo("Task 2", "Desc 2", alice));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        exportService.exportTodos(new ByteArrayOutputStream());
+
+        // Assert
+        assertThat(entityManager.unwrap(org.hibernate.Session.class)
+                .getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    void exportUsers_shouldWriteAllUsers() throws Exception {
+        // Arrange
+        userRepository.save(new User("alice", Role.USER));
+        userRepository.save(new User("bob", Role.MANAGER));
+        entityManager.flush();
+        entityManager.clear();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long count = exportService.exportUsers(out);
+
+        // Assert
+        assertThat(count).isEqualTo(2);
+        assertThat(readLines(out)).extracting(node -> node.get("username").asText())
+                .containsExactly("alice", "bob");
+    }
+
+    private List<JsonNode> readLines(ByteArrayOutputStream out) throws Exception {
+        List<JsonNode> nodes = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            nodes.add(objectMapper.readTree(line));
+        }
+        return nodes;
+    }
+}
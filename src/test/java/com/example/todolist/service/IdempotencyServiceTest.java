@@ -0,0 +1,137 @@
+package com.example.todolist.service;
+
+import com.example.todolist.config.IdempotencyProperties;
+import com.example.todolist.model.IdempotencyKey;
+import com.example.todolist.model.IdempotencyKeyId;
+import com.example.todolist.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not wrapped in a test transaction: claims commit on their own, as they do
+// for concurrent requests
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(IdempotencyService.class)
+@EnableConfigurationProperties(IdempotencyProperties.class)
+@ActiveProfiles("test")
+class IdempotencyServiceTest {
+
+    private static final String SCOPE = "POST /api/todos";
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        idempotencyKeyRepository.deleteAll();
+    }
+
+    @Test
+    void claim_shouldReturnPendingRecord_whenKeyAlreadyClaimed() {
+        // Arrange
+        idempotencyService.claim(SCOPE, "k1", "hash");
+
+        // Act
+        Optional<IdempotencyKey> second = idempotencyService.claim(SCOPE, "k1", "hash");
+
+        // Assert
+        assertThat(second).isPresent();
+        assertThat(second.get().isCompleted()).isFalse();
+    }
+
+    @Test
+    void claim_shouldReturnStoredResponse_afterComplete() {
+        // Arrange
+        idempotencyService.claim(SCOPE, "k1", "hash");
+        idempotencyService.complete(SCOPE, "k1", 200, "application/json", "{\"id\":1}");
+
+        // Act
+        Optional<IdempotencyKey> replay = idempotencyService.claim(SCOPE, "k1", "hash");
+
+        // Assert
+        assertThat(replay).hasValueSatisfying(record -> {
+            assertThat(record.getResponseStatus()).isEqualTo(200);
+            assertThat(record.getResponseBody()).isEqualTo("{\"id\":1}");
+        });
+    }
+
+    @Test
+    void claim_shouldSucceedAgain_afterReleaseOrExpiry() {
+        // Arrange
+        idempotencyService.claim(SCOPE, "released", "hash");
+        idempotencyService.release(SCOPE, "released");
+        idempotencyService.claim(SCOPE, "expired", "hash");
+        jdbcTemplate.update("update idempotency_keys set expires_at = dateadd('MINUTE', -1, current_timestamp) "
+                + "where idempotency_key = 'expired'");
+
+        // Act & Assert
+        assertThat(idempotencyService.claim(SCOPE, "released", "hash")).isEmpty();
+        assertThat(idempotencyService.claim(SCOPE, "expired", "hash")).isEmpty();
+        assertThat(idempotencyService.claim("POST /api/users", "released", "hash")).isEmpty();
+    }
+
+    @Test
+    void claim_shouldGrantKeyOnce_whenDuplicatesRace() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Optional<IdempotencyKey>>> claims = new ArrayList<>();
+
+        // Act
+        try {
+            for (int i = 0; i < 8; i++) {
+                claims.add(executor.submit(() -> idempotencyService.claim(SCOPE, "race", "hash")));
+            }
+            int granted = 0;
+            for (Future<Optional<IdempotencyKey>> claim : claims) {
+                if (claim.get().isEmpty()) {
+                    granted++;
+                }
+            }
+
+            // Assert
+            assertThat(granted).isEqualTo(1);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void deleteExpired_shouldKeepLiveKeys() {
+        // Arrange
+        idempotencyService.claim(SCOPE, "live", "hash");
+        idempotencyService.claim(SCOPE, "old", "hash");
+        jdbcTemplate.update("update idempotency_keys set expires_at = dateadd('MINUTE', -1, current_timestamp) "
+                + "where idempotency_key = 'old'");
+
+        // Act
+        int deleted = idempotencyService.deleteExpired();
+
+        // Assert
+        assertThat(deleted).isEqualTo(1);
+        assertThat(idempotencyKeyRepository.findAll()).extracting(IdempotencyKey::getId)
+                .containsExactly(new IdempotencyKeyId(SCOPE, "live"));
+    }
+}
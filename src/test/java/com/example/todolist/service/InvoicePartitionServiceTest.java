@@ -0,0 +1,123 @@
+package com.example.todolist.service;
+
+import com.example.todolist.config.InvoicePartitionProperties;
+import com.example.todolist.config.InvoicePartitionProperties.RetentionAction;
+import com.example.todolist.repository.InvoiceRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InvoicePartitionServiceTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-06-10T03:15:00Z"), ZoneOffset.UTC);
+
+    @Mock
+    private InvoiceRepository invoiceRepository;
+
+    @Test
+    void maintain_shouldCreateMissingUpcomingPartitions() {
+        // Arrange
+        when(invoiceRepository.isPartitioned()).thenReturn(true);
+        when(invoiceRepository.findPartitionMonths()).thenReturn(List.of(YearMonth.of(2025, 6), YearMonth.of(2025, 7)));
+
+        // Act
+        service(properties(3, 0, RetentionAction.DETACH)).maintain();
+
+        // Assert
+        verify(invoiceRepository).createPartition(YearMonth.of(2025, 8));
+        verify(invoiceRepository).createPartition(YearMonth.of(2025, 9));
+        verify(invoiceRepository, times(2)).createPartition(any());
+        verify(invoiceRepository, never()).removePartition(any(), anyBoolean());
+    }
+
+    @Test
+    void maintain_shouldRemoveMonthsBeforeRetentionWindow() {
+        // Arrange
+        when(invoiceRepository.isPartitioned()).thenReturn(true);
+        when(invoiceRepository.findPartitionMonths()).thenReturn(List.of(
+                YearMonth.of(2024, 2), YearMonth.of(2024, 3), YearMonth.of(2024, 4),
+                YearMonth.of(2025, 6), YearMonth.of(2025, 7)));
+
+        // Act
+        service(properties(1, 14, RetentionAction.DROP)).maintain();
+
+        // Assert: June 2025 minus 14 months keeps April 2024 onwards
+        verify(invoiceRepository).limitLockWait(Duration.ofSeconds(5));
+        verify(invoiceRepository).removePartition(YearMonth.of(2024, 2), true);
+        verify(invoiceRepository).removePartition(YearMonth.of(2024, 3), true);
+        verify(invoiceRepository, times(2)).removePartition(any(), anyBoolean());
+        verify(invoiceRepository, never()).createPartition(any());
+    }
+
+    @Test
+    void maintain_shouldDoNothing_whenTableIsNotPartitioned() {
+        // Arrange
+        when(invoiceRepository.isPartitioned()).thenReturn(false);
+
+        // Act
+        service(properties(3, 24, RetentionAction.DETACH)).maintain();
+
+        // Assert
+        verify(invoiceRepository).isPartitioned();
+        verifyNoMoreInteractions(invoiceRepository);
+    }
+
+    @Test
+    void maintain_shouldDoNothing_outsideMaintenanceWindow() {
+        // Arrange
+        InvoicePartitionProperties properties = new InvoicePartitionProperties(true, 3, 24, RetentionAction.DROP,
+                LocalTime.of(1, 0), LocalTime.of(3, 0), Duration.ofSeconds(5));
+
+        // Act
+        service(properties).maintain();
+
+        // Assert
+        verifyNoInteractions(invoiceRepository);
+    }
+
+    @Test
+    void inMaintenanceWindow_shouldHandleWindowsPastMidnight() {
+        InvoicePartitionProperties properties = new InvoicePartitionProperties(true, 3, 24, RetentionAction.DROP,
+                LocalTime.of(23, 0), LocalTime.of(1, 0), Duration.ofSeconds(5));
+
+        assertThat(properties.inMaintenanceWindow(LocalTime.of(23, 30))).isTrue();
+        assertThat(properties.inMaintenanceWindow(LocalTime.of(0, 30))).isTrue();
+        assertThat(properties.inMaintenanceWindow(LocalTime.of(1, 0))).isFalse();
+        assertThat(properties.inMaintenanceWindow(LocalTime.of(12, 0))).isFalse();
+    }
+
+    @Test
+    void retainedSince_shouldStartAtFirstDayOfOldestKeptMonth() {
+        InvoicePartitionProperties properties = properties(3, 24, RetentionAction.DETACH);
+
+        assertThat(properties.retainedSince(LocalDate.of(2025, 6, 10))).isEqualTo(LocalDate.of(2023, 6, 1));
+        assertThat(properties(3, 0, RetentionAction.DETACH)
+                .retainedSince(LocalDate.of(2025, 6, 10))).isNull();
+    }
+
+    private static InvoicePartitionProperties properties(int premakeMonths, int retentionMonths,
+                                                         RetentionAction retentionAction) {
+        return new InvoicePartitionProperties(true, premakeMonths, retentionMonths, retentionAction,
+                LocalTime.of(3, 0), LocalTime.of(5, 0), Duration.ofSeconds(5));
+    }
+
+    private InvoicePartitionService service(InvoicePartitionProperties properties) {
+        return new InvoicePartitionService(invoiceRepository, properties, CLOCK);
+    }
+}
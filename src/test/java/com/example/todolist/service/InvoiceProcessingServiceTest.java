@@ -0,0 +1,260 @@
+package com.example.todolist.service;
+
+import com.example.todolist.config.InvoicePartitionProperties;
+import com.example.todolist.config.InvoiceWorkerProperties;
+import com.example.todolist.dto.InvoiceKey;
+import com.example.todolist.dto.InvoiceView;
+import com.example.todolist.job.InvoiceWorker;
+import com.example.todolist.model.Invoice;
+import com.example.todolist.model.InvoiceStatus;
+import com.example.todolist.model.Level;
+import com.example.todolist.model.Role;
+import com.example.todolist.model.User;
+import com.example.todolist.repository.InvoiceRepository;
+import com.example.todolist.repository.InvoiceRevenueRepository;
+import com.example.todolist.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Not wrapped in a test transaction: claims must commit to be seen by other
+// claimers, as they would across instances.
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({InvoiceProcessingService.class, InvoiceRevenueService.class})
+@EnableConfigurationProperties(InvoicePartitionProperties.class)
+@ActiveProfiles("test")
+class InvoiceProcessingServiceTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(5);
+
+    @Autowired
+    private InvoiceProcessingService invoiceProcessingService;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private InvoiceRevenueRepository invoiceRevenueRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User alice;
+
+    @BeforeEach
+    void setUp() {
+        alice = userRepository.save(new User("alice", Role.USER));
+    }
+
+    @AfterEach
+    void tearDown() {
+        invoiceRepository.deleteAll();
+        invoiceRevenueRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void claim_shouldTakeHighLevelFirst_thenOldest() {
+        // Arrange
+        Instant now = Instant.now();
+        Invoice oldLow = invoice(Level.LOW, now.minusSeconds(300));
+        Invoice newHigh = invoice(Level.HIGH, now.minusSeconds(10));
+        Invoice oldHigh = invoice(Level.HIGH, now.minusSeconds(200));
+        Invoice medium = invoice(Level.MEDIUM, now.minusSeconds(100));
+
+        // Act
+        List<InvoiceKey> claimed = invoiceProcessingService.claim("w1", 3, LEASE);
+
+        // Assert
+        assertThat(claimed).containsExactly(key(oldHigh), key(newHigh), key(medium));
+        Invoice claimedInvoice = invoiceRepository.findById(oldHigh.getId()).orElseThrow();
+        assertThat(claimedInvoice.getStatus()).isEqualTo(InvoiceStatus.REVIEWING);
+        assertThat(claimedInvoice.getClaimedBy()).isEqualTo("w1");
+        assertThat(claimedInvoice.getLeaseExpiresAt()).isAfter(now);
+        assertThat(invoiceRepository.findById(oldLow.getId()).orElseThrow().getClaimedBy()).isNull();
+    }
+
+    @Test
+    void claim_shouldSkipInvoicesClaimedByAnotherWorker() {
+        // Arrange
+        invoice(Level.HIGH, Instant.now());
+        Invoice second = invoice(Level.LOW, Instant.now());
+        invoiceProcessingService.claim("w1", 1, LEASE);
+
+        // Act
+        List<InvoiceKey> claimed = invoiceProcessingService.claim("w2", 10, LEASE);
+
+        // Assert
+        assertThat(claimed).containsExactly(key(second));
+    }
+
+    @Test
+    void claim_shouldHandOutDisjointBatches_whenConcurrent() throws Exception {
+        // Arrange
+        for (int i = 0; i < 20; i++) {
+            invoice(Level.MEDIUM, Instant.now());
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+
+        // Act
+        List<Future<List<InvoiceKey>>> batches = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            String workerId = "w" + i;
+            batches.add(pool.submit(() -> invoiceProcessingService.claim(workerId, 5, LEASE)));
+        }
+        List<InvoiceKey> all = new ArrayList<>();
+        for (Future<List<InvoiceKey>> batch : batches) {
+            all.addAll(batch.get());
+        }
+        pool.shutdown();
+
+        // Assert
+        assertThat(all).hasSize(20).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void claim_shouldReclaimExpiredLease() {
+        // Arrange
+        Invoice invoice = invoice(Level.MEDIUM, Instant.now());
+        invoiceProcessingService.claim("w1", 1, Duration.ofSeconds(-1));
+        invoiceProcessingService.start(key(invoice), "w1");
+
+        // Act
+        List<InvoiceKey> claimed = invoiceProcessingService.claim("w2", 1, LEASE);
+
+        // Assert
+        assertThat(claimed).containsExactly(key(invoice));
+        assertThat(invoiceProcessingService.start(key(invoice), "w2"))
+            .map(InvoiceView::status).contains(InvoiceStatus.PROCESSING);
+        // The first worker no longer holds the claim and cannot record an outcome
+        assertThat(invoiceProcessingService.finish(key(invoice), "w1", InvoiceStatus.COMPLETED)).isFalse();
+    }
+
+    @Test
+    void startAndFinish_shouldCompleteInvoice_andReleaseClaim() {
+        // Arrange
+        Invoice invoice = invoice(Level.MEDIUM, Instant.now());
+        invoiceProcessingService.claim("w1", 1, LEASE);
+
+        // Act
+        Optional<InvoiceView> started = invoiceProcessingService.start(key(invoice), "w1");
+        boolean finished = invoiceProcessingService.finish(key(invoice), "w1", InvoiceStatus.REJECTED);
+
+        // Assert
+        assertThat(started).map(InvoiceView::status).contains(InvoiceStatus.PROCESSING);
+        assertThat(finished).isTrue();
+        Invoice done = invoiceRepository.findById(invoice.getId()).orElseThrow();
+        assertThat(done.getStatus()).isEqualTo(InvoiceStatus.REJECTED);
+        assertThat(done.getClaimedBy()).isNull();
+        assertThat(done.getLeaseExpiresAt()).isNull();
+        assertThat(done.getUpdatedAt()).isAfterOrEqualTo(done.getCreatedAt());
+    }
+
+    @Test
+    void finish_shouldRejectNonTerminalOutcome() {
+        // Arrange
+        Invoice invoice = invoice(Level.MEDIUM, Instant.now());
+
+        // Act & Assert
+        assertThatThrownBy(() -> invoiceProcessingService.finish(key(invoice), "w1", InvoiceStatus.REVIEWING))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void start_shouldNotFindInvoice_whenCreatedAtDoesNotMatch() {
+        // Arrange
+        Invoice invoice = invoice(Level.MEDIUM, Instant.now());
+        invoiceProcessingService.claim("w1", 1, LEASE);
+
+        // Act
+        Optional<InvoiceView> started = invoiceProcessingService.start(
+            new InvoiceKey(invoice.getId(), invoice.getCreatedAt().minusSeconds(1)), "w1");
+
+        // Assert
+        assertThat(started).isEmpty();
+        assertThat(invoiceRepository.findById(invoice.getId()).orElseThrow().getStatus())
+            .isEqualTo(InvoiceStatus.REVIEWING);
+    }
+
+    @Test
+    void worker_shouldProcessBacklog() throws Exception {
+        // Arrange
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(invoice(Level.MEDIUM, Instant.now()).getId());
+        }
+        Invoice zero = invoiceRepository.save(new Invoice(UUID.randomUUID(), BigDecimal.ZERO, alice));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        InvoiceWorker worker = new InvoiceWorker(invoiceProcessingService,
+            invoice -> invoice.amount().signum() > 0 ? InvoiceStatus.COMPLETED : InvoiceStatus.REJECTED,
+            new InvoiceWorkerProperties(10, 8, LEASE), meterRegistry);
+
+        // Act
+        worker.poll();
+        worker.destroy();
+
+        // Assert
+        assertThat(invoiceRepository.findAllById(ids))
+            .extracting(Invoice::getStatus).containsOnly(InvoiceStatus.COMPLETED);
+        assertThat(invoiceRepository.findById(zero.getId()).orElseThrow().getStatus())
+            .isEqualTo(InvoiceStatus.REJECTED);
+        assertThat(meterRegistry.get("todolist.invoice.worker.claimed").counter().count()).isEqualTo(6);
+        assertThat(meterRegistry.get("todolist.invoice.worker.processed").tag("outcome", "completed").timer().count())
+            .isEqualTo(5);
+        assertThat(meterRegistry.get("todolist.invoice.worker.queue.depth").gauge().value()).isZero();
+    }
+
+    @Test
+    void worker_shouldApproveInvoicesWithoutProcessorBean() throws Exception {
+        // Arrange
+        Invoice zero = invoiceRepository.save(new Invoice(UUID.randomUUID(), BigDecimal.ZERO, alice));
+        InvoiceWorker worker = new InvoiceWorker(invoiceProcessingService,
+            new DefaultListableBeanFactory().getBeanProvider(InvoiceProcessor.class),
+            new InvoiceWorkerProperties(10, 8, LEASE), new SimpleMeterRegistry());
+
+        // Act
+        worker.poll();
+        worker.destroy();
+
+        // Assert
+        assertThat(invoiceRepository.findById(zero.getId()).orElseThrow().getStatus())
+            .isEqualTo(InvoiceStatus.COMPLETED);
+    }
+
+    private Invoice invoice(Level level, Instant createdAt) {
+        Invoice invoice = new Invoice(UUID.randomUUID(), BigDecimal.TEN, alice, InvoiceStatus.CREATED, level);
+        invoice.setCreatedAt(createdAt.truncatedTo(ChronoUnit.MICROS));
+        return invoiceRepository.save(invoice);
+    }
+
+    private static InvoiceKey key(Invoice invoice) {
+        return new InvoiceKey(invoice.getId(), invoice.getCreatedAt());
+    }
+}
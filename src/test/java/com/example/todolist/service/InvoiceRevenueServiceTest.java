@@ -0,0 +1,155 @@
+package com.example.todolist.service;
+
+import com.example.todolist.config.InvoicePartitionProperties;
+import com.example.todolist.config.UserCacheProperties;
+import com.example.todolist.dto.InvoiceTransition;
+import com.example.todolist.dto.InvoiceView;
+import com.example.todolist.dto.RevenueFilter;
+import com.example.todolist.dto.RevenueReportRow;
+import com.example.todolist.model.Invoice;
+import com.example.todolist.model.InvoiceStatus;
+import com.example.todolist.model.Level;
+import com.example.todolist.model.Role;
+import com.example.todolist.model.User;
+import com.example.todolist.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs InvoiceService writes against H2 and checks the totals they leave in
+ * {@code invoice_daily_revenue}, including after a rebuild.
+ */
+@DataJpaTest
+@Import({InvoiceService.class, InvoiceRevenueService.class, UserService.class, ResourceVersionService.class,
+        InvoiceRevenueServiceTest.Config.class})
+@EnableConfigurationProperties({UserCacheProperties.class, InvoicePartitionProperties.class})
+@ActiveProfiles("test")
+class InvoiceRevenueServiceTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    private static final LocalDate TODAY = LocalDate.now(ZoneOffset.UTC);
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private InvoiceRevenueService invoiceRevenueService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User alice;
+
+    @BeforeEach
+    void setUp() {
+        alice = userRepository.save(new User("alice", Role.USER));
+    }
+
+    @Test
+    void writes_shouldKeepTotalsInStep() {
+        // Arrange
+        InvoiceView first = invoiceService.createInvoice(invoice("10.00", Level.HIGH));
+        invoiceService.createInvoice(invoice("5.50", Level.HIGH));
+        InvoiceView dropped = invoiceService.createInvoice(invoice("7.00", Level.LOW));
+
+        // Act
+        invoiceService.transition(first.invoiceId(), new InvoiceTransition(InvoiceStatus.REVIEWING, null));
+        invoiceService.deleteInvoice(dropped.invoiceId());
+
+        // Assert
+        List<RevenueReportRow> rows = report(RevenueFilter.Granularity.DAY, null);
+        assertThat(rows).containsExactlyInAnyOrder(
+                new RevenueReportRow(TODAY, null, InvoiceStatus.CREATED, Level.HIGH, 1L, new BigDecimal("5.50")),
+                new RevenueReportRow(TODAY, null, InvoiceStatus.REVIEWING, Level.HIGH, 1L, new BigDecimal("10.00")));
+    }
+
+    @Test
+    void getReport_shouldGroupByMonthAndUser() {
+        // Arrange
+        User bob = userRepository.save(new User("bob", Role.USER));
+        invoiceService.createInvoice(invoice("10.00", Level.MEDIUM));
+        invoiceService.createInvoice(invoice("2.00", Level.MEDIUM));
+        Invoice bobs = new Invoice(null, new BigDecimal("3.00"), bob);
+        bobs.setLevel(Level.MEDIUM);
+        invoiceService.createInvoice(bobs);
+
+        // Act
+        List<RevenueReportRow> rows = invoiceRevenueService.getReport(new RevenueFilter(
+                TODAY.minusMonths(1), TODAY, RevenueFilter.Granularity.MONTH, null, InvoiceStatus.CREATED, true));
+
+        // Assert
+        LocalDate month = TODAY.withDayOfMonth(1);
+        assertThat(rows).containsExactlyInAnyOrder(
+                new RevenueReportRow(month, alice.getId(), InvoiceStatus.CREATED, Level.MEDIUM, 2L, new BigDecimal("12.00")),
+                new RevenueReportRow(month, bob.getId(), InvoiceStatus.CREATED, Level.MEDIUM, 1L, new BigDecimal("3.00")));
+    }
+
+    @Test
+    void getReport_shouldRejectLongDailyRanges() {
+        // Act & Assert
+        assertThatThrownBy(() -> invoiceRevenueService.getReport(new RevenueFilter(
+                TODAY.minusYears(2), TODAY, RevenueFilter.Granularity.DAY, null, null, false)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rebuild_shouldRepairDrift() {
+        // Arrange
+        InvoiceView created = invoiceService.createInvoice(invoice("10.00", Level.LOW));
+        entityManager.flush();
+        // A change made behind the service's back
+        jdbcTemplate.update("update invoices set amount = 25.00 where invoice_id = ?", created.invoiceId());
+
+        // Act
+        int rows = invoiceRevenueService.rebuild();
+
+        // Assert
+        entityManager.clear();
+        assertThat(rows).isEqualTo(1);
+        assertThat(report(RevenueFilter.Granularity.DAY, null)).containsExactly(
+                new RevenueReportRow(TODAY, null, InvoiceStatus.CREATED, Level.LOW, 1L, new BigDecimal("25.00")));
+    }
+
+    private List<RevenueReportRow> report(RevenueFilter.Granularity granularity, InvoiceStatus status) {
+        return invoiceRevenueService.getReport(new RevenueFilter(
+                TODAY.minusDays(1), TODAY.plusDays(1), granularity, alice.getId(), status, false));
+    }
+
+    private Invoice invoice(String amount, Level level) {
+        Invoice invoice = new Invoice(null, new BigDecimal(amount), alice);
+        invoice.setLevel(level);
+        return invoice;
+    }
+}
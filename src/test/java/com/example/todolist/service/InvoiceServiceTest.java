@@ -0,0 +1,224 @@
+package com.example.todolist.service;
+
+import com.example.todolist.dto.CursorPage;
+import com.example.todolist.dto.InvoiceFilter;
+import com.example.todolist.dto.InvoiceTransition;
+import com.example.todolist.dto.InvoiceView;
+import com.example.todolist.dto.KeysetCursor;
+import com.example.todolist.dto.UserSnapshot;
+import com.example.todolist.model.Invoice;
+import com.example.todolist.model.InvoiceStatus;
+import com.example.todolist.model.Level;
+import com.example.todolist.model.Role;
+import com.example.todolist.model.User;
+import com.example.todolist.repository.InvoiceRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InvoiceServiceTest {
+
+    @Mock
+    private InvoiceRepository invoiceRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private InvoiceRevenueService invoiceRevenueService;
+
+    @InjectMocks
+    private InvoiceService invoiceService;
+
+    @Test
+    void getInvoices_shouldReturnCursorOfLastItem_whenMoreRowsExist() {
+        // Arrange
+        Instant updatedAt = Instant.parse("2025-01-01T00:00:00Z");
+        InvoiceView first = view(5L, InvoiceStatus.CREATED, updatedAt);
+        InvoiceView second = view(4L, InvoiceStatus.CREATED, updatedAt);
+        InvoiceView extra = view(3L, InvoiceStatus.CREATED, updatedAt);
+        when(invoiceRepository.findPage(InvoiceFilter.none(), null, 3)).thenReturn(List.of(first, second, extra));
+
+        // Act
+        CursorPage<InvoiceView> result = invoiceService.getInvoices(InvoiceFilter.none(), null, 2);
+
+        // Assert
+        assertThat(result.items()).extracting(InvoiceView::id).containsExactly(5L, 4L);
+        assertThat(KeysetCursor.decode(result.nextCursor())).isEqualTo(new KeysetCursor(updatedAt, 4L));
+    }
+
+    @Test
+    void getInvoices_shouldRejectInvalidLimit() {
+        assertThatThrownBy(() -> invoiceService.getInvoices(InvoiceFilter.none(), null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(invoiceRepository);
+    }
+
+    @Test
+    void getInvoices_shouldRejectEmptyCreatedAtRange() {
+        Instant t = Instant.parse("2025-01-01T00:00:00Z");
+        assertThatThrownBy(() -> invoiceService.getInvoices(new InvoiceFilter(null, null, t, t), null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(invoiceRepository);
+    }
+
+    @Test
+    void createInvoice_shouldIgnoreStatusAndVersionFromRequest() {
+        // Arrange
+        User user = user();
+        Invoice request = new Invoice(null, new BigDecimal("99.90"), user, InvoiceStatus.COMPLETED, Level.HIGH);
+        request.setVersion(7L);
+        when(userService.getUserById(1L)).thenReturn(UserSnapshot.of(user));
+        when(userService.getReference(1L)).thenReturn(user);
+        when(invoiceRepository.registerInvoiceId(any(UUID.class), any(Instant.class))).thenReturn(true);
+        when(invoiceRepository.save(any(Invoice.class))).thenAnswer(invocation -> {
+            Invoice saved = invocation.getArgument(0);
+            saved.setId(1L);
+            saved.setVersion(0L);
+            return saved;
+        });
+
+        // Act
+        InvoiceView result = invoiceService.createInvoice(request);
+
+        // Assert
+        assertThat(result.status()).isEqualTo(InvoiceStatus.CREATED);
+        assertThat(result.level()).isEqualTo(Level.HIGH);
+        assertThat(result.version()).isZero();
+        assertThat(result.invoiceId()).isNotNull();
+    }
+
+    @Test
+    void createInvoice_shouldRejectNegativeAmount() {
+        // Arrange
+        User user = user();
+        when(userService.getUserById(1L)).thenReturn(UserSnapshot.of(user));
+
+        // Act & Assert
+        assertThatThrownBy(() -> invoiceService.createInvoice(new Invoice(null, new BigDecimal("-1"), user)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(invoiceRepository, never()).save(any());
+    }
+
+    @Test
+    void createInvoice_shouldRejectExistingInvoiceId() {
+        // Arrange
+        User user = user();
+        UUID invoiceId = UUID.randomUUID();
+        when(userService.getUserById(1L)).thenReturn(UserSnapshot.of(user));
+        when(invoiceRepository.registerInvoiceId(eq(invoiceId), any(Instant.class))).thenReturn(false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> invoiceService.createInvoice(new Invoice(invoiceId, BigDecimal.TEN, user)))
+                .isInstanceOf(IllegalStateException.class);
+        verify(invoiceRepository, never()).save(any());
+    }
+
+    @Test
+    void transition_shouldFollowStateMachine() {
+        // Arrange
+        UUID invoiceId = UUID.randomUUID();
+        Invoice invoice = invoice(invoiceId, InvoiceStatus.REVIEWING);
+        when(invoiceRepository.findByInvoiceId(invoiceId)).thenReturn(Optional.of(invoice));
+        when(invoiceRepository.saveAndFlush(invoice)).thenReturn(invoice);
+
+        // Act
+        InvoiceView result = invoiceService.transition(invoiceId, new InvoiceTransition(InvoiceStatus.PROCESSING, 2L));
+
+        // Assert
+        assertThat(result.status()).isEqualTo(InvoiceStatus.PROCESSING);
+    }
+
+    @Test
+    void transition_shouldRejectSkippedStatus() {
+        // Arrange
+        UUID invoiceId = UUID.randomUUID();
+        when(invoiceRepository.findByInvoiceId(invoiceId))
+                .thenReturn(Optional.of(invoice(invoiceId, InvoiceStatus.CREATED)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> invoiceService.transition(invoiceId, new InvoiceTransition(InvoiceStatus.COMPLETED, null)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("cannot move from CREATED to COMPLETED");
+        verify(invoiceRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void transition_shouldRejectStaleVersion() {
+        // Arrange
+        UUID invoiceId = UUID.randomUUID();
+        when(invoiceRepository.findByInvoiceId(invoiceId))
+                .thenReturn(Optional.of(invoice(invoiceId, InvoiceStatus.CREATED)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> invoiceService.transition(invoiceId, new InvoiceTransition(InvoiceStatus.REVIEWING, 1L)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("expected version 1 but is 2");
+    }
+
+    @Test
+    void updateInvoice_shouldRejectChangesAfterReviewStarted() {
+        // Arrange
+        UUID invoiceId = UUID.randomUUID();
+        when(invoiceRepository.findByInvoiceId(invoiceId))
+                .thenReturn(Optional.of(invoice(invoiceId, InvoiceStatus.REVIEWING)));
+        Invoice request = new Invoice(null, BigDecimal.ONE, null);
+
+        // Act & Assert
+        assertThatThrownBy(() -> invoiceService.updateInvoice(invoiceId, request))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void getInvoice_shouldThrow_whenInvoiceNotFound() {
+        // Arrange
+        UUID invoiceId = UUID.randomUUID();
+        when(invoiceRepository.findByInvoiceId(invoiceId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> invoiceService.getInvoice(invoiceId))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Invoice not found with id: " + invoiceId);
+    }
+
+    @Test
+    void statusMachine_shouldOnlyAllowForwardTransitions() {
+        assertThat(InvoiceStatus.CREATED.nextStatuses()).containsExactly(InvoiceStatus.REVIEWING);
+        assertThat(InvoiceStatus.REVIEWING.nextStatuses()).containsExactly(InvoiceStatus.PROCESSING);
+        assertThat(InvoiceStatus.PROCESSING.nextStatuses())
+                .containsExactlyInAnyOrder(InvoiceStatus.COMPLETED, InvoiceStatus.REJECTED);
+        assertThat(InvoiceStatus.COMPLETED.nextStatuses()).isEmpty();
+        assertThat(InvoiceStatus.REJECTED.nextStatuses()).isEmpty();
+    }
+
+    private static User user() {
+        User user = new User("alice", Role.USER);
+        user.setId(1L);
+        return user;
+    }
+
+    private static Invoice invoice(UUID invoiceId, InvoiceStatus status) {
+        Invoice invoice = new Invoice(invoiceId, BigDecimal.TEN, user(), status, Level.MEDIUM);
+        invoice.setId(1L);
+        invoice.setVersion(2L);
+        return invoice;
+    }
+
+    private static InvoiceView view(long id, InvoiceStatus status, Instant updatedAt) {
+        return new InvoiceView(id, UUID.randomUUID(), BigDecimal.TEN, status, Level.MEDIUM, 1L, 0L, updatedAt, updatedAt);
+    }
+}
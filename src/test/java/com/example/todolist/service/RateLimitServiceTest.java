@@ -0,0 +1,98 @@
+package com.example.todolist.service;
+
+import com.example.todolist.config.RateLimitProperties;
+import com.example.todolist.model.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitServiceTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RateLimitService rateLimitService;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties(true, 1000, Duration.ofMinutes(10),
+                new RateLimitProperties.Limit(5, 5),
+                new RateLimitProperties.Limit(3, 3),
+                Map.of(Role.ADMIN, new RateLimitProperties.Limit(4, 4),
+                        Role.MANAGER, new RateLimitProperties.Limit(3, 2),
+                        Role.USER, new RateLimitProperties.Limit(2, 1)),
+                Duration.ofMinutes(1));
+        rateLimitService = new RateLimitService(properties, meterRegistry, clock::get);
+    }
+
+    @Test
+    void tryAcquire_shouldRejectAfterBurst_andRefillOverTime() {
+        // Arrange
+        rateLimitService.tryAcquire("user:1", Role.USER);
+        rateLimitService.tryAcquire("user:1", Role.USER);
+
+        // Act
+        Duration rejected = rateLimitService.tryAcquire("user:1", Role.USER);
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        Duration refilled = rateLimitService.tryAcquire("user:1", Role.USER);
+
+        // Assert
+        assertThat(rejected).isEqualTo(Duration.ofSeconds(1));
+        assertThat(refilled).isZero();
+        assertThat(meterRegistry.counter("todolist.rate-limit.rejected", "scope", "USER").count()).isEqualTo(1);
+    }
+
+    @Test
+    void tryAcquire_shouldKeepClientsApart_andSizeBucketsByRole() {
+        // Act
+        rateLimitService.tryAcquire("user:1", Role.USER);
+        rateLimitService.tryAcquire("user:1", Role.USER);
+        Duration otherUser = rateLimitService.tryAcquire("user:2", Role.MANAGER);
+        Duration thirdManagerWrite = rateLimitService.tryAcquire("user:2", Role.MANAGER);
+        rateLimitService.tryAcquire("user:2", Role.MANAGER);
+        Duration fourthManagerWrite = rateLimitService.tryAcquire("user:2", Role.MANAGER);
+
+        // Assert
+        assertThat(otherUser).isZero();
+        assertThat(thirdManagerWrite).isZero();
+        assertThat(fourthManagerWrite).isEqualTo(Duration.ofMillis(500));
+    }
+
+    @Test
+    void tryAcquire_shouldApplyGlobalLimitAcrossClients() {
+        // Arrange: five clients use up the global burst of five
+        for (int i = 0; i < 5; i++) {
+            assertThat(rateLimitService.tryAcquire("user:" + i, Role.ADMIN)).isZero();
+        }
+
+        // Act
+        Duration rejected = rateLimitService.tryAcquire("user:9", Role.ADMIN);
+
+        // Assert
+        assertThat(rejected).isEqualTo(Duration.ofMillis(200));
+        assertThat(meterRegistry.counter("todolist.rate-limit.rejected", "scope", "global").count()).isEqualTo(1);
+    }
+
+    @Test
+    void tryAcquireAddress_shouldLimitAddress_whateverClientsItClaims() {
+        // Arrange: three writes, each claiming a different user, use up the address burst
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimitService.tryAcquireAddress("10.0.0.1")).isZero();
+            assertThat(rateLimitService.tryAcquire("user:" + i + "@10.0.0.1", Role.ADMIN)).isZero();
+        }
+
+        // Act
+        Duration rejected = rateLimitService.tryAcquireAddress("10.0.0.1");
+        Duration otherAddress = rateLimitService.tryAcquireAddress("10.0.0.2");
+
+        // Assert
+        assertThat(rejected).isPositive();
+        assertThat(otherAddress).isZero();
+        assertThat(meterRegistry.counter("todolist.rate-limit.rejected", "scope", "address").count()).isEqualTo(1);
+    }
+}
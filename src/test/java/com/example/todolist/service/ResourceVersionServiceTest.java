@@ -0,0 +1,79 @@
+package com.example.todolist.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not wrapped in a test transaction: the tests commit and roll back themselves.
+// Each test uses its own resource name since commits are not undone.
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(ResourceVersionService.class)
+@ActiveProfiles("test")
+class ResourceVersionServiceTest {
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void markChanged_shouldBumpInCallersTransaction() {
+        // Arrange
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        // Act & Assert
+        tx.executeWithoutResult(status -> {
+            resourceVersionService.markChanged("commit");
+            assertThat(resourceVersionService.currentVersion("commit")).isEqualTo(1L);
+        });
+        assertThat(resourceVersionService.currentVersion("commit")).isEqualTo(1L);
+    }
+
+    @Test
+    void markChanged_shouldNotBumpOnRollback() {
+        // Arrange
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        // Act
+        tx.executeWithoutResult(status -> {
+            resourceVersionService.markChanged("rollback");
+            status.setRollbackOnly();
+        });
+
+        // Assert
+        assertThat(resourceVersionService.currentVersion("rollback")).isZero();
+    }
+
+    @Test
+    void markChanged_shouldBumpImmediately_outsideTransaction() {
+        // Act
+        resourceVersionService.markChanged("immediate");
+        resourceVersionService.markChanged("immediate");
+
+        // Assert
+        assertThat(resourceVersionService.currentVersion("immediate")).isEqualTo(2L);
+    }
+
+    @Test
+    void delete_shouldResetVersionToZero() {
+        // Arrange
+        resourceVersionService.create("deleted");
+        resourceVersionService.markChanged("deleted");
+
+        // Act
+        resourceVersionService.delete("deleted");
+
+        // Assert
+        assertThat(resourceVersionService.currentVersion("deleted")).isZero();
+    }
+}
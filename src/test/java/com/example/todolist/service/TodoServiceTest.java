@@ -1,18 +1,33 @@
 package com.example.todolist.service;
 
+import com.example.todolist.dto.BatchItemResult;
+import com.example.todolist.dto.CursorPage;
+import com.example.todolist.dto.KeysetCursor;
+import com.example.todolist.dto.OffsetCursor;
+import com.example.todolist.dto.TodoChange;
+import com.example.todolist.dto.TodoFilter;
+import com.example.todolist.dto.TodoKey;
+import com.example.todolist.dto.TodoSearchHit;
+import com.example.todolist.dto.TodoView;
+import com.example.todolist.dto.UserSnapshot;
+import com.example.todolist.model.Level;
 import com.example.todolist.model.Role;
 import com.example.todolist.model.Todo;
+import com.example.todolist.model.TodoSummaryId;
 import com.example.todolist.model.User;
 import com.example.todolist.repository.TodoRepository;
-import com.example.todolist.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -26,31 +41,112 @@ class TodoServiceTest {
     private TodoRepository todoRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private UserService userService;
+
+    @Mock
+    private TodoSummaryService todoSummaryService;
+
+    @Mock
+    private ResourceVersionService resourceVersionService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private TodoService todoService;
 
     @Test
-    void getAllTodos_shouldReturnAllTodos() {
+    void getTodos_shouldReturnLastPageWithoutCursor() {
         // Arrange
-        User user = new User("testuser", Role.USER);
-        user.setId(1L);
-
-        Todo todo1 = new Todo("Task 1", "Desc 1", user);
-        Todo todo2 = new Todo("Task 2", "Desc 2", user);
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        TodoView todo1 = new TodoView(2L, "Task 1", "Desc 1", false, Level.MEDIUM, now, 1L, "testuser");
+        TodoView todo2 = new TodoView(1L, "Task 2", "Desc 2", false, Level.MEDIUM, now, 1L, "testuser");
 
-        when(todoRepository.findAll()).thenReturn(List.of(todo1, todo2));
+        when(todoRepository.findPage(TodoFilter.none(), null, TodoService.DEFAULT_PAGE_SIZE + 1))
+                .thenReturn(List.of(todo1, todo2));
 
         // Act
-        List<Todo> result = todoService.getAllTodos();
+        CursorPage<TodoView> result = todoService.getTodos(TodoFilter.none(), null, null);
 
         // Assert
-        assertThat(result).hasSize(2);
-        assertThat(result).extracting(Todo::getTitle)
+        assertThat(result.items()).extracting(TodoView::title)
                 .containsExactly("Task 1", "Task 2");
+        assertThat(result.nextCursor()).isNull();
+    }
+
+    @Test
+    void getTodos_shouldReturnCursorOfLastItem_whenMoreRowsExist() {
+        // Arrange
+        Instant createdAt = Instant.parse("2025-01-01T00:00:00Z");
+        TodoView todo1 = new TodoView(5L, "Task 1", "Desc 1", false, Level.MEDIUM, createdAt, 1L, "testuser");
+        TodoView todo2 = new TodoView(4L, "Task 2", "Desc 2", false, Level.MEDIUM, createdAt, 1L, "testuser");
+
+        KeysetCursor after = new KeysetCursor(Instant.parse("2025-02-01T00:00:00Z"), 9L);
+        TodoFilter filter = new TodoFilter(1L, null, null);
+        when(todoRepository.findPage(filter, after, 2)).thenReturn(List.of(todo1, todo2));
 
-        verify(todoRepository).findAll();
+        // Act
+        CursorPage<TodoView> result = todoService.getTodos(filter, after.encode(), 1);
+
+        // Assert
+        assertThat(result.items()).containsExactly(todo1);
+        assertThat(KeysetCursor.decode(result.nextCursor())).isEqualTo(new KeysetCursor(createdAt, 5L));
+    }
+
+    @Test
+    void getTodos_shouldRejectOutOfRangeLimit() {
+        // Act & Assert
+        assertThatThrownBy(() -> todoService.getTodos(TodoFilter.none(), null, TodoService.MAX_PAGE_SIZE + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verify(todoRepository, never()).findPage(any(), any(), anyInt());
+    }
+
+    @Test
+    void searchTodos_shouldReturnNextCursor_whenMoreRowsExist() {
+        // Arrange
+        Instant now = Instant.now();
+        List<TodoSearchHit> rows = List.of(
+                new TodoSearchHit(new TodoView(3L, "Milk", null, false, Level.MEDIUM, now, 1L, "alice"), 0.9),
+                new TodoSearchHit(new TodoView(2L, "Milk", null, false, Level.MEDIUM, now, 1L, "alice"), 0.5),
+                new TodoSearchHit(new TodoView(1L, "Milk", null, false, Level.MEDIUM, now, 1L, "alice"), 0.1));
+        when(todoRepository.search("milk", 1L, 2, 3)).thenReturn(rows);
+
+        // Act
+        CursorPage<TodoSearchHit> page = todoService.searchTodos(" milk ", 1L, new OffsetCursor(2).encode(), 2);
+
+        // Assert
+        assertThat(page.items()).hasSize(2);
+        assertThat(OffsetCursor.decode(page.nextCursor()).offset()).isEqualTo(4);
+    }
+
+    @Test
+    void searchTodos_shouldStopAtMaxResults() {
+        // Act
+        CursorPage<TodoSearchHit> page = todoService.searchTodos("milk", null,
+                new OffsetCursor(TodoService.MAX_SEARCH_RESULTS).encode(), 10);
+
+        // Assert
+        assertThat(page.items()).isEmpty();
+        assertThat(page.nextCursor()).isNull();
+        verify(todoRepository, never()).search(any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void searchTodos_shouldRejectBlankQuery() {
+        // Act & Assert
+        assertThatThrownBy(() -> todoService.searchTodos("  ", null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> todoService.searchTodos("x", null, "not-a-cursor", null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void getTodos_shouldRejectMalformedCursor() {
+        // Act & Assert
+        assertThatThrownBy(() -> todoService.getTodos(TodoFilter.none(), "not-a-cursor", null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Invalid cursor");
     }
 
     @Test
@@ -64,7 +160,8 @@ class TodoServiceTest {
         Todo savedTodo = new Todo("New Task", "New Desc", user);
         savedTodo.setId(1L);
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userService.getUserById(1L)).thenReturn(UserSnapshot.of(user));
+        when(userService.getReference(1L)).thenReturn(user);
         when(todoRepository.save(any(Todo.class))).thenReturn(savedTodo);
 
         // Act
@@ -76,8 +173,10 @@ class TodoServiceTest {
         assertThat(result.isCompleted()).isFalse();
         assertThat(result.getUser()).isNotNull();
 
-        verify(userRepository).findById(1L);
+        verify(userService).getUserById(1L);
+        verify(userService).getReference(1L);
         verify(todoRepository).save(todo);
+        verify(resourceVersionService).markChanged("todos:1");
     }
 
     @Test
@@ -95,7 +194,8 @@ class TodoServiceTest {
         updated.setCompleted(true);
 
         when(todoRepository.findById(todoId)).thenReturn(Optional.of(existing));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userService.getUserById(1L)).thenReturn(UserSnapshot.of(user));
+        when(userService.getReference(1L)).thenReturn(user);
         when(todoRepository.save(any(Todo.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
@@ -107,8 +207,36 @@ class TodoServiceTest {
         assertThat(result.isCompleted()).isTrue();
 
         verify(todoRepository).findById(todoId);
-        verify(userRepository).findById(1L);
+        verify(userService).getUserById(1L);
         verify(todoRepository).save(existing);
+        verify(todoSummaryService).apply(argThat(delta -> delta.counts().equals(Map.of(
+                new TodoSummaryId(1L, false, Level.MEDIUM), -1L,
+                new TodoSummaryId(1L, true, Level.MEDIUM), 1L))));
+    }
+
+    @Test
+    void updateTodo_shouldPublishDeleteAndCreate_whenUserChanges() {
+        // Arrange
+        User alice = new User("alice", Role.USER);
+        alice.setId(1L);
+        User bob = new User("bob", Role.USER);
+        bob.setId(2L);
+
+        Todo existing = new Todo("Title", null, alice);
+        existing.setId(5L);
+
+        when(todoRepository.findById(5L)).thenReturn(Optional.of(existing));
+        when(userService.getUserById(2L)).thenReturn(UserSnapshot.of(bob));
+        when(userService.getReference(2L)).thenReturn(bob);
+        when(todoRepository.save(any(Todo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        todoService.updateTodo(5L, new Todo("Title", null, bob));
+
+        // Assert
+        verify(eventPublisher).publishEvent(TodoChange.deleted(5L, 1L));
+        verify(eventPublisher).publishEvent(argThat((TodoChange change) ->
+            change.type() == TodoChange.Type.CREATED && change.userId().equals(2L)));
     }
 
     @Test
@@ -133,17 +261,36 @@ class TodoServiceTest {
     }
 
     @Test
-    void deleteTodo_shouldDeleteById() {
+    void deleteTodo_shouldDeleteAndDecrementSummary() {
         // Arrange
         Long todoId = 1L;
+        User user = new User("testuser", Role.USER);
+        user.setId(1L);
+        Todo existing = new Todo("Task", "Desc", user, Level.HIGH);
+        existing.setId(todoId);
 
-        doNothing().when(todoRepository).deleteById(todoId);
+        when(todoRepository.findById(todoId)).thenReturn(Optional.of(existing));
 
         // Act
         todoService.deleteTodo(todoId);
 
         // Assert
-        verify(todoRepository).deleteById(todoId);
+        verify(todoRepository).delete(existing);
+        verify(todoSummaryService).apply(argThat(delta -> delta.counts().equals(Map.of(
+                new TodoSummaryId(1L, false, Level.HIGH), -1L))));
+    }
+
+    @Test
+    void deleteTodo_shouldDoNothing_whenTodoNotFound() {
+        // Arrange
+        when(todoRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // Act
+        todoService.deleteTodo(99L);
+
+        // Assert
+        verify(todoRepository, never()).delete(any());
+        verifyNoInteractions(todoSummaryService);
     }
 
     @Test
@@ -154,14 +301,14 @@ class TodoServiceTest {
 
         Todo todo = new Todo("Task", "Desc", user);
 
-        when(userRepository.findById(99L)).thenReturn(Optional.empty());
+        when(userService.getUserById(99L)).thenThrow(new RuntimeException("User not found with id: 99"));
 
         // Act & Assert
         assertThatThrownBy(() -> todoService.createTodo(todo))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessage("User not found with id: 99");
 
-        verify(userRepository).findById(99L);
+        verify(userService).getUserById(99L);
         verify(todoRepository, never()).save(any());
     }
 
@@ -175,7 +322,110 @@ class TodoServiceTest {
                 .isInstanceOf(RuntimeException.class)
                 .hasMessage("User is required");
 
-        verify(userRepository, never()).findById(any());
+        verify(userService, never()).getUserById(any());
         verify(todoRepository, never()).save(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void createTodos_shouldValidateUsersWithOneLookupAndReportPerItem() {
+        // Arrange
+        User alice = new User("alice", Role.USER);
+        alice.setId(1L);
+        User ghost = new User("ghost", Role.USER);
+        ghost.setId(99L);
+
+        Todo valid = new Todo("Task 1", "Desc 1", alice);
+        Todo unknownUser = new Todo("Task 2", "Desc 2", ghost);
+        Todo noUser = new Todo("Task 3", "Desc 3", null);
+        Todo noTitle = new Todo(null, "Desc 4", alice);
+
+        when(userService.getUsersByIds(Set.of(1L, 99L))).thenReturn(Map.of(1L, UserSnapshot.of(alice)));
+        when(userService.getReference(1L)).thenReturn(alice);
+        when(todoRepository.save(any(Todo.class))).thenAnswer(invocation -> {
+            Todo todo = invocation.getArgument(0);
+            todo.setId(10L);
+            return todo;
+        });
+
+        // Act
+        List<BatchItemResult> results = todoService.createTodos(List.of(valid, unknownUser, noUser, noTitle));
+
+        // Assert
+        assertThat(results).containsExactly(
+                BatchItemResult.success(0, 10L, BatchItemResult.Status.CREATED),
+                BatchItemResult.failed(1, null, "User not found with id: 99"),
+                BatchItemResult.failed(2, null, "User is required"),
+                BatchItemResult.failed(3, null, "Title is required"));
+
+        verify(userService).getUsersByIds(Set.of(1L, 99L));
+        verify(userService, never()).getUserById(any());
+        verify(todoRepository, times(1)).save(any(Todo.class));
+        verify(todoSummaryService).apply(argThat(delta -> delta.counts().equals(Map.of(
+                new TodoSummaryId(1L, false, Level.MEDIUM), 1L))));
+    }
+
+    @Test
+    void createTodos_shouldRejectOversizedBatch() {
+        // Arrange
+        List<Todo> todos = java.util.Collections.nCopies(TodoService.MAX_BATCH_SIZE + 1, new Todo());
+
+        // Act & Assert
+        assertThatThrownBy(() -> todoService.createTodos(todos))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verify(todoRepository, never()).save(any());
+    }
+
+    @Test
+    void updateTodos_shouldLoadAllTodosWithOneQuery() {
+        // Arrange
+        User user = new User("testuser", Role.USER);
+        user.setId(1L);
+
+        Todo existing = new Todo("Old Title", "Old Desc", user);
+        existing.setId(5L);
+
+        Todo update = new Todo("New Title", "New Desc", user);
+        update.setId(5L);
+        update.setCompleted(true);
+        Todo missing = new Todo("Missing", null, user);
+        missing.setId(6L);
+
+        when(userService.getUsersByIds(Set.of(1L))).thenReturn(Map.of(1L, UserSnapshot.of(user)));
+        when(userService.getReference(1L)).thenReturn(user);
+        when(todoRepository.findAllById(List.of(5L, 6L))).thenReturn(List.of(existing));
+
+        // Act
+        List<BatchItemResult> results = todoService.updateTodos(List.of(update, missing));
+
+        // Assert
+        assertThat(results).containsExactly(
+                BatchItemResult.success(0, 5L, BatchItemResult.Status.UPDATED),
+                BatchItemResult.failed(1, 6L, "Todo not found"));
+        assertThat(existing.getTitle()).isEqualTo("New Title");
+        assertThat(existing.isCompleted()).isTrue();
+
+        verify(todoRepository, never()).findById(any());
+    }
+
+    @Test
+    void deleteTodos_shouldDeleteExistingInOneStatement() {
+        // Arrange
+        when(todoRepository.findKeys(List.of(1L, 2L)))
+                .thenReturn(List.of(new TodoKey(1L, 7L, true, Level.LOW)));
+
+        // Act
+        List<BatchItemResult> results = todoService.deleteTodos(List.of(1L, 2L));
+
+        // Assert
+        assertThat(results).containsExactly(
+                BatchItemResult.success(0, 1L, BatchItemResult.Status.DELETED),
+                BatchItemResult.failed(1, 2L, "Todo not found"));
+
+        verify(todoRepository).deleteAllByIdInBatch(Set.of(1L));
+        verify(todoRepository, never()).deleteById(any());
+        verify(todoSummaryService).apply(argThat(delta -> delta.counts().equals(Map.of(
+                new TodoSummaryId(7L, true, Level.LOW), -1L))));
+        verify(resourceVersionService).markChanged(Set.of("todos:7"));
+    }
+}
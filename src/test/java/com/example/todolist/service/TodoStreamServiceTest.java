@@ -0,0 +1,94 @@
+package com.example.todolist.service;
+
+import com.example.todolist.dto.TodoChange;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The per-subscriber buffering behind {@link TodoStreamService}; delivery over
+ * HTTP is covered by {@code TodoStreamIntegrationTest}.
+ */
+class TodoStreamServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void buffer_shouldStartOneDrain_untilDrained() {
+        // Arrange
+        TodoChangeBuffer buffer = buffer(10);
+
+        // Act & Assert
+        assertThat(buffer.offer(event(1, 100L))).isTrue();
+        assertThat(buffer.offer(event(2, 101L))).isFalse();
+        assertThat(buffer.take().events()).extracting(TodoChangeBuffer.Event::id).containsExactly(1L, 2L);
+        assertThat(buffer.take()).isNull();
+        assertThat(buffer.offer(event(3, 100L))).isTrue();
+    }
+
+    @Test
+    void buffer_shouldCoalesceChangesToTheSameTodo() {
+        // Arrange
+        TodoChangeBuffer buffer = buffer(10);
+
+        // Act
+        buffer.offer(event(1, 100L));
+        buffer.offer(event(2, 101L));
+        buffer.offer(event(3, 100L));
+
+        // Assert
+        assertThat(buffer.take().events()).extracting(TodoChangeBuffer.Event::id).containsExactly(2L, 3L);
+        assertThat(meterRegistry.get("coalesced").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void buffer_shouldDropPendingForResync_whenFull() {
+        // Arrange
+        TodoChangeBuffer buffer = buffer(2);
+
+        // Act
+        buffer.offer(event(1, 100L));
+        buffer.offer(event(2, 101L));
+        buffer.offer(event(3, 102L));
+        buffer.offer(event(4, 103L));
+
+        // Assert
+        TodoChangeBuffer.Batch batch = buffer.take();
+        assertThat(batch.resyncId()).isEqualTo(3L);
+        assertThat(batch.events()).extracting(TodoChangeBuffer.Event::id).containsExactly(4L);
+        assertThat(meterRegistry.get("resyncs").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void buffer_shouldOnlySendHeartbeat_whenIdle() {
+        // Arrange
+        TodoChangeBuffer buffer = buffer(10);
+
+        // Act & Assert
+        buffer.heartbeat();
+        assertThat(buffer.take().heartbeat()).isTrue();
+        buffer.heartbeat();
+        buffer.offer(event(1, 100L));
+        assertThat(buffer.take().heartbeat()).isFalse();
+    }
+
+    @Test
+    void buffer_shouldIgnoreOffers_afterClose() {
+        // Arrange
+        TodoChangeBuffer buffer = buffer(10);
+        buffer.close();
+
+        // Act & Assert
+        assertThat(buffer.offer(event(1, 100L))).isFalse();
+        assertThat(buffer.take()).isNull();
+    }
+
+    private TodoChangeBuffer buffer(int capacity) {
+        return new TodoChangeBuffer(capacity, meterRegistry.counter("coalesced"), meterRegistry.counter("resyncs"));
+    }
+
+    private static TodoChangeBuffer.Event event(long id, Long todoId) {
+        return new TodoChangeBuffer.Event(id, TodoChange.deleted(todoId, 1L));
+    }
+}
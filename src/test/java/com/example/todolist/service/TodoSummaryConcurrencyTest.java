@@ -0,0 +1,97 @@
+package com.example.todolist.service;
+
+import com.example.todolist.model.Level;
+import com.example.todolist.model.Role;
+import com.example.todolist.model.TodoSummaryId;
+import com.example.todolist.model.User;
+import com.example.todolist.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not wrapped in a test transaction: the writers have to commit concurrently.
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(TodoSummaryService.class)
+@ActiveProfiles("test")
+class TodoSummaryConcurrencyTest {
+
+    private static final int WRITERS = 8;
+
+    @Autowired
+    private TodoSummaryService todoSummaryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @AfterEach
+    void tearDown() {
+        if (user != null) {
+            jdbcTemplate.update("delete from todo_summary where user_id = ?", user.getId());
+            userRepository.deleteById(user.getId());
+        }
+    }
+
+    @Test
+    void apply_shouldCountEveryWriter_whenFirstRowIsCreatedConcurrently() throws Exception {
+        // Arrange
+        user = userRepository.save(new User("summary-race", Role.USER));
+        TodoSummaryId id = new TodoSummaryId(user.getId(), false, Level.HIGH);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        CyclicBarrier start = new CyclicBarrier(WRITERS);
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+
+        // Act: every writer is inside its transaction before any of them creates the row
+        List<Future<?>> writers = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            writers.add(executor.submit(() -> tx.executeWithoutResult(status -> {
+                await(start);
+                todoSummaryService.apply(new TodoSummaryService.Delta().add(id));
+            })));
+        }
+        try {
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertThat(todoSummaryService.getSummary(user.getId()).open()).containsEntry(Level.HIGH, (long) WRITERS);
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.todolist.service;
+
+import com.example.todolist.config.UserCacheProperties;
+import com.example.todolist.dto.BatchItemResult;
+import com.example.todolist.dto.UserTodoSummary;
+import com.example.todolist.model.Level;
+import com.example.todolist.model.Role;
+import com.example.todolist.model.Todo;
+import com.example.todolist.model.User;
+import com.example.todolist.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs TodoService writes against H2 and checks the counters they leave in
+ * {@code todo_summary}, including after a rebuild.
+ */
+@DataJpaTest
+@Import({TodoService.class, UserService.class, TodoSummaryService.class, ResourceVersionService.class,
+        TodoSummaryServiceTest.Config.class})
+@EnableConfigurationProperties(UserCacheProperties.class)
+@ActiveProfiles("test")
+class TodoSummaryServiceTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private TodoSummaryService todoSummaryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User alice;
+
+    @BeforeEach
+    void setUp() {
+        alice = userRepository.save(new User("alice", Role.USER));
+    }
+
+    @Test
+    void writes_shouldKeepCountersInStep() {
+        // Arrange
+        Todo high = todoService.createTodo(new Todo("A", null, alice, Level.HIGH));
+        Todo low = todoService.createTodo(new Todo("B", null, alice, Level.LOW));
+        todoService.createTodo(new Todo("C", null, alice, Level.LOW));
+
+        // Act
+        Todo done = new Todo("A", null, alice);
+        done.setCompleted(true);
+        todoService.updateTodo(high.getId(), done);
+        todoService.deleteTodo(low.getId());
+
+        // Assert
+        UserTodoSummary summary = todoSummaryService.getSummary(alice.getId());
+        assertThat(summary.open()).isEqualTo(Map.of(Level.LOW, 1L, Level.MEDIUM, 0L, Level.HIGH, 0L));
+        assertThat(summary.completed()).isEqualTo(Map.of(Level.LOW, 0L, Level.MEDIUM, 0L, Level.HIGH, 1L));
+    }
+
+    @Test
+    void batchWrites_shouldKeepCountersInStep() {
+        // Arrange
+        List<BatchItemResult> created = todoService.createTodos(List.of(
+                new Todo("A", null, alice, Level.MEDIUM),
+                new Todo("B", null, alice, Level.MEDIUM),
+                new Todo("C", null, alice, Level.HIGH)));
+
+        // Act
+        todoService.deleteTodos(List.of(created.get(0).id(), created.get(2).id()));
+
+        // Assert
+        UserTodoSummary summary = todoSummaryService.getSummary(alice.getId());
+        assertThat(summary.open()).isEqualTo(Map.of(Level.LOW, 0L, Level.MEDIUM, 1L, Level.HIGH, 0L));
+    }
+
+    @Test
+    void writes_shouldAcceptUserReferencedById() {
+        // Arrange: request bodies only carry {"user": {"id": ...}}
+        entityManager.flush();
+        entityManager.clear();
+        User byId = new User();
+        byId.setId(alice.getId());
+
+        // Act
+        Todo created = todoService.createTodo(new Todo("A", null, byId, Level.HIGH));
+        Todo updated = todoService.updateTodo(created.getId(), new Todo("B", null, byId));
+        entityManager.flush();
+
+        // Assert
+        assertThat(updated.getUser().getUsername()).isEqualTo("alice");
+        assertThat(todoSummaryService.getSummary(alice.getId()).open()).containsEntry(Level.HIGH, 1L);
+    }
+
+    @Test
+    void rebuild_shouldRepairDrift() {
+        // Arrange
+        todoService.createTodo(new Todo("A", null, alice, Level.LOW));
+        entityManager.flush();
+        // A row written behind the service's back
+        jdbcTemplate.update("insert into todolist (id, title, completed, level, created_at, user_id, version) "
+                + "values (nextval('todolist_seq'), 'Raw', true, 'HIGH', current_timestamp, ?, 0)", alice.getId());
+
+        // Act
+        int rows = todoSummaryService.rebuild();
+
+        // Assert
+        entityManager.clear();
+        UserTodoSummary summary = todoSummaryService.getSummary(alice.getId());
+        assertThat(rows).isEqualTo(2);
+        assertThat(summary.open().get(Level.LOW)).isEqualTo(1L);
+        assertThat(summary.completed().get(Level.HIGH)).isEqualTo(1L);
+    }
+
+    @Test
+    void getAllSummaries_shouldGroupByUser() {
+        // Arrange
+        User bob = userRepository.save(new User("bob", Role.USER));
+        todoService.createTodo(new Todo("A", null, alice, Level.LOW));
+        todoService.createTodo(new Todo("B", null, bob, Level.HIGH));
+
+        // Act
+        List<UserTodoSummary> summaries = todoSummaryService.getAllSummaries();
+
+        // Assert
+        assertThat(summaries).extracting(UserTodoSummary::userId).containsExactly(alice.getId(), bob.getId());
+        assertThat(summaries.get(1).open().get(Level.HIGH)).isEqualTo(1L);
+    }
+}
@@ -1,20 +1,28 @@
 package com.example.todolist.service;
 
+import com.example.todolist.config.UserCacheProperties;
+import com.example.todolist.dto.UserSnapshot;
 import com.example.todolist.model.Role;
 import com.example.todolist.model.User;
 import com.example.todolist.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,9 +31,23 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
-    @InjectMocks
+    @Mock
+    private ResourceVersionService resourceVersionService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
     private UserService userService;
 
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userService = new UserService(userRepository, resourceVersionService, new UserCacheProperties(100, Duration.ofMinutes(5)), meterRegistry,
+                transactionManager);
+    }
+
     @Test
     void getAllUsers_shouldReturnAllUsers() {
         // Arrange
@@ -55,11 +77,11 @@ class UserServiceTest {
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
         // Act
-        User result = userService.getUserById(userId);
+        UserSnapshot result = userService.getUserById(userId);
 
         // Assert
-        assertThat(result.getId()).isEqualTo(userId);
-        assertThat(result.getUsername()).isEqualTo("alice");
+        assertThat(result.id()).isEqualTo(userId);
+        assertThat(result.username()).isEqualTo("alice");
         verify(userRepository).findById(userId);
     }
 
@@ -98,6 +120,7 @@ class UserServiceTest {
 
         verify(userRepository).findByUsername("charlie");
         verify(userRepository).save(user);
+        verify(resourceVersionService).create(ResourceVersionService.todosOf(1L));
     }
 
     @Test
@@ -143,6 +166,7 @@ class UserServiceTest {
         verify(userRepository).findById(userId);
         verify(userRepository).findByUsername("robert");
         verify(userRepository).save(existing);
+        verify(resourceVersionService).markChanged(ResourceVersionService.USERS);
     }
 
     @Test
@@ -214,19 +238,46 @@ class UserServiceTest {
     }
 
     @Test
-    void deleteUser_shouldDeleteById() {
+    void deleteUser_shouldDeleteWithDependents() {
         // Arrange
         Long userId = 1L;
 
-        when(userRepository.existsById(userId)).thenReturn(true);
-        doNothing().when(userRepository).deleteById(userId);
+        when(userRepository.findUsernameById(userId)).thenReturn(Optional.of("alice"));
+        when(userRepository.deleteWithDependents(userId, UserService.DELETE_CHUNK_SIZE))
+                .thenReturn(new UserRepository.DeletedRows(3, 2, 1));
 
         // Act
         userService.deleteUser(userId);
 
         // Assert
-        verify(userRepository).existsById(userId);
-        verify(userRepository).deleteById(userId);
+        verify(userRepository).findUsernameById(userId);
+        verify(userRepository).deleteTodos(userId, UserService.DELETE_CHUNK_SIZE);
+        verify(userRepository).deleteInvoices(userId, UserService.DELETE_CHUNK_SIZE);
+        verify(userRepository).deleteWithDependents(userId, UserService.DELETE_CHUNK_SIZE);
+        verify(userRepository, never()).deleteById(any());
+        verify(resourceVersionService).delete(ResourceVersionService.todosOf(userId));
+    }
+
+    @Test
+    void deleteUser_shouldCommitEachChunk() {
+        // Arrange
+        Long userId = 1L;
+        int chunk = UserService.DELETE_CHUNK_SIZE;
+
+        when(userRepository.findUsernameById(userId)).thenReturn(Optional.of("alice"));
+        when(userRepository.deleteTodos(userId, chunk)).thenReturn(chunk, chunk, 7);
+        when(userRepository.deleteInvoices(userId, chunk)).thenReturn(chunk, 0);
+        when(userRepository.deleteWithDependents(userId, chunk))
+                .thenReturn(new UserRepository.DeletedRows(0, 0, 1));
+
+        // Act
+        userService.deleteUser(userId);
+
+        // Assert: 3 todo chunks, 2 invoice chunks and the final delete
+        verify(userRepository, times(3)).deleteTodos(userId, chunk);
+        verify(userRepository, times(2)).deleteInvoices(userId, chunk);
+        verify(transactionManager, times(6)).commit(any());
+        verify(resourceVersionService, times(3)).markChanged(ResourceVersionService.todosOf(userId));
     }
 
     @Test
@@ -234,14 +285,180 @@ class UserServiceTest {
         // Arrange
         Long userId = 99L;
 
-        when(userRepository.existsById(userId)).thenReturn(false);
+        when(userRepository.findUsernameById(userId)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> userService.deleteUser(userId))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessage("User not found with id: 99");
 
-        verify(userRepository).existsById(userId);
-        verify(userRepository, never()).deleteById(any());
+        verify(userRepository).findUsernameById(userId);
+        verify(userRepository, never()).deleteWithDependents(any(), anyInt());
+    }
+
+    @Test
+    void getUserById_shouldServeRepeatedLookupsFromCache() {
+        // Arrange
+        Long userId = 1L;
+        User user = new User("alice", Role.ADMIN);
+        user.setId(userId);
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        // Act
+        UserSnapshot first = userService.getUserById(userId);
+        UserSnapshot result = userService.getUserById(userId);
+
+        // Assert
+        assertThat(result).isSameAs(first);
+        verify(userRepository, times(1)).findById(userId);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "users.byId").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "users.byId").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void getUserByIdAndVersion_shouldReload_whenCachedCopyIsOlder() {
+        // Arrange: cached at version 1, then changed to version 2 by another instance
+        Long userId = 1L;
+        User cached = new User("alice", Role.USER);
+        cached.setId(userId);
+        cached.setVersion(1L);
+        User current = new User("alice", Role.ADMIN);
+        current.setId(userId);
+        current.setVersion(2L);
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(cached), Optional.of(current));
+        userService.getUserById(userId);
+
+        // Act
+        UserSnapshot stale = userService.getUserById(userId, 1L);
+        UserSnapshot result = userService.getUserById(userId, 2L);
+
+        // Assert
+        assertThat(stale).isEqualTo(UserSnapshot.of(cached));
+        assertThat(result).isEqualTo(UserSnapshot.of(current));
+        assertThat(userService.getUserById(userId)).isSameAs(result);
+        verify(userRepository, times(2)).findById(userId);
+    }
+
+    @Test
+    void getUserById_shouldCacheCopy_notTheLoadedEntity() {
+        // Arrange
+        User user = new User("alice", Role.USER);
+        user.setId(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        userService.getUserById(1L);
+
+        // Act: the entity belongs to one persistence context and may change there
+        user.setRole(Role.ADMIN);
+
+        // Assert
+        assertThat(userService.getUserById(1L).role()).isEqualTo(Role.USER);
+    }
+
+    @Test
+    void getUserById_shouldNotCacheMissingUser() {
+        // Arrange
+        when(userRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // Act
+        assertThatThrownBy(() -> userService.getUserById(99L)).isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> userService.getUserById(99L)).isInstanceOf(RuntimeException.class);
+
+        // Assert
+        verify(userRepository, times(2)).findById(99L);
+    }
+
+    @Test
+    void getUsersByIds_shouldOnlyLoadCacheMisses() {
+        // Arrange
+        User alice = new User("alice", Role.USER);
+        alice.setId(1L);
+        User bob = new User("bob", Role.USER);
+        bob.setId(2L);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(alice));
+        when(userRepository.findAllById(Set.of(2L, 3L))).thenReturn(List.of(bob));
+        userService.getUserById(1L);
+
+        // Act
+        Map<Long, UserSnapshot> result = userService.getUsersByIds(Set.of(1L, 2L, 3L));
+
+        // Assert
+        assertThat(result).containsOnlyKeys(1L, 2L);
+        verify(userRepository).findAllById(Set.of(2L, 3L));
+    }
+
+    @Test
+    void createUser_shouldRejectCachedUsernameWithoutQuery() {
+        // Arrange
+        User existing = new User("alice", Role.ADMIN);
+        existing.setId(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(existing));
+        userService.getUserById(1L);
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.createUser(new User("alice", Role.USER)))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Username already exists: alice");
+
+        verify(userRepository, never()).findByUsername(any());
+    }
+
+    @Test
+    void updateUser_shouldInvalidateCachedEntries() {
+        // Arrange
+        Long userId = 1L;
+        User existing = new User("bob", Role.USER);
+        existing.setId(userId);
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(existing));
+        when(userRepository.findByUsername("robert")).thenReturn(Optional.empty());
+        when(userRepository.findByUsername("bob")).thenReturn(Optional.empty());
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userRepository.save(argThat(user -> user.getId() == null))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            user.setId(2L);
+            return user;
+        });
+        userService.getUserById(userId);
+
+        // Act
+        userService.updateUser(userId, new User("robert", Role.MANAGER));
+        userService.getUserById(userId);
+
+        // Assert: the old username is free again and the user is reloaded
+        assertThat(userService.createUser(new User("bob", Role.USER)).getId()).isEqualTo(2L);
+        verify(userRepository, times(3)).findById(userId);
+    }
+
+    @Test
+    void deleteUser_shouldInvalidateCachedEntries() {
+        // Arrange
+        Long userId = 1L;
+        User existing = new User("alice", Role.USER);
+        existing.setId(userId);
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(existing), Optional.empty());
+        when(userRepository.findUsernameById(userId)).thenReturn(Optional.of("alice"));
+        when(userRepository.deleteWithDependents(userId, UserService.DELETE_CHUNK_SIZE))
+                .thenReturn(new UserRepository.DeletedRows(0, 0, 1));
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.empty());
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            user.setId(2L);
+            return user;
+        });
+        userService.getUserById(userId);
+
+        // Act
+        userService.deleteUser(userId);
+
+        // Assert
+        assertThatThrownBy(() -> userService.getUserById(userId)).isInstanceOf(RuntimeException.class);
+        userService.createUser(new User("alice", Role.USER));
+        verify(userRepository).findByUsername("alice");
     }
 }